@@ -0,0 +1,281 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a change made to a to-do list that can be undone and redone. A command keeps only what the change
+// altered: the tasks added or removed and their indices, the old and new value of an edited field, or where each task
+// was before a sort. Tasks are kept by reference, so commands must be undone and redone in the order they were made.
+abstract class Command {
+    static final int REFERENCE_BYTES = 8;
+    static final int OBJECT_BYTES = 16;
+    static final int TASK_BYTES = 120;      // a task with its deadline and two empty strings
+
+    // MODIFIES: list
+    // EFFECTS: reverses this change in list
+    abstract void undo(ToDoList list);
+
+    // MODIFIES: list
+    // EFFECTS: makes this change to list again
+    abstract void redo(ToDoList list);
+
+    // EFFECTS: returns roughly how many bytes of memory this command keeps from being collected
+    abstract long size();
+
+    // EFFECTS: returns the command of renaming a to-do list from oldName to newName
+    static Command renameList(String oldName, String newName) {
+        return new RenameList(oldName, newName);
+    }
+
+    // REQUIRES: added are in the to-do list
+    // EFFECTS: returns the command of adding added to a to-do list, in order
+    static Command addTasks(List<Task> added) {
+        return new AddTasks(new ArrayList<>(added));
+    }
+
+    // REQUIRES: indices is in ascending order and has the same length as removed
+    // EFFECTS: returns the command of removing each task of removed from the matching index in indices
+    static Command removeTasks(int[] indices, List<Task> removed) {
+        return new RemoveTasks(indices, List.copyOf(removed));
+    }
+
+    // REQUIRES: field is one of NAME_CHANGED, DESCRIPTION_CHANGED, DEADLINE_CHANGED, PRIORITY_CHANGED and
+    //           COMPLETED_CHANGED, and oldValue and newValue are values of that field
+    // EFFECTS: returns the command of changing field of task from oldValue to newValue
+    static Command editTask(Task task, EventOperation field, Object oldValue, Object newValue) {
+        return new EditTask(task, field, oldValue, newValue);
+    }
+
+    // REQUIRES: each index of the to-do list appears once in before
+    // EFFECTS: returns the command of sorting a to-do list last sorted by oldOrder (null if never sorted) by
+    //          newOrder, which moved the task at index before[i] to index i
+    static Command sort(int[] before, SortOrder oldOrder, SortOrder newOrder) {
+        return new Sort(before, oldOrder, newOrder);
+    }
+
+    // REQUIRES: before is null, or each index of the to-do list appears once in it
+    // EFFECTS: returns the command of turning keeping a to-do list sorted on or off, which moved the task at index
+    //          before[i] to index i, or moved no task if before is null
+    static Command keepSorted(boolean keepSorted, int[] before) {
+        return new KeepSorted(keepSorted, before);
+    }
+
+    // EFFECTS: returns roughly how many bytes of memory s takes
+    static long sizeOf(String s) {
+        return OBJECT_BYTES * 3 + 2L * s.length();
+    }
+
+    // EFFECTS: returns roughly how many bytes of memory tasks take, not counting the references to them
+    static long sizeOf(List<Task> tasks) {
+        long total = 0;
+        for (Task t : tasks) {
+            total += TASK_BYTES + 2L * (t.getName().length() + t.getDescription().length());
+        }
+        return total;
+    }
+
+    // Represents renaming a to-do list
+    private static final class RenameList extends Command {
+        private final String oldName;
+        private final String newName;
+
+        RenameList(String oldName, String newName) {
+            this.oldName = oldName;
+            this.newName = newName;
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            list.setName(oldName);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            list.setName(newName);
+        }
+
+        @Override
+        long size() {
+            return OBJECT_BYTES + sizeOf(oldName) + sizeOf(newName);
+        }
+    }
+
+    // Represents adding tasks to a to-do list. While the tasks are in the to-do list only the references are counted,
+    // but once the adding is undone the tasks are only kept alive by this command, so they are counted in full.
+    private static final class AddTasks extends Command {
+        private final List<Task> added;
+        private long undoneSize;    // bytes the tasks take, worked out when undone; 0 while they are in the list
+
+        AddTasks(List<Task> added) {
+            this.added = added;
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            list.removeTasksAt(ToDoList.positionsOf(added));
+            undoneSize = sizeOf(added);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            undoneSize = 0;
+            if (added.size() == 1) {
+                list.addTask(added.get(0));
+            } else {
+                list.addAllTasks(added);
+            }
+        }
+
+        @Override
+        long size() {
+            return OBJECT_BYTES * 2 + (long) REFERENCE_BYTES * added.size() + undoneSize;
+        }
+    }
+
+    // Represents removing tasks from a to-do list. Once removed, the tasks are only kept alive by this command.
+    private static final class RemoveTasks extends Command {
+        private final int[] indices;
+        private final List<Task> removed;
+        private final long size;    // worked out once, since removed tasks can still be changed
+
+        RemoveTasks(int[] indices, List<Task> removed) {
+            this.indices = indices;
+            this.removed = removed;
+            size = OBJECT_BYTES * 3 + (long) (Integer.BYTES + REFERENCE_BYTES) * indices.length + sizeOf(removed);
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            list.insertTasksAt(indices, removed);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            list.removeTasksAt(indices);
+        }
+
+        @Override
+        long size() {
+            return size;
+        }
+    }
+
+    // Represents changing one field of a task in a to-do list
+    private static final class EditTask extends Command {
+        private final Task task;
+        private final EventOperation field;
+        private final Object oldValue;
+        private final Object newValue;
+
+        EditTask(Task task, EventOperation field, Object oldValue, Object newValue) {
+            this.task = task;
+            this.field = field;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            set(oldValue);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            set(newValue);
+        }
+
+        // MODIFIES: task
+        // EFFECTS: sets the field of task to value
+        private void set(Object value) {
+            if (field == EventOperation.NAME_CHANGED) {
+                task.setName((String) value);
+            } else if (field == EventOperation.DESCRIPTION_CHANGED) {
+                task.setDescription((String) value);
+            } else if (field == EventOperation.DEADLINE_CHANGED) {
+                task.setDeadline((LocalDateTime) value);
+            } else if (field == EventOperation.PRIORITY_CHANGED) {
+                task.setPriority((Integer) value);
+            } else {
+                task.setCompleted((Boolean) value);
+            }
+        }
+
+        @Override
+        long size() {
+            long size = OBJECT_BYTES + REFERENCE_BYTES * 4;
+            if (oldValue instanceof String) {
+                size += sizeOf((String) oldValue) + sizeOf((String) newValue);
+            } else if (oldValue instanceof LocalDateTime) {
+                size += 2 * (OBJECT_BYTES * 3);
+            }
+            return size;
+        }
+    }
+
+    // Represents reordering the tasks of a to-do list
+    private abstract static class Reorder extends Command {
+        private final int[] before;     // index each task was at before the tasks were reordered, null if none moved
+
+        Reorder(int[] before) {
+            this.before = before;
+        }
+
+        // MODIFIES: list
+        // EFFECTS: moves every task of list back to where it was before the tasks were reordered, remembering order
+        //          as the order of the most recent sort
+        void moveBack(ToDoList list, SortOrder order) {
+            if (before != null) {
+                list.reorder(before, order);
+            }
+        }
+
+        @Override
+        long size() {
+            return OBJECT_BYTES * 2 + (before == null ? 0 : (long) Integer.BYTES * before.length);
+        }
+    }
+
+    // Represents sorting a to-do list
+    private static final class Sort extends Reorder {
+        private final SortOrder oldOrder;
+        private final SortOrder newOrder;
+
+        Sort(int[] before, SortOrder oldOrder, SortOrder newOrder) {
+            super(before);
+            this.oldOrder = oldOrder;
+            this.newOrder = newOrder;
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            moveBack(list, oldOrder);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            list.sortBy(newOrder);
+        }
+    }
+
+    // Represents turning keeping a to-do list sorted on or off
+    private static final class KeepSorted extends Reorder {
+        private final boolean keepSorted;
+
+        KeepSorted(boolean keepSorted, int[] before) {
+            super(before);
+            this.keepSorted = keepSorted;
+        }
+
+        @Override
+        void undo(ToDoList list) {
+            list.setKeepSorted(!keepSorted);
+            moveBack(list, list.activeOrder);
+        }
+
+        @Override
+        void redo(ToDoList list) {
+            list.setKeepSorted(keepSorted);
+        }
+    }
+}
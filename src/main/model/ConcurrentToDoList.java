@@ -0,0 +1,357 @@
+package model;
+
+import org.json.JSONObject;
+import persistence.ListSaver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Represents a To-Do List that can be shared between threads. Changes are made one at a time while holding a
+// reentrant write lock, on the same structures ToDoList uses, so a change costs what it costs in ToDoList and looking
+// a task up by name stays a single hash lookup. The outermost change also write-locks a StampedLock. Reads take no
+// lock: they read optimistically and check the stamp afterwards, and only when a change ran alongside do they read
+// again under the read side of the StampedLock. Either way a read sees the to-do list as it was between two changes.
+// Iterating, saving and converting to JSON work on a copy of the tasks read that way. Change listeners are told about
+// a change once it is complete, while the write lock is still held. A change made through the setters of a task is
+// made while holding the write lock, field write included.
+public class ConcurrentToDoList extends ToDoList {
+    private final ReentrantLock writeLock;
+    private final StampedLock stamps;               // write-locked for the whole of the outermost change
+    private long writeStamp;                        // stamp of the outermost change running, if any
+    private final List<ListChange> pendingChanges;  // changes made while holding the write lock, not yet told
+
+    // EFFECTS: Initializes an empty to-do list named listName
+    public ConcurrentToDoList(String listName) {
+        super(listName);
+        writeLock = new ReentrantLock();
+        stamps = new StampedLock();
+        pendingChanges = new ArrayList<>();
+    }
+
+    // EFFECTS: Initializes an empty to-do list named with empty string
+    public ConcurrentToDoList() {
+        this("");
+    }
+
+    @Override
+    public String getName() {
+        return read(super::getName);
+    }
+
+    @Override
+    public void setName(String name) {
+        write(() -> super.setName(name));
+    }
+
+    @Override
+    public int getSize() {
+        return read(super::getSize);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return read(super::isEmpty);
+    }
+
+    @Override
+    public boolean addTask(Task task) {
+        return writeAndGet(() -> super.addTask(task));
+    }
+
+    @Override
+    public int addAllTasks(Collection<Task> batch) {
+        return writeAndGet(() -> super.addAllTasks(batch));
+    }
+
+    @Override
+    public int[] removeTask(String taskName) {
+        return writeAndGet(() -> super.removeTask(taskName));
+    }
+
+    @Override
+    public int[] removeAllCompletedTasks() {
+        return writeAndGet(super::removeAllCompletedTasks);
+    }
+
+    @Override
+    public int[] removeAllOverdueTasks() {
+        return writeAndGet(super::removeAllOverdueTasks);
+    }
+
+    @Override
+    int[] removeTasksAt(int[] indices) {
+        return writeAndGet(() -> super.removeTasksAt(indices));
+    }
+
+    @Override
+    public void removeAllTasks() {
+        write(super::removeAllTasks);
+    }
+
+    @Override
+    public boolean containsTask(String taskName) {
+        return read(() -> super.containsTask(taskName));
+    }
+
+    @Override
+    public Task getTask(String taskName) {
+        return read(() -> super.getTask(taskName));
+    }
+
+    @Override
+    public Task getTask(int index) {
+        return index < 0 ? null : read(() -> super.getTask(index));
+    }
+
+    @Override
+    public int getTaskIndex(String taskName) {
+        return read(() -> super.getTaskIndex(taskName));
+    }
+
+    @Override
+    public int getTaskIndex(Task task) {
+        return read(() -> super.getTaskIndex(task));
+    }
+
+    // EFFECTS: returns a stream of the tasks matching query, in no particular order. The indexes are searched under
+    //          the read lock, or the write lock while the first query builds them, and the matching tasks are
+    //          collected before returning.
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        Supplier<List<Task>> select = () -> super.query(query).collect(Collectors.toList());
+        List<Task> matches = readLocked(() -> queryIndex == null ? null : select.get());
+        return (matches == null ? writeAndGet(select) : matches).stream();
+    }
+
+    // EFFECTS: returns the tasks matching query, best match first. The index is searched under the read lock, or the
+    //          write lock while the first search or suggestion builds it.
+    @Override
+    public List<Task> search(String query, boolean matchAll) {
+        return withTextIndex(() -> super.search(query, matchAll));
+    }
+
+    // EFFECTS: returns up to limit words starting with prefix. The index is searched under the read lock, or the
+    //          write lock while the first search or suggestion builds it.
+    @Override
+    public List<String> suggestWords(String prefix, int limit) {
+        return withTextIndex(() -> super.suggestWords(prefix, limit));
+    }
+
+    // EFFECTS: returns the result of read, which uses the text index, under the read lock if the index is built and
+    //          under the write lock otherwise
+    private <T> T withTextIndex(Supplier<T> read) {
+        T result = readLocked(() -> textIndex == null ? null : read.get());
+        return result == null ? writeAndGet(read) : result;
+    }
+
+    @Override
+    public void sortBy(SortOrder order) {
+        write(() -> super.sortBy(order));
+    }
+
+    @Override
+    public boolean isKeepSorted() {
+        return read(super::isKeepSorted);
+    }
+
+    @Override
+    public void setKeepSorted(boolean keepSorted) {
+        write(() -> super.setKeepSorted(keepSorted));
+    }
+
+    // EFFECTS: runs edit as one change while holding the write lock if task still belongs to this to-do list once
+    //          the lock is held, and returns true; returns false without running edit otherwise
+    @Override
+    boolean editTask(Task task, Runnable edit) {
+        return writeAndGet(() -> super.editTask(task, edit));
+    }
+
+    @Override
+    void taskRenamed(Task task, String oldName) {
+        write(() -> {
+            if (task.getOwner() == this) {
+                super.taskRenamed(task, oldName);
+            }
+        });
+    }
+
+    @Override
+    void taskChanged(Task task, EventOperation field, Object oldValue, Object newValue) {
+        write(() -> {
+            if (task.getOwner() == this) {
+                super.taskChanged(task, field, oldValue, newValue);
+            }
+        });
+    }
+
+    // REQUIRES: the write lock is held
+    // MODIFIES: this
+    // EFFECTS: keeps change to tell the change listeners once the write it belongs to is complete
+    @Override
+    void fireChange(ListChange change) {
+        if (change != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    @Override
+    void setUndoHistory(UndoHistory history) {
+        write(() -> super.setUndoHistory(history));
+    }
+
+    @Override
+    public void setMutationListener(MutationListener listener) {
+        write(() -> super.setMutationListener(listener));
+    }
+
+    @Override
+    void setDirtyTracker(DirtyTracker tracker) {
+        write(() -> super.setDirtyTracker(tracker));
+    }
+
+    // EFFECTS: returns a change that makes any to-do list a copy of this one, taken under the read lock
+    @Override
+    public Mutation checkpoint() {
+        return readLocked(super::checkpoint);
+    }
+
+    @Override
+    void restore(String listName, List<Task> restored, SortOrder order, boolean keepSorted) {
+        write(() -> super.restore(listName, restored, order, keepSorted));
+    }
+
+    @Override
+    void insertTasksAt(int[] indices, List<Task> inserted) {
+        write(() -> super.insertTasksAt(indices, inserted));
+    }
+
+    @Override
+    void reorder(int[] positions, SortOrder order) {
+        write(() -> super.reorder(positions, order));
+    }
+
+    // EFFECTS: returns an iterator over a copy of the tasks in the to-do list, unaffected by later changes. The
+    //          iterator does not support remove.
+    @Override
+    public Iterator<Task> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public JSONObject toJson() {
+        Snapshot current = snapshot();
+        return toJson(current.listName, current);
+    }
+
+    @Override
+    public void saveWith(ListSaver saver) throws IOException {
+        Snapshot current = snapshot();
+        saveWith(current.listName, current, saver);
+    }
+
+    // EFFECTS: returns a copy of the name and tasks of the to-do list as they are now
+    private Snapshot snapshot() {
+        return read(() -> new Snapshot(name, tasks.toArray(new Task[0])));
+    }
+
+    // EFFECTS: returns the result of read, which must not change anything, as of a moment between two changes. Reads
+    //          optimistically without a lock first, and under the read lock if a change ran alongside.
+    private <T> T read(Supplier<T> read) {
+        if (writeLock.isHeldByCurrentThread()) {
+            return read.get();
+        }
+        long stamp = stamps.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = read.get();
+                if (stamps.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // a change ran alongside and left the structures half updated; the stamp no longer validates
+            }
+        }
+        return readLocked(read);
+    }
+
+    // EFFECTS: returns the result of read, which must not change anything, while holding the read lock
+    private <T> T readLocked(Supplier<T> read) {
+        if (writeLock.isHeldByCurrentThread()) {
+            return read.get();
+        }
+        long stamp = stamps.readLock();
+        try {
+            return read.get();
+        } finally {
+            stamps.unlockRead(stamp);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs mutation while holding the write lock, then tells the change listeners
+    private void write(Runnable mutation) {
+        writeAndGet(() -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs mutation while holding the write lock, write-locking the StampedLock too unless a change is
+    //          already running on this thread, then tells the change listeners and returns the result
+    private <T> T writeAndGet(Supplier<T> mutation) {
+        writeLock.lock();
+        if (writeLock.getHoldCount() == 1) {
+            writeStamp = stamps.writeLock();
+        }
+        try {
+            return mutation.get();
+        } finally {
+            firePendingChanges();
+            if (writeLock.getHoldCount() == 1) {
+                stamps.unlockWrite(writeStamp);
+            }
+            writeLock.unlock();
+        }
+    }
+
+    // REQUIRES: the write lock is held
+    // MODIFIES: this
+    // EFFECTS: if this is the outermost write, tells the change listeners about the changes made while holding the
+    //          write lock, including changes listeners make in turn
+    private void firePendingChanges() {
+        while (writeLock.getHoldCount() == 1 && !pendingChanges.isEmpty()) {
+            List<ListChange> changes = new ArrayList<>(pendingChanges);
+            pendingChanges.clear();
+            for (ListChange change : changes) {
+                super.fireChange(change);
+            }
+        }
+    }
+
+    // Represents the name and tasks of the to-do list as they were between two changes
+    private static final class Snapshot implements Iterable<Task> {
+        private final String listName;
+        private final Task[] tasks;
+
+        Snapshot(String listName, Task[] tasks) {
+            this.listName = listName;
+            this.tasks = tasks;
+        }
+
+        @Override
+        public Iterator<Task> iterator() {
+            return Collections.unmodifiableList(Arrays.asList(tasks)).iterator();
+        }
+    }
+}
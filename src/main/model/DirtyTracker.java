@@ -0,0 +1,145 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Represents the changes made to a to-do list since it was last saved, so that a save can write only those. Each
+// saved task has an id that stays the same however it moves in the to-do list; a task added since the last save has
+// none until the save gives it one. The tracker keeps the tasks added or modified since the last save, the ids of
+// the saved tasks removed since, and whether the saved tasks have changed order. Replacing every task, as restoring
+// does, is not tracked task by task, so after it the whole to-do list must be saved again. A tracker must only be
+// used from the thread changing its to-do list.
+public class DirtyTracker {
+    private final ToDoList list;
+    private final LinkedHashSet<Task> dirty;    // tasks added or modified since the last save
+    private final BitSet removed;               // ids of saved tasks removed since the last save
+    private boolean reordered;      // true if tasks have moved other than by removing tasks or adding them at the end
+    private boolean replaced;       // true if every task has been replaced
+    private String savedName;       // name of the to-do list when last saved
+    private int nextId;             // id to give the next task saved
+
+    // REQUIRES: ids holds one id for each task of list, in order, none repeated and each less than nextId
+    // MODIFIES: list
+    // EFFECTS: starts tracking the changes made to list, as saved with the task at each index i under id ids[i].
+    //          A lazily loaded list is loaded first.
+    public DirtyTracker(ToDoList list, int[] ids, int nextId) {
+        this.list = list;
+        this.nextId = nextId;
+        dirty = new LinkedHashSet<>();
+        removed = new BitSet();
+        list.setDirtyTracker(this);
+        int i = 0;
+        for (Task t : list) {
+            t.setSavedId(ids[i++]);
+        }
+        savedName = list.getName();
+    }
+
+    // MODIFIES: list
+    // EFFECTS: starts tracking the changes made to list, as saved with each task under its index as id
+    public DirtyTracker(ToDoList list) {
+        this(list, IntStream.range(0, list.getSize()).toArray(), list.getSize());
+    }
+
+    // EFFECTS: returns true if every task has been replaced since the last save, so the whole to-do list must be
+    //          saved
+    public boolean isReplaced() {
+        return replaced;
+    }
+
+    // EFFECTS: returns true if anything has changed since the last save
+    public boolean hasChanges() {
+        return replaced || reordered || !dirty.isEmpty() || !removed.isEmpty() || !list.getName().equals(savedName);
+    }
+
+    // EFFECTS: returns the ids of the saved tasks removed since the last save, in ascending order
+    public int[] getRemovedIds() {
+        return removed.stream().toArray();
+    }
+
+    // EFFECTS: returns the tasks added or modified since the last save, in the order they are in the to-do list
+    public List<Task> getDirtyTasks() {
+        List<Task> tasks = new ArrayList<>(dirty);
+        tasks.sort(Comparator.comparingInt(Task::getPosition));
+        return tasks;
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: returns the id task is saved under, first giving it the next unused id if it has none
+    public int assignId(Task task) {
+        if (task.getSavedId() < 0) {
+            task.setSavedId(nextId++);
+        }
+        return task.getSavedId();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the ids of every task in the to-do list, in order, if tasks have changed order since the last
+    //          save, giving an id to each task that has none; null otherwise
+    public int[] getOrder() {
+        if (!reordered) {
+            return null;
+        }
+        int[] order = new int[list.getSize()];
+        int i = 0;
+        for (Task t : list) {
+            order[i++] = assignId(t);
+        }
+        return order;
+    }
+
+    // EFFECTS: returns the id the next task saved will be given
+    public int getNextId() {
+        return nextId;
+    }
+
+    // REQUIRES: every task added or modified since the last save has been given an id and saved
+    // MODIFIES: this
+    // EFFECTS: records that the to-do list has just been saved as it is now
+    public void markSaved() {
+        dirty.clear();
+        removed.clear();
+        reordered = false;
+        replaced = false;
+        savedName = list.getName();
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: records that task has been added to the to-do list
+    void added(Task task) {
+        task.setSavedId(-1);
+        dirty.add(task);
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: records that task has been removed from the to-do list
+    void removed(Task task) {
+        if (task.getSavedId() >= 0) {
+            removed.set(task.getSavedId());
+            task.setSavedId(-1);
+        }
+        dirty.remove(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that task has been modified
+    void changed(Task task) {
+        dirty.add(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that tasks have changed order
+    void reordered() {
+        reordered = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that every task has been replaced
+    void replaced() {
+        replaced = true;
+    }
+}
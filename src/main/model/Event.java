@@ -1,6 +1,6 @@
 package model;
 
-import java.util.Calendar;
+import java.time.Instant;
 import java.util.Date;
 
 
@@ -9,8 +9,15 @@ import java.util.Date;
  */
 public class Event {
     private static final int HASH_CONSTANT = 13;
-    private Date dateLogged;
-    private String description;
+    private static final String PLACEHOLDER = "{}";
+    private final long nanosLogged;
+    private final EventOperation operation;
+    private final String taskName;
+    private final Object oldValue;
+    private final Object newValue;
+    private final String template;
+    private final Object[] args;
+    private volatile String description;
 
     /**
      * Creates an event with the given description
@@ -19,17 +26,130 @@ public class Event {
      * @param description a description of the event
      */
     public Event(String description) {
-        dateLogged = Calendar.getInstance().getTime();
+        this(EventOperation.MESSAGE, null, null, description);
         this.description = description;
     }
 
+    /**
+     * Creates an event whose description is the given template with
+     * each "{}" replaced by the next argument, and the current
+     * date/time stamp. The description is only built the first time
+     * it is asked for, so arguments must not be changed afterwards.
+     *
+     * @param template a description of the event with "{}" placeholders
+     * @param args     the values of the placeholders, in order
+     */
+    public Event(String template, Object... args) {
+        nanosLogged = EventLog.getInstance().getClock().epochNanos();
+        operation = EventOperation.MESSAGE;
+        taskName = null;
+        oldValue = null;
+        newValue = null;
+        this.template = template;
+        this.args = args;
+    }
+
+    /**
+     * Creates an event of the given kind with the current date/time
+     * stamp. Its description is only built the first time it is asked
+     * for, so values must not be changed afterwards.
+     *
+     * @param operation the kind of event
+     * @param taskName  the name of the task the event concerns, or null
+     * @param oldValue  the value before the event, or null
+     * @param newValue  the value after the event, or null
+     */
+    public Event(EventOperation operation, String taskName, Object oldValue, Object newValue) {
+        this(EventLog.getInstance().getClock().epochNanos(), operation, taskName, oldValue, newValue);
+    }
+
+    /**
+     * Creates an event of the given kind logged at the given time, for
+     * events read back from a stored log.
+     *
+     * @param epochNanos the time the event was logged, in nanoseconds since the epoch
+     * @param operation  the kind of event
+     * @param taskName   the name of the task the event concerns, or null
+     * @param oldValue   the value before the event, or null
+     * @param newValue   the value after the event, or null
+     */
+    public Event(long epochNanos, EventOperation operation, String taskName, Object oldValue, Object newValue) {
+        nanosLogged = epochNanos;
+        this.operation = operation;
+        this.taskName = taskName;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+        template = null;
+        args = null;
+    }
+
+    /**
+     * Gets the kind of this event.
+     *
+     * @return the operation of the event
+     */
+    public EventOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the name of the task this event concerns.
+     *
+     * @return the task name, or null if the event does not concern one task
+     */
+    public String getTaskName() {
+        return taskName;
+    }
+
+    /**
+     * Gets the value before this event.
+     *
+     * @return the old value, or null if there is none
+     */
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    /**
+     * Gets the value after this event. For a MESSAGE event this is its
+     * description.
+     *
+     * @return the new value, or null if there is none
+     */
+    public Object getNewValue() {
+        return template != null ? getDescription() : newValue;
+    }
+
     /**
      * Gets the date of this event (includes time).
      *
      * @return the date of the event
      */
     public Date getDate() {
-        return dateLogged;
+        return new Date(getMillis());
+    }
+
+    /**
+     * Gets the time of this event with the full resolution of the
+     * clock it was logged with.
+     *
+     * @return the time of the event
+     */
+    public Instant getInstant() {
+        return Instant.ofEpochSecond(0, nanosLogged);
+    }
+
+    /**
+     * Gets the time of this event in nanoseconds since the epoch.
+     *
+     * @return the time of the event
+     */
+    public long getEpochNanos() {
+        return nanosLogged;
+    }
+
+    private long getMillis() {
+        return Math.floorDiv(nanosLogged, EventClock.NANOS_PER_MILLI);
     }
 
     /**
@@ -38,7 +158,34 @@ public class Event {
      * @return the description of the event
      */
     public String getDescription() {
-        return description;
+        String rendered = description;
+        if (rendered == null) {
+            rendered = template != null ? render(template, args) : operation.describe(taskName, oldValue, newValue);
+            description = rendered;
+        }
+        return rendered;
+    }
+
+    /**
+     * Replaces each "{}" in template by the next argument. Placeholders
+     * left over once the arguments run out are kept as they are.
+     *
+     * @param template text with "{}" placeholders
+     * @param args     the values of the placeholders, in order
+     * @return the rendered text
+     */
+    static String render(String template, Object[] args) {
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        int from = 0;
+        for (Object arg : args) {
+            int at = template.indexOf(PLACEHOLDER, from);
+            if (at < 0) {
+                break;
+            }
+            sb.append(template, from, at).append(arg);
+            from = at + PLACEHOLDER.length();
+        }
+        return sb.append(template, from, template.length()).toString();
     }
 
     @Override
@@ -53,16 +200,16 @@ public class Event {
 
         Event otherEvent = (Event) other;
 
-        return (this.dateLogged.equals(otherEvent.dateLogged) && this.description.equals(otherEvent.description));
+        return (this.getMillis() == otherEvent.getMillis() && getDescription().equals(otherEvent.getDescription()));
     }
 
     @Override
     public int hashCode() {
-        return (HASH_CONSTANT * dateLogged.hashCode() + description.hashCode());
+        return (HASH_CONSTANT * Long.hashCode(getMillis()) + getDescription().hashCode());
     }
 
     @Override
     public String toString() {
-        return dateLogged.toString() + "\n" + description;
+        return getDate().toString() + "\n" + getDescription();
     }
 }
@@ -0,0 +1,40 @@
+package model;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Represents a source of timestamps for logged events, in nanoseconds
+ * since the epoch. Any lambda returning a fixed or stepped value can
+ * be used as a fake clock in tests.
+ */
+@FunctionalInterface
+public interface EventClock {
+    long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * The system clock, read with the best resolution the platform offers.
+     */
+    EventClock SYSTEM = () -> {
+        Instant now = Clock.systemUTC().instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    };
+
+    /**
+     * Gets the current time.
+     *
+     * @return nanoseconds since the epoch
+     */
+    long epochNanos();
+
+    /**
+     * Gets a clock that returns a time refreshed once per millisecond
+     * by a background thread, so reading it is a single field read.
+     * The thread is only started the first time this is called.
+     *
+     * @return the shared millisecond-cached clock
+     */
+    static EventClock cachedMillis() {
+        return CachedEventClock.getInstance();
+    }
+}
@@ -0,0 +1,196 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Represents secondary indexes over the events held in an event log.
+ * Every event is kept in a skip list ordered by the time it was
+ * logged, so events can be added and removed from any thread and a
+ * time range is found in logarithmic time. The events about each task
+ * are kept in postings ordered the same way, so a time range of one
+ * task's events is found in logarithmic time too. Both are sets, so an
+ * event added twice, by its producer and by the thread building the
+ * index, is held once. An entry may outlive the event it points to for
+ * a moment; queries are told which sequence numbers are still held and
+ * drop the rest.
+ */
+final class EventIndex {
+    private final ConcurrentSkipListSet<Key> byTime = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<String, Postings> byTask = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an event to the indexes.
+     *
+     * @param sequence the sequence number of the event in the log
+     * @param e        the event
+     */
+    void add(long sequence, Event e) {
+        Key key = new Key(e.getEpochNanos(), sequence, e);
+        byTime.add(key);
+        for (String taskName : taskNamesOf(e)) {
+            while (!byTask.computeIfAbsent(taskName, name -> new Postings()).add(key)) {
+                // the postings were emptied and dropped from the map before the key could be added; try again
+            }
+        }
+    }
+
+    /**
+     * Removes an event from the indexes.
+     *
+     * @param sequence the sequence number of the event in the log
+     * @param e        the event
+     */
+    void remove(long sequence, Event e) {
+        Key key = new Key(e.getEpochNanos(), sequence, null);
+        byTime.remove(key);
+        for (String taskName : taskNamesOf(e)) {
+            Postings postings = byTask.get(taskName);
+            if (postings != null && postings.remove(key)) {
+                byTask.remove(taskName, postings);
+            }
+        }
+    }
+
+    /**
+     * Gets the events logged in a time range, in the order they were logged.
+     *
+     * @param fromNanos start of the range, inclusive, in nanoseconds since the epoch
+     * @param toNanos   end of the range, exclusive, in nanoseconds since the epoch
+     * @param held      tells whether the event with a sequence number is still in the log
+     * @return the events in the range
+     */
+    List<Event> between(long fromNanos, long toNanos, LongPredicate held) {
+        return collect(byTime, fromNanos, toNanos, held);
+    }
+
+    /**
+     * Gets the events about a task logged in a time range, in the order
+     * they were logged. Events renaming a task are about both its old
+     * and its new name.
+     *
+     * @param taskName  the name of the task
+     * @param fromNanos start of the range, inclusive, in nanoseconds since the epoch
+     * @param toNanos   end of the range, exclusive, in nanoseconds since the epoch
+     * @param held      tells whether the event with a sequence number is still in the log
+     * @return the events about the task in the range
+     */
+    List<Event> forTask(String taskName, long fromNanos, long toNanos, LongPredicate held) {
+        Postings postings = byTask.get(taskName);
+        return postings == null ? new ArrayList<>() : postings.select(fromNanos, toNanos, held);
+    }
+
+    private static List<Event> collect(NavigableSet<Key> keys, long fromNanos, long toNanos, LongPredicate held) {
+        List<Event> events = new ArrayList<>();
+        if (fromNanos >= toNanos) {
+            return events;
+        }
+        Iterator<Key> range = keys.subSet(new Key(fromNanos, Long.MIN_VALUE, null), true,
+                new Key(toNanos, Long.MIN_VALUE, null), false).iterator();
+        while (range.hasNext()) {
+            Key key = range.next();
+            if (held.test(key.sequence)) {
+                events.add(key.event);
+            } else {
+                range.remove();
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Gets the names of the tasks an event is about.
+     *
+     * @param e the event
+     * @return the task names, empty if the event is not about a task
+     */
+    private static List<String> taskNamesOf(Event e) {
+        List<String> names = new ArrayList<>(2);
+        if (e.getTaskName() != null) {
+            names.add(e.getTaskName());
+        }
+        if (e.getOperation() == EventOperation.NAME_CHANGED && e.getNewValue() != null
+                && !e.getNewValue().equals(e.getTaskName())) {
+            names.add(e.getNewValue().toString());
+        }
+        return names;
+    }
+
+    /**
+     * Represents the postings of one task, ordered by time logged and
+     * then by sequence number, guarded by their own lock. Once emptied,
+     * postings are dropped from the map and refuse further keys, so
+     * that a key is never added to postings no longer reachable from
+     * the map.
+     */
+    private static final class Postings {
+        private final TreeSet<Key> keys = new TreeSet<>();
+        private boolean dropped;
+
+        /**
+         * Adds a key to the postings, unless they already hold it.
+         *
+         * @param key the key to add
+         * @return false if the postings have been dropped, true otherwise
+         */
+        synchronized boolean add(Key key) {
+            if (!dropped) {
+                keys.add(key);
+            }
+            return !dropped;
+        }
+
+        /**
+         * Removes the key of an event.
+         *
+         * @param key the key of the event
+         * @return true if the postings are now empty and must be dropped from the map
+         */
+        synchronized boolean remove(Key key) {
+            keys.remove(key);
+            dropped = keys.isEmpty();
+            return dropped;
+        }
+
+        /**
+         * Gets the held events logged in a time range, dropping keys of
+         * events no longer held.
+         *
+         * @param fromNanos start of the range, inclusive
+         * @param toNanos   end of the range, exclusive
+         * @param held      tells whether the event with a sequence number is still in the log
+         * @return the events in the range, in the order they were logged
+         */
+        synchronized List<Event> select(long fromNanos, long toNanos, LongPredicate held) {
+            return collect(keys, fromNanos, toNanos, held);
+        }
+    }
+
+    /**
+     * Represents the position of an event in the indexes: ordered by
+     * time logged, then by sequence number.
+     */
+    private static final class Key implements Comparable<Key> {
+        private final long nanos;
+        private final long sequence;
+        private final Event event;
+
+        Key(long nanos, long sequence, Event event) {
+            this.nanos = nanos;
+            this.sequence = sequence;
+            this.event = event;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byNanos = Long.compare(nanos, other.nanos);
+            return byNanos != 0 ? byNanos : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package model;
+
+/**
+ * Represents how much detail an event gives. Summary events describe
+ * what the user did; detail events describe each item affected by an
+ * operation on many items at once.
+ */
+public enum EventLevel {
+    SUMMARY,
+    DETAIL
+}
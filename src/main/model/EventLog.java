@@ -1,28 +1,69 @@
 package model;
 
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Represents a log of alarm system events.
  * We use the Singleton Design Pattern to ensure that there is only
  * one EventLog in the system and that the system has global access
  * to the single instance of the EventLog.
+ * The log keeps the most recent events in a ring buffer of fixed
+ * capacity. Events may be logged from any thread without locking:
+ * each event is given the next sequence number and stored in the
+ * slot that number maps to. When the log is full, the oldest event
+ * is either overwritten or first spilled to a file.
+ * Events can be looked up by task and by time logged. The indexes
+ * used for that are only built the first time they are needed, and
+ * kept up to date from then on.
+ * Events of each operation can be turned off or sampled, and detail
+ * events can be turned off altogether. Code logging an event per item
+ * in a loop asks the log first, which costs an array read when the
+ * event is not wanted.
  */
 public class EventLog implements Iterable<Event> {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
     /**
-     * the only EventLog in the system (Singleton Design Pattern)
+     * What to do with the oldest event when the log is full.
      */
-    private static EventLog theLog;
-    private Collection<Event> events;
+    public enum OverflowPolicy {
+        OVERWRITE_OLDEST,
+        SPILL_TO_DISK
+    }
+
+    private volatile Ring ring;
+    private volatile OverflowPolicy policy;
+    private volatile EventClock clock;
+    private volatile EventSink sink;
+    private EventLevel level;
+    private final int[] sampling;               // 1 in how many events of each operation are logged, 0 for none
+    private volatile int[] effectiveSampling;   // sampling, with operations above level turned off
+    private final AtomicIntegerArray sampleCounts;
+    private PrintWriter spillWriter;
 
     /**
      * Prevent external construction.
      * (Singleton Design Pattern).
      */
     private EventLog() {
-        events = new ArrayList<Event>();
+        ring = new Ring(DEFAULT_CAPACITY);
+        policy = OverflowPolicy.OVERWRITE_OLDEST;
+        clock = EventClock.SYSTEM;
+        level = EventLevel.DETAIL;
+        sampling = new int[EventOperation.values().length];
+        Arrays.fill(sampling, 1);
+        effectiveSampling = sampling.clone();
+        sampleCounts = new AtomicIntegerArray(sampling.length);
     }
 
     /**
@@ -33,11 +74,154 @@ public class EventLog implements Iterable<Event> {
      * @return instance of EventLog
      */
     public static EventLog getInstance() {
-        if (theLog == null) {
-            theLog = new EventLog();
+        return LogHolder.theLog;
+    }
+
+    /**
+     * Holds the only EventLog in the system (Singleton Design Pattern).
+     * The JVM initializes this class, and so creates the log, exactly
+     * once on first use of getInstance.
+     */
+    private static class LogHolder {
+        private static final EventLog theLog = new EventLog();
+    }
+
+    /**
+     * Changes the capacity and overflow policy of the log, keeping the
+     * most recent events that fit. Meant to be called before events are
+     * logged from several threads.
+     *
+     * @param capacity  the number of events kept, rounded up to a power of two
+     * @param policy    what to do with the oldest event when the log is full
+     * @param spillFile file events are appended to under SPILL_TO_DISK, ignored otherwise
+     * @throws IOException if spillFile cannot be opened for appending
+     */
+    public synchronized void configure(int capacity, OverflowPolicy policy, String spillFile) throws IOException {
+        PrintWriter writer = null;
+        if (policy == OverflowPolicy.SPILL_TO_DISK) {
+            writer = new PrintWriter(new FileWriter(spillFile, true));
+        }
+        if (spillWriter != null) {
+            spillWriter.close();
+        }
+        spillWriter = writer;
+        Ring old = ring;
+        Ring resized = new Ring(capacity);
+        for (Event e : old.snapshot()) {
+            resized.add(e);
+        }
+        this.policy = policy;
+        ring = resized;
+    }
+
+    /**
+     * Gets the number of events the log can hold.
+     *
+     * @return the capacity of the log
+     */
+    public int getCapacity() {
+        return ring.slots.length();
+    }
+
+    /**
+     * Gets the clock new events take their timestamp from.
+     *
+     * @return the clock in use
+     */
+    public EventClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock new events take their timestamp from.
+     *
+     * @param clock the clock to use
+     */
+    public void setClock(EventClock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the sink every logged event is also handed to.
+     *
+     * @param sink the sink to use, or null for none
+     */
+    public void setSink(EventSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Gets the most detailed level of events that are logged.
+     *
+     * @return the level of the log
+     */
+    public synchronized EventLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Sets the most detailed level of events that are logged. Events
+     * more detailed than level are dropped by logEvent(EventOperation,
+     * ...) without being created.
+     *
+     * @param level the most detailed level logged
+     */
+    public synchronized void setLevel(EventLevel level) {
+        this.level = level;
+        updateEffectiveSampling();
+    }
+
+    /**
+     * Sets how many events of an operation are logged: all of them if
+     * oneIn is 1, one in every oneIn of them if it is larger, and none
+     * if it is 0.
+     *
+     * @param operation the operation
+     * @param oneIn     1 in how many events are logged, 0 for none
+     */
+    public synchronized void setSampling(EventOperation operation, int oneIn) {
+        sampling[operation.ordinal()] = Math.max(0, oneIn);
+        updateEffectiveSampling();
+    }
+
+    private void updateEffectiveSampling() {
+        int[] effective = sampling.clone();
+        for (EventOperation operation : EventOperation.values()) {
+            if (operation.getLevel().compareTo(level) > 0) {
+                effective[operation.ordinal()] = 0;
+            }
         }
+        effectiveSampling = effective;
+    }
 
-        return theLog;
+    /**
+     * Tells whether the next event of an operation should be logged.
+     * Asking counts as an event of the operation for sampling.
+     *
+     * @param operation the operation
+     * @return true if the event should be logged
+     */
+    public boolean isLogged(EventOperation operation) {
+        int oneIn = effectiveSampling[operation.ordinal()];
+        if (oneIn <= 1) {
+            return oneIn == 1;
+        }
+        return sampleCounts.getAndIncrement(operation.ordinal()) % oneIn == 0;
+    }
+
+    /**
+     * Adds an event of the given kind to the event log, if events of
+     * that kind are logged. The event is only created if it is.
+     *
+     * @param operation the kind of event
+     * @param taskName  the name of the task the event concerns, or null
+     * @param oldValue  the value before the event, or null
+     * @param newValue  the value after the event, or null
+     */
+    public void logEvent(EventOperation operation, String taskName, Object oldValue, Object newValue) {
+        if (isLogged(operation)) {
+            logEvent(new Event(operation, taskName, oldValue, newValue));
+        }
     }
 
     /**
@@ -46,19 +230,236 @@ public class EventLog implements Iterable<Event> {
      * @param e the event to be added
      */
     public void logEvent(Event e) {
-        events.add(e);
+        EventSink current = sink;
+        if (current != null) {
+            current.accept(e);
+        }
+        Event evicted = ring.add(e);
+        if (evicted != null && policy == OverflowPolicy.SPILL_TO_DISK) {
+            spill(evicted);
+        }
+    }
+
+    /**
+     * Appends an event pushed out of the log to the spill file.
+     *
+     * @param e the event to be spilled
+     */
+    private synchronized void spill(Event e) {
+        if (spillWriter != null) {
+            spillWriter.println(e.toString());
+            spillWriter.flush();
+        }
     }
 
     /**
      * Clears the event log and logs the event.
      */
     public void clear() {
-        events.clear();
-        logEvent(new Event("Event log cleared."));
+        ring.clear();
+        logEvent(EventOperation.LOG_CLEARED, null, null, null);
+    }
+
+    /**
+     * Gets the events in the log that were logged in a time range,
+     * oldest first.
+     *
+     * @param from start of the range, inclusive
+     * @param to   end of the range, exclusive
+     * @return the events logged in the range
+     */
+    public List<Event> getEvents(Instant from, Instant to) {
+        Ring current = ring;
+        return current.index().between(toNanos(from), toNanos(to), current::holds);
+    }
+
+    /**
+     * Gets the events in the log about a task, oldest first. Events
+     * renaming a task are found under both its old and its new name.
+     *
+     * @param taskName the name of the task
+     * @return the events about the task
+     */
+    public List<Event> getEvents(String taskName) {
+        return getEvents(taskName, Instant.MIN, Instant.MAX);
     }
 
+    /**
+     * Gets the events in the log about a task that were logged in a
+     * time range, oldest first.
+     *
+     * @param taskName the name of the task
+     * @param from     start of the range, inclusive
+     * @param to       end of the range, exclusive
+     * @return the events about the task logged in the range
+     */
+    public List<Event> getEvents(String taskName, Instant from, Instant to) {
+        Ring current = ring;
+        return current.index().forTask(taskName, toNanos(from), toNanos(to), current::holds);
+    }
+
+    /**
+     * Converts an instant to nanoseconds since the epoch, clamped to
+     * the range of a long.
+     *
+     * @param instant the instant to convert
+     * @return nanoseconds since the epoch
+     */
+    private static long toNanos(Instant instant) {
+        try {
+            return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+        } catch (ArithmeticException e) {
+            return instant.getEpochSecond() < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Gets an iterator over the events in the log when this is
+     * called, oldest first, unaffected by events logged afterwards.
+     *
+     * @return iterator over logged events
+     */
     @Override
     public Iterator<Event> iterator() {
-        return events.iterator();
+        return ring.snapshot().iterator();
+    }
+
+    /**
+     * Represents a ring buffer of events. Each slot holds the last
+     * event stored in it together with that event's sequence number,
+     * so readers can tell whether a slot still holds the event they
+     * expect. Once built, the index is updated by each producer after
+     * it has stored its event. The index is published before it is
+     * filled from the slots, so every event is added by its producer,
+     * by the builder, or by both; the index holds an event added twice
+     * once.
+     */
+    private static final class Ring {
+        private final AtomicReferenceArray<Entry> slots;
+        private final long mask;
+        private final AtomicLong next;          // sequence number of the next event logged
+        private volatile long first;            // sequence number of the first event since the last clear
+        private volatile EventIndex index;      // null until the first lookup since the last clear
+
+        Ring(int capacity) {
+            int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            slots = new AtomicReferenceArray<>(size);
+            mask = size - 1;
+            next = new AtomicLong();
+        }
+
+        /**
+         * Stores an event in the slot of the next sequence number.
+         *
+         * @param e the event to be stored
+         * @return the event that was overwritten, or null if none was
+         */
+        Event add(Event e) {
+            long sequence = next.getAndIncrement();
+            int index = (int) (sequence & mask);
+            Entry entry = new Entry(sequence, e);
+            while (true) {
+                Entry old = slots.get(index);
+                if (old != null && old.sequence > sequence) {
+                    // a later event already took this slot, so this one is the oldest and is pushed out
+                    return e;
+                }
+                if (slots.compareAndSet(index, old, entry)) {
+                    updateIndex(entry, old);
+                    return old == null || old.sequence < first ? null : old.event;
+                }
+            }
+        }
+
+        /**
+         * Adds a newly stored event to the index, if there is one, and
+         * removes the event it overwrote.
+         *
+         * @param stored      the entry just stored
+         * @param overwritten the entry it replaced, or null
+         */
+        private void updateIndex(Entry stored, Entry overwritten) {
+            EventIndex current = index;
+            if (current != null) {
+                current.add(stored.sequence, stored.event);
+                if (overwritten != null) {
+                    current.remove(overwritten.sequence, overwritten.event);
+                }
+            }
+        }
+
+        /**
+         * Gets the index of the held events, building it from the slots
+         * if it has not been built since the last clear.
+         *
+         * @return the index
+         */
+        synchronized EventIndex index() {
+            EventIndex current = index;
+            if (current == null) {
+                current = new EventIndex();
+                index = current;
+                long end = next.get();
+                for (long sequence = Math.max(first, end - slots.length()); sequence < end; sequence++) {
+                    Entry entry = slots.get((int) (sequence & mask));
+                    if (entry != null && entry.sequence == sequence) {
+                        current.add(sequence, entry.event);
+                    }
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Tells whether the event with a sequence number is still held.
+         *
+         * @param sequence the sequence number of the event
+         * @return true if the event has been stored and not overwritten or cleared since
+         */
+        boolean holds(long sequence) {
+            Entry entry = slots.get((int) (sequence & mask));
+            return sequence >= first && entry != null && entry.sequence == sequence;
+        }
+
+        /**
+         * Hides every event logged so far.
+         */
+        synchronized void clear() {
+            first = next.get();
+            index = null;
+        }
+
+        /**
+         * Gets the events currently held, oldest first. Events whose
+         * slot has not been written yet, or has been overwritten since,
+         * are left out.
+         *
+         * @return list of held events
+         */
+        ArrayList<Event> snapshot() {
+            long end = next.get();
+            long start = Math.max(first, end - slots.length());
+            ArrayList<Event> events = new ArrayList<>((int) (end - start));
+            for (long sequence = start; sequence < end; sequence++) {
+                Entry entry = slots.get((int) (sequence & mask));
+                if (entry != null && entry.sequence == sequence) {
+                    events.add(entry.event);
+                }
+            }
+            return events;
+        }
+    }
+
+    /**
+     * Represents an event stored in a slot of the ring buffer.
+     */
+    private static final class Entry {
+        private final long sequence;
+        private final Event event;
+
+        Entry(long sequence, Event event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
     }
 }
@@ -0,0 +1,96 @@
+package model;
+
+/**
+ * Represents the kinds of events logged. Each operation knows how to
+ * describe an event of its kind in words, from the name of the task
+ * it concerns and the old and new values involved, and how much detail
+ * its events give. New operations are added at the end, since stored
+ * events refer to operations by their ordinal.
+ */
+public enum EventOperation {
+    MESSAGE("{}", false, false, true),
+    LOG_CLEARED("Event log cleared.", false, false, false),
+    LIST_RENAMED("List name set to: {}", false, false, true),
+    LIST_SAVED("To-do list saved", false, false, false),
+    LIST_RESTORED("Restored {} tasks", false, false, true),
+    TASK_ADDED("Added task: {}", true, false, false),
+    TASKS_ADDED("Added {} tasks", false, false, true),
+    TASK_REMOVED("Removed task: {}", true, false, false),
+    COMPLETED_TASK_REMOVED("Removed completed task: {}", true, false, false, EventLevel.DETAIL),
+    OVERDUE_TASK_REMOVED("Removed overdue task: {}", true, false, false, EventLevel.DETAIL),
+    ALL_TASKS_REMOVED("Removed all tasks", false, false, false),
+    TASKS_SORTED("Sorted tasks by {}", false, false, true),
+    KEEP_SORTED_CHANGED("Keep sorted turned {}", false, false, true),
+    NAME_CHANGED("Task name changed: {} -> {}", false, true, true),
+    DESCRIPTION_CHANGED("Task \"{}\" description changed: {} -> {}", true, true, true),
+    DEADLINE_CHANGED("Task \"{}\" deadline changed: {} -> {}", true, true, true),
+    PRIORITY_CHANGED("Task \"{}\" priority changed: {} -> {}", true, true, true),
+    COMPLETED_CHANGED("Task \"{}\" completed status changed: {} -> {}", true, true, true),
+    COMPLETED_TASKS_REMOVED("Removed {} completed tasks", false, false, true),
+    OVERDUE_TASKS_REMOVED("Removed {} overdue tasks", false, false, true),
+    TASKS_INSERTED("Put back {} tasks", false, false, true),
+    TASKS_REORDERED("Reordered tasks", false, false, false);
+
+    private static final EventOperation[] VALUES = values();
+
+    private final String template;
+    private final boolean showsTask;
+    private final boolean showsOld;
+    private final boolean showsNew;
+    private final EventLevel level;
+
+    EventOperation(String template, boolean showsTask, boolean showsOld, boolean showsNew) {
+        this(template, showsTask, showsOld, showsNew, EventLevel.SUMMARY);
+    }
+
+    EventOperation(String template, boolean showsTask, boolean showsOld, boolean showsNew, EventLevel level) {
+        this.template = template;
+        this.showsTask = showsTask;
+        this.showsOld = showsOld;
+        this.showsNew = showsNew;
+        this.level = level;
+    }
+
+    /**
+     * Gets how much detail events of this kind give.
+     *
+     * @return the level of the operation
+     */
+    public EventLevel getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the operation with the given ordinal, without copying the
+     * array of all operations.
+     *
+     * @param ordinal the ordinal of the operation
+     * @return the operation
+     */
+    public static EventOperation of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Describes an event of this kind in words.
+     *
+     * @param taskName the name of the task the event concerns, or null
+     * @param oldValue the value before the event, or null
+     * @param newValue the value after the event, or null
+     * @return the description of the event
+     */
+    String describe(String taskName, Object oldValue, Object newValue) {
+        Object[] args = new Object[3];
+        int count = 0;
+        if (showsTask) {
+            args[count++] = taskName;
+        }
+        if (showsOld) {
+            args[count++] = oldValue;
+        }
+        if (showsNew) {
+            args[count++] = newValue;
+        }
+        return Event.render(template, args);
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents a destination that every logged event is handed to, in
+ * addition to being kept in the event log.
+ */
+@FunctionalInterface
+public interface EventSink {
+
+    /**
+     * Takes an event that has just been logged. Called on the thread
+     * that logged it, so implementations should return quickly.
+     *
+     * @param e the event logged
+     */
+    void accept(Event e);
+}
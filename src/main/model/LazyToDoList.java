@@ -0,0 +1,288 @@
+package model;
+
+import persistence.ListSaver;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+// Represents a To-Do List whose tasks are read from a task source only as they are asked for by index, so that a
+// large saved list can be shown without reading all of it. The tasks read most recently are kept in a cache of
+// bounded size; a task that drops out of the cache no longer belongs to the to-do list, and asking for its index
+// again reads a new copy. A task that is modified is kept until the list is loaded. Anything that needs every task,
+// such as adding, removing, sorting, looking a task up by name, querying or tracking changes for saving, first loads
+// the whole list from the source, quietly and keeping the tasks already read; from then on it works like any other
+// to-do list.
+public class LazyToDoList extends ToDoList {
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private TaskSource source;              // null once every task has been loaded
+    private final int size;                 // number of tasks in source
+    private final Map<Integer, Task> cache; // tasks read recently, by index, least recently used first
+    private final Map<Integer, Task> edited;    // tasks modified since they were read, by index
+
+    // REQUIRES: cacheSize > 0
+    // EFFECTS: constructs a to-do list named listName holding the tasks of source, keeping at most cacheSize tasks
+    //          that have not been modified in memory until the list is loaded
+    public LazyToDoList(String listName, TaskSource source, int cacheSize) {
+        super(listName);
+        this.source = source;
+        size = source.getTaskCount();
+        edited = new HashMap<>();
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Task> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                eldest.getValue().setOwner(null);
+                return true;
+            }
+        };
+    }
+
+    // EFFECTS: constructs a to-do list named listName holding the tasks of source, keeping at most
+    //          DEFAULT_CACHE_SIZE tasks that have not been modified in memory until the list is loaded
+    public LazyToDoList(String listName, TaskSource source) {
+        this(listName, source, DEFAULT_CACHE_SIZE);
+    }
+
+    // EFFECTS: returns true if every task has been loaded from the source
+    public boolean isLoaded() {
+        return source == null;
+    }
+
+    // EFFECTS: returns the number of tasks read from the source and still held in memory, or the number of tasks if
+    //          every task has been loaded
+    public int getTasksInMemory() {
+        return isLoaded() ? super.getSize() : cache.size() + edited.size();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads every task from the source that is not in memory yet, so that the to-do list no longer depends
+    //          on the source. Nothing is logged, recorded for undo or told to listeners, as no task changes.
+    public void load() {
+        if (source == null) {
+            return;
+        }
+        ArrayList<Task> loaded = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task task = inMemory(i);
+            loaded.add(task != null ? task : source.readTask(i));
+        }
+        source = null;
+        cache.clear();
+        edited.clear();
+        adopt(loaded);
+    }
+
+    // EFFECTS: returns the task at index if it has been read and is still in memory, null otherwise
+    private Task inMemory(int index) {
+        Task task = edited.get(index);
+        return task != null ? task : cache.get(index);
+    }
+
+    @Override
+    public int getSize() {
+        return isLoaded() ? super.getSize() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getSize() == 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the task at index, reading it from the source if it is not in memory, or null if there is
+    //          no task at index
+    @Override
+    public Task getTask(int index) {
+        if (isLoaded() || index >= size) {
+            return super.getTask(index);
+        }
+        Task task = inMemory(index);
+        if (task == null) {
+            task = source.readTask(index);
+            task.setOwner(this);
+            task.setPosition(index);
+            cache.put(index, task);
+        }
+        return task;
+    }
+
+    // EFFECTS: returns an iterator over the tasks in to-do list, in order, reading each from the source as it is
+    //          reached if it is not in memory. The iterator does not support remove.
+    @Override
+    public Iterator<Task> iterator() {
+        if (isLoaded()) {
+            return super.iterator();
+        }
+        return new Iterator<Task>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < getSize();
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getTask(next++);
+            }
+        };
+    }
+
+    @Override
+    void taskChanged(Task task, EventOperation field, Object oldValue, Object newValue) {
+        if (!isLoaded()) {
+            cache.remove(task.getPosition());
+            edited.put(task.getPosition(), task);
+        }
+        super.taskChanged(task, field, oldValue, newValue);
+    }
+
+    @Override
+    void taskRenamed(Task task, String oldName) {
+        if (isLoaded()) {
+            super.taskRenamed(task, oldName);
+        }
+    }
+
+    @Override
+    public boolean addTask(Task task) {
+        load();
+        return super.addTask(task);
+    }
+
+    @Override
+    public int addAllTasks(Collection<Task> batch) {
+        load();
+        return super.addAllTasks(batch);
+    }
+
+    @Override
+    public int[] removeTask(String taskName) {
+        load();
+        return super.removeTask(taskName);
+    }
+
+    @Override
+    public int[] removeAllCompletedTasks() {
+        load();
+        return super.removeAllCompletedTasks();
+    }
+
+    @Override
+    public int[] removeAllOverdueTasks() {
+        load();
+        return super.removeAllOverdueTasks();
+    }
+
+    @Override
+    int[] removeTasksAt(int[] indices) {
+        load();
+        return super.removeTasksAt(indices);
+    }
+
+    @Override
+    public void removeAllTasks() {
+        load();
+        super.removeAllTasks();
+    }
+
+    @Override
+    public boolean containsTask(String taskName) {
+        load();
+        return super.containsTask(taskName);
+    }
+
+    @Override
+    public Task getTask(String taskName) {
+        load();
+        return super.getTask(taskName);
+    }
+
+    @Override
+    public int getTaskIndex(String taskName) {
+        load();
+        return super.getTaskIndex(taskName);
+    }
+
+    @Override
+    public Stream<Task> query(TaskQuery query) {
+        load();
+        return super.query(query);
+    }
+
+    @Override
+    public List<Task> search(String query, boolean matchAll) {
+        load();
+        return super.search(query, matchAll);
+    }
+
+    @Override
+    public List<String> suggestWords(String prefix, int limit) {
+        load();
+        return super.suggestWords(prefix, limit);
+    }
+
+    @Override
+    public void sortBy(SortOrder order) {
+        load();
+        super.sortBy(order);
+    }
+
+    @Override
+    public void setKeepSorted(boolean keepSorted) {
+        load();
+        super.setKeepSorted(keepSorted);
+    }
+
+    // EFFECTS: loads every task, so that none is read from the source while it may be being saved over, then hands
+    //          the name of the to-do list and its tasks to saver and logs that the list was saved
+    @Override
+    public void saveWith(ListSaver saver) throws IOException {
+        load();
+        super.saveWith(saver);
+    }
+
+    @Override
+    void setDirtyTracker(DirtyTracker tracker) {
+        load();
+        super.setDirtyTracker(tracker);
+    }
+
+    @Override
+    public Mutation checkpoint() {
+        load();
+        return super.checkpoint();
+    }
+
+    @Override
+    void restore(String listName, List<Task> restored, SortOrder order, boolean keepSorted) {
+        load();
+        super.restore(listName, restored, order, keepSorted);
+    }
+
+    @Override
+    void insertTasksAt(int[] indices, List<Task> inserted) {
+        load();
+        super.insertTasksAt(indices, inserted);
+    }
+
+    @Override
+    void reorder(int[] positions, SortOrder order) {
+        load();
+        super.reorder(positions, order);
+    }
+}
@@ -0,0 +1,149 @@
+package model;
+
+import java.util.Arrays;
+
+// Represents the rows of a to-do list changed by one operation. Rows are given as runs of consecutive indices in
+// ascending order, so that a change to many neighbouring tasks is a single run.
+public final class ListChange {
+    // Represents the kinds of changes made to the rows of a to-do list
+    public enum Type {
+        INSERT,     // tasks were inserted; runs are the indices of the inserted tasks after the change
+        DELETE,     // tasks were deleted; runs are the indices of the deleted tasks before the change
+        UPDATE,     // tasks were modified in place; runs are their indices
+        PERMUTE,    // tasks moved among themselves; the single run covers every index where a task moved
+        REPLACE     // every task may have changed, including the number of tasks; there are no runs
+    }
+
+    private final Type type;
+    private final int[] runs;           // first and last index of each run, inclusive
+    private final int[] oldIndices;     // PERMUTE: index before the change of each task in the run, in order
+
+    private ListChange(Type type, int[] runs, int[] oldIndices) {
+        this.type = type;
+        this.runs = runs;
+        this.oldIndices = oldIndices;
+    }
+
+    // REQUIRES: indices is in ascending order
+    // EFFECTS: returns the change of inserting tasks that are now at indices
+    public static ListChange inserted(int[] indices) {
+        return new ListChange(Type.INSERT, runsOf(indices), null);
+    }
+
+    // REQUIRES: first <= last
+    // EFFECTS: returns the change of inserting tasks that are now at every index from first to last
+    public static ListChange inserted(int first, int last) {
+        return new ListChange(Type.INSERT, new int[] {first, last}, null);
+    }
+
+    // REQUIRES: indices is in ascending order
+    // EFFECTS: returns the change of deleting the tasks that were at indices
+    public static ListChange deleted(int[] indices) {
+        return new ListChange(Type.DELETE, runsOf(indices), null);
+    }
+
+    // REQUIRES: first <= last
+    // EFFECTS: returns the change of deleting the tasks that were at every index from first to last
+    public static ListChange deleted(int first, int last) {
+        return new ListChange(Type.DELETE, new int[] {first, last}, null);
+    }
+
+    // REQUIRES: first <= last
+    // EFFECTS: returns the change of modifying the tasks at every index from first to last
+    public static ListChange updated(int first, int last) {
+        return new ListChange(Type.UPDATE, new int[] {first, last}, null);
+    }
+
+    // REQUIRES: before holds each index of the to-do list once
+    // EFFECTS: returns the change of moving the task at index before[i] to index i for every i, or null if no task
+    //          moved
+    public static ListChange permuted(int[] before) {
+        int first = 0;
+        int last = before.length - 1;
+        while (first <= last && before[first] == first) {
+            first++;
+        }
+        while (last >= first && before[last] == last) {
+            last--;
+        }
+        if (first > last) {
+            return null;
+        }
+        return new ListChange(Type.PERMUTE, new int[] {first, last}, Arrays.copyOfRange(before, first, last + 1));
+    }
+
+    // EFFECTS: returns the change of moving the task at index from to index to, shifting the tasks between by one,
+    //          or of modifying it in place if from == to
+    public static ListChange moved(int from, int to) {
+        if (from == to) {
+            return updated(from, to);
+        }
+        int first = Math.min(from, to);
+        int[] oldIndices = new int[Math.abs(to - from) + 1];
+        int shift = from < to ? 1 : -1;
+        for (int k = 0; k < oldIndices.length; k++) {
+            oldIndices[k] = first + k == to ? from : first + k + shift;
+        }
+        return new ListChange(Type.PERMUTE, new int[] {first, Math.max(from, to)}, oldIndices);
+    }
+
+    // EFFECTS: returns the change of replacing every task of a to-do list
+    public static ListChange replaced() {
+        return new ListChange(Type.REPLACE, new int[0], null);
+    }
+
+    // EFFECTS: returns the runs of consecutive indices in indices, as the first and last index of each
+    private static int[] runsOf(int[] indices) {
+        int[] found = new int[indices.length * 2];
+        int count = 0;
+        for (int i = 0; i < indices.length; i++) {
+            if (count > 0 && found[count - 1] == indices[i] - 1) {
+                found[count - 1] = indices[i];
+            } else {
+                found[count++] = indices[i];
+                found[count++] = indices[i];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // EFFECTS: returns the number of runs of indices changed
+    public int getRunCount() {
+        return runs.length / 2;
+    }
+
+    // REQUIRES: 0 <= run < getRunCount()
+    // EFFECTS: returns the first index of the given run
+    public int getFirst(int run) {
+        return runs[2 * run];
+    }
+
+    // REQUIRES: 0 <= run < getRunCount()
+    // EFFECTS: returns the last index of the given run, inclusive
+    public int getLast(int run) {
+        return runs[2 * run + 1];
+    }
+
+    // REQUIRES: getType() == PERMUTE and index is in the run
+    // EFFECTS: returns the index before the change of the task now at index
+    public int getOldIndex(int index) {
+        return oldIndices[index - runs[0]];
+    }
+
+    // EFFECTS: returns the type of the change followed by its runs, for example "DELETE 0, 2-3"
+    @Override
+    public String toString() {
+        StringBuilder description = new StringBuilder(type.name());
+        for (int run = 0; run < getRunCount(); run++) {
+            description.append(run == 0 ? " " : ", ").append(getFirst(run));
+            if (getLast(run) != getFirst(run)) {
+                description.append('-').append(getLast(run));
+            }
+        }
+        return description.toString();
+    }
+}
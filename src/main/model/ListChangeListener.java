@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents something that is told which rows of a to-do list each
+ * operation changed, for example a table showing the to-do list.
+ */
+@FunctionalInterface
+public interface ListChangeListener {
+
+    /**
+     * Takes the rows changed by an operation on a to-do list. Called once
+     * per operation, once it is complete, on the thread that made it.
+     *
+     * @param change the rows changed
+     */
+    void listChanged(ListChange change);
+}
@@ -0,0 +1,202 @@
+package model;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Writable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Represents a change made to a to-do list that can be replayed on another to-do list in the same state to make the
+// same change. Tasks are identified by their index, since names need not be unique once tasks are renamed. Tasks
+// carried by a mutation are copies taken when it was made.
+public final class Mutation implements Writable {
+    // Represents the kinds of changes that can be made to a to-do list
+    public enum Type {
+        SET_NAME, ADD, REMOVE, CLEAR, MODIFY, SORT, KEEP_SORTED, RESTORE, INSERT, REORDER
+    }
+
+    private final Type type;
+    private final String listName;      // SET_NAME, RESTORE
+    private final List<Task> tasks;     // ADD, RESTORE, INSERT, and the new values of the task for MODIFY
+    private final int[] indices;        // REMOVE, INSERT, REORDER, and the index of the task for MODIFY
+    private final SortOrder order;      // SORT, RESTORE, REORDER
+    private final boolean keepSorted;   // KEEP_SORTED, RESTORE
+
+    private Mutation(Type type, String listName, List<Task> tasks, int[] indices, SortOrder order,
+                     boolean keepSorted) {
+        this.type = type;
+        this.listName = listName;
+        this.tasks = tasks;
+        this.indices = indices;
+        this.order = order;
+        this.keepSorted = keepSorted;
+    }
+
+    // EFFECTS: returns the change of renaming a to-do list to listName
+    public static Mutation setName(String listName) {
+        return new Mutation(Type.SET_NAME, listName, null, null, null, false);
+    }
+
+    // EFFECTS: returns the change of adding added, in order, to a to-do list
+    public static Mutation add(List<Task> added) {
+        return new Mutation(Type.ADD, null, copyOf(added), null, null, false);
+    }
+
+    // REQUIRES: removed is in ascending order
+    // EFFECTS: returns the change of removing the tasks at the indices in removed from a to-do list
+    public static Mutation remove(int[] removed) {
+        return new Mutation(Type.REMOVE, null, null, removed.clone(), null, false);
+    }
+
+    // EFFECTS: returns the change of removing all tasks from a to-do list
+    public static Mutation clear() {
+        return new Mutation(Type.CLEAR, null, null, null, null, false);
+    }
+
+    // EFFECTS: returns the change of setting the fields of the task at index to those of task
+    public static Mutation modify(int index, Task task) {
+        return new Mutation(Type.MODIFY, null, copyOf(Collections.singletonList(task)), new int[] {index}, null,
+                false);
+    }
+
+    // EFFECTS: returns the change of sorting a to-do list by order
+    public static Mutation sort(SortOrder order) {
+        return new Mutation(Type.SORT, null, null, null, order, false);
+    }
+
+    // EFFECTS: returns the change of turning keeping a to-do list sorted on or off
+    public static Mutation keepSorted(boolean keepSorted) {
+        return new Mutation(Type.KEEP_SORTED, null, null, null, null, keepSorted);
+    }
+
+    // EFFECTS: returns the change of replacing the whole state of a to-do list by a list named listName holding
+    //          tasks in order, last sorted by order (null if never sorted) and kept sorted if keepSorted is true
+    public static Mutation restore(String listName, List<Task> tasks, SortOrder order, boolean keepSorted) {
+        return new Mutation(Type.RESTORE, listName, copyOf(tasks), null, order, keepSorted);
+    }
+
+    // REQUIRES: indices is in ascending order and has the same length as inserted
+    // EFFECTS: returns the change of inserting each task of inserted into a to-do list so that it ends up at the
+    //          matching index in indices
+    public static Mutation insert(int[] indices, List<Task> inserted) {
+        return new Mutation(Type.INSERT, null, copyOf(inserted), indices.clone(), null, false);
+    }
+
+    // REQUIRES: positions holds each index of the to-do list once
+    // EFFECTS: returns the change of moving the task at each index i of a to-do list to index positions[i], and
+    //          remembering order (null if never sorted) as the order of the most recent sort
+    public static Mutation reorder(int[] positions, SortOrder order) {
+        return new Mutation(Type.REORDER, null, null, positions.clone(), order, false);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // MODIFIES: list
+    // EFFECTS: makes this change to list
+    public void applyTo(ToDoList list) {
+        switch (type) {
+            case SET_NAME:
+                list.setName(listName);
+                break;
+            case SORT:
+                list.sortBy(order);
+                break;
+            case KEEP_SORTED:
+                list.setKeepSorted(keepSorted);
+                break;
+            case RESTORE:
+                list.restore(listName, copyOf(tasks), order, keepSorted);
+                break;
+            case REORDER:
+                list.reorder(indices, order);
+                break;
+            default:
+                changeTasks(list);
+        }
+    }
+
+    // MODIFIES: list
+    // EFFECTS: makes this change, which adds, removes or modifies tasks, to list
+    private void changeTasks(ToDoList list) {
+        if (type == Type.ADD) {
+            addTo(list);
+        } else if (type == Type.REMOVE) {
+            list.removeTasksAt(indices);
+        } else if (type == Type.CLEAR) {
+            list.removeAllTasks();
+        } else if (type == Type.INSERT) {
+            list.insertTasksAt(indices, copyOf(tasks));
+        } else {
+            modify(list.getTask(indices[0]), tasks.get(0));
+        }
+    }
+
+    // MODIFIES: list
+    // EFFECTS: adds copies of the tasks of this change to list, the same way they were first added
+    private void addTo(ToDoList list) {
+        if (tasks.size() == 1) {
+            list.addTask(copyOf(tasks).get(0));
+        } else {
+            list.addAllTasks(copyOf(tasks));
+        }
+    }
+
+    // MODIFIES: target
+    // EFFECTS: sets each field of target that differs from values to the value in values
+    private static void modify(Task target, Task values) {
+        if (!target.getName().equals(values.getName())) {
+            target.setName(values.getName());
+        }
+        if (!target.getDescription().equals(values.getDescription())) {
+            target.setDescription(values.getDescription());
+        }
+        if (!target.getDeadline().equals(values.getDeadline())) {
+            target.setDeadline(values.getDeadline());
+        }
+        if (target.getPriority() != values.getPriority()) {
+            target.setPriority(values.getPriority());
+        }
+        if (target.isCompleted() != values.isCompleted()) {
+            target.setCompleted(values.isCompleted());
+        }
+    }
+
+    // EFFECTS: returns new tasks with the same fields as those in tasks, in the same order
+    private static List<Task> copyOf(List<Task> tasks) {
+        List<Task> copies = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            copies.add(new Task(t.getName(), t.getDescription(), t.getDeadline(), t.getPriority(), t.isCompleted()));
+        }
+        return copies;
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject();
+        json.put("op", type.name());
+        if (listName != null) {
+            json.put("listName", listName);
+        }
+        if (tasks != null) {
+            JSONArray jsonArray = new JSONArray();
+            for (Task t : tasks) {
+                jsonArray.put(t.toJson());
+            }
+            json.put("tasks", jsonArray);
+        }
+        if (indices != null) {
+            json.put("indices", new JSONArray(indices));
+        }
+        if (order != null) {
+            json.put("order", order.name());
+        }
+        if (type == Type.KEEP_SORTED || type == Type.RESTORE) {
+            json.put("keepSorted", keepSorted);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents something that is told about every change made to a
+ * to-do list, for example to write the change to a log.
+ */
+@FunctionalInterface
+public interface MutationListener {
+
+    /**
+     * Takes a change that has just been made to a to-do list. Called
+     * once the change is complete, on the thread that made it.
+     *
+     * @param m the change made
+     */
+    void mutated(Mutation m);
+}
@@ -0,0 +1,89 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+// Represents a sorted view of a fixed set of tasks that is only worked out as far as it has been read. The tasks
+// are put in a binary heap in linear time, and each position read beyond those already known takes the next tasks
+// off the heap, so the first k tasks of n cost O(n + k log n) rather than a full sort. Ties are broken by the order
+// the tasks were given in, so the view matches a stable sort.
+public class PartialOrdering {
+    private final Task[] tasks;
+    private final Comparator<Task> order;
+    private final int[] heap;       // indices into tasks of the tasks not yet placed, as a binary heap
+    private int heapSize;
+    private final Task[] sorted;
+    private int sortedCount;        // number of positions of the sorted view known so far
+
+    // REQUIRES: tasks and order are not null
+    // EFFECTS: constructs a sorted view of tasks by order without sorting anything yet
+    public PartialOrdering(Iterable<Task> tasks, Comparator<Task> order) {
+        ArrayList<Task> taskList = new ArrayList<>();
+        tasks.forEach(taskList::add);
+        this.tasks = taskList.toArray(new Task[0]);
+        this.order = order;
+        int size = this.tasks.length;
+        heap = new int[size];
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+        }
+        heapSize = size;
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+        sorted = new Task[size];
+    }
+
+    // EFFECTS: returns the number of tasks in the view
+    public int size() {
+        return sorted.length;
+    }
+
+    // EFFECTS: returns the number of positions of the view that have been worked out so far
+    public int getSortedCount() {
+        return sortedCount;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // MODIFIES: this
+    // EFFECTS: returns the task at index in sorted order, working out the order up to index if not yet known
+    public Task get(int index) {
+        while (sortedCount <= index) {
+            sorted[sortedCount++] = tasks[poll()];
+        }
+        return sorted[index];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes and returns the index of the first remaining task in order
+    private int poll() {
+        int first = heap[0];
+        heap[0] = heap[--heapSize];
+        siftDown(0);
+        return first;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves the heap entry at i down until neither of its children comes before it
+    private void siftDown(int i) {
+        int entry = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && comesBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!comesBefore(heap[child], entry)) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+    }
+
+    // EFFECTS: returns true if the task at index i comes before the task at index j, breaking ties by index
+    private boolean comesBefore(int i, int j) {
+        int compare = order.compare(tasks[i], tasks[j]);
+        return compare < 0 || (compare == 0 && i < j);
+    }
+}
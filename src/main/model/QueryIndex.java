@@ -0,0 +1,264 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Represents indexes over the tasks of a to-do list used to answer task queries: a bitmap of tasks for each priority,
+// a bitmap of completed tasks, and the tasks ordered by deadline and by name. Each indexed task is given a slot that
+// is its bit in the bitmaps; slots of removed tasks are reused. The index keeps its own copy of each task's indexed
+// values so that it can find a task's old entries after the task has changed.
+class QueryIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Task[] bySlot;
+    private LocalDateTime[] deadlineOf;
+    private String[] nameOf;
+    private byte[] priorityOf;
+    private int slotCount;                  // number of slots handed out so far
+    private int[] freeSlots;
+    private int freeCount;
+    private final BitSet used;
+    private final BitSet[] byPriority;
+    private final BitSet completed;
+    private final TreeSet<Task> byDeadline;
+    private final TreeSet<Task> byName;
+
+    // EFFECTS: constructs an empty index
+    QueryIndex() {
+        bySlot = new Task[INITIAL_CAPACITY];
+        deadlineOf = new LocalDateTime[INITIAL_CAPACITY];
+        nameOf = new String[INITIAL_CAPACITY];
+        priorityOf = new byte[INITIAL_CAPACITY];
+        freeSlots = new int[INITIAL_CAPACITY];
+        used = new BitSet();
+        byPriority = new BitSet[6];
+        for (int p = 0; p < byPriority.length; p++) {
+            byPriority[p] = new BitSet();
+        }
+        completed = new BitSet();
+        byDeadline = new TreeSet<>(this::compareByDeadline);
+        byName = new TreeSet<>(this::compareByName);
+    }
+
+    // REQUIRES: task is not in this index
+    // MODIFIES: this, task
+    // EFFECTS: adds task to the index
+    void add(Task task) {
+        int slot = allocateSlot();
+        bySlot[slot] = task;
+        task.setSlot(slot);
+        deadlineOf[slot] = task.getDeadline();
+        nameOf[slot] = task.getName();
+        priorityOf[slot] = (byte) task.getPriority();
+        used.set(slot);
+        byPriority[task.getPriority()].set(slot);
+        completed.set(slot, task.isCompleted());
+        byDeadline.add(task);
+        byName.add(task);
+    }
+
+    // REQUIRES: task is in this index
+    // MODIFIES: this
+    // EFFECTS: removes task from the index
+    void remove(Task task) {
+        int slot = task.getSlot();
+        byDeadline.remove(task);
+        byName.remove(task);
+        used.clear(slot);
+        byPriority[priorityOf[slot]].clear(slot);
+        completed.clear(slot);
+        bySlot[slot] = null;
+        deadlineOf[slot] = null;
+        nameOf[slot] = null;
+        freeSlots[freeCount++] = slot;
+    }
+
+    // REQUIRES: task is in this index
+    // MODIFIES: this
+    // EFFECTS: brings the entries of task up to date with its current deadline, name, priority and completed status
+    void update(Task task) {
+        int slot = task.getSlot();
+        if (!deadlineOf[slot].equals(task.getDeadline())) {
+            byDeadline.remove(task);
+            deadlineOf[slot] = task.getDeadline();
+            byDeadline.add(task);
+        }
+        if (!nameOf[slot].equals(task.getName())) {
+            byName.remove(task);
+            nameOf[slot] = task.getName();
+            byName.add(task);
+        }
+        if (priorityOf[slot] != task.getPriority()) {
+            byPriority[priorityOf[slot]].clear(slot);
+            priorityOf[slot] = (byte) task.getPriority();
+            byPriority[priorityOf[slot]].set(slot);
+        }
+        completed.set(slot, task.isCompleted());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a free slot, growing the slot arrays if every slot is in use
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == bySlot.length) {
+            int capacity = slotCount * 2;
+            bySlot = Arrays.copyOf(bySlot, capacity);
+            deadlineOf = Arrays.copyOf(deadlineOf, capacity);
+            nameOf = Arrays.copyOf(nameOf, capacity);
+            priorityOf = Arrays.copyOf(priorityOf, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return slotCount++;
+    }
+
+    // EFFECTS: returns a lazily evaluated stream of the indexed tasks matching query, in no particular order. The
+    //          stream walks whichever index narrows the query down to the fewest candidates and filters those.
+    Stream<Task> select(TaskQuery query) {
+        Iterator<Task> candidates = mostSelectiveCandidates(query);
+        Spliterator<Task> spliterator = Spliterators.spliteratorUnknownSize(candidates, Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).filter(query::matches);
+    }
+
+    // EFFECTS: returns an iterator over the candidates of the most selective index for query. The bitmaps give an
+    //          exact count; the ordered indexes are only walked as far as needed to tell if they give fewer.
+    private Iterator<Task> mostSelectiveCandidates(TaskQuery query) {
+        BitSet bitmap = bitmapCandidates(query);
+        int best = bitmap.cardinality();
+        Iterable<Task> chosen = () -> slotIterator(bitmap);
+        if (query.hasDeadlineRange()) {
+            Iterable<Task> range = deadlineRange(query);
+            int count = countUpTo(range, best);
+            if (count < best) {
+                best = count;
+                chosen = range;
+            }
+        }
+        if (query.getNamePrefix() != null) {
+            Iterable<Task> range = namePrefixRange(query.getNamePrefix());
+            if (countUpTo(range, best) < best) {
+                chosen = range;
+            }
+        }
+        return chosen.iterator();
+    }
+
+    // EFFECTS: returns the slots of tasks matching the priority and completed status conditions of query
+    private BitSet bitmapCandidates(TaskQuery query) {
+        BitSet candidates;
+        if (query.hasPriorityRange()) {
+            candidates = new BitSet();
+            for (int p = query.getMinPriority(); p <= query.getMaxPriority(); p++) {
+                candidates.or(byPriority[p]);
+            }
+        } else {
+            candidates = (BitSet) used.clone();
+        }
+        if (Boolean.TRUE.equals(query.getCompleted())) {
+            candidates.and(completed);
+        } else if (Boolean.FALSE.equals(query.getCompleted())) {
+            candidates.andNot(completed);
+        }
+        return candidates;
+    }
+
+    // EFFECTS: returns the tasks within the deadline range of query, in deadline order
+    private Iterable<Task> deadlineRange(TaskQuery query) {
+        LocalDateTime from = query.getDueFrom() == null ? LocalDateTime.MIN : query.getDueFrom();
+        LocalDateTime to = query.getDueTo();
+        return () -> byDeadline.tailSet(probe("", from), true).stream()
+                .takeWhile(t -> to == null || deadlineKey(t).isBefore(to))
+                .iterator();
+    }
+
+    // EFFECTS: returns the tasks whose name starts with prefix, in name order
+    private Iterable<Task> namePrefixRange(String prefix) {
+        return () -> byName.tailSet(probe(prefix, LocalDateTime.MIN), true).stream()
+                .takeWhile(t -> nameKey(t).startsWith(prefix))
+                .iterator();
+    }
+
+    // EFFECTS: returns the number of elements of candidates, counting no further than limit
+    private static int countUpTo(Iterable<Task> candidates, int limit) {
+        int count = 0;
+        Iterator<Task> iterator = candidates.iterator();
+        while (count < limit && iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    // EFFECTS: returns an iterator over the tasks in the slots set in slots, in slot order
+    private Iterator<Task> slotIterator(BitSet slots) {
+        return new Iterator<Task>() {
+            private int next = slots.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Task next() {
+                if (next < 0) {
+                    throw new NoSuchElementException();
+                }
+                Task task = bySlot[next];
+                next = slots.nextSetBit(next + 1);
+                return task;
+            }
+        };
+    }
+
+    // EFFECTS: returns a task that is not in the index, sorting before every indexed task with the same name or
+    //          deadline, to be used as a bound when searching the ordered indexes
+    private static Task probe(String name, LocalDateTime deadline) {
+        Task probe = new Task(name, "", deadline, 0);
+        probe.setSlot(-1);
+        return probe;
+    }
+
+    // EFFECTS: returns true if task currently occupies its slot in this index
+    private boolean isIndexed(Task task) {
+        int slot = task.getSlot();
+        return slot >= 0 && slot < slotCount && bySlot[slot] == task;
+    }
+
+    // EFFECTS: returns the deadline task is indexed under, or its current deadline if it is not indexed
+    private LocalDateTime deadlineKey(Task task) {
+        return isIndexed(task) ? deadlineOf[task.getSlot()] : task.getDeadline();
+    }
+
+    // EFFECTS: returns the name task is indexed under, or its current name if it is not indexed
+    private String nameKey(Task task) {
+        return isIndexed(task) ? nameOf[task.getSlot()] : task.getName();
+    }
+
+    // EFFECTS: orders tasks by indexed deadline, then by slot
+    private int compareByDeadline(Task t1, Task t2) {
+        int compareByDeadline = deadlineKey(t1).compareTo(deadlineKey(t2));
+        if (compareByDeadline != 0) {
+            return compareByDeadline;
+        }
+        return Integer.compare(t1.getSlot(), t2.getSlot());
+    }
+
+    // EFFECTS: orders tasks by indexed name, then by slot
+    private int compareByName(Task t1, Task t2) {
+        int compareByName = nameKey(t1).compareTo(nameKey(t2));
+        if (compareByName != 0) {
+            return compareByName;
+        }
+        return Integer.compare(t1.getSlot(), t2.getSlot());
+    }
+}
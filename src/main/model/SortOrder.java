@@ -0,0 +1,36 @@
+package model;
+
+import java.util.Comparator;
+
+// Represents the orders a to-do list can be sorted in
+public enum SortOrder implements Comparator<Task> {
+    PRIORITY("priority", new PriorityComparator(), TaskSorter.BY_PRIORITY),
+    DEADLINE("deadline", new DeadlineComparator(), TaskSorter.BY_DEADLINE),
+    NAME("name", new NameComparator(), null),
+    IS_COMPLETED("completed status", new IsCompleteComparator(), TaskSorter.BY_IS_COMPLETED);
+
+    private final String label;
+    private final Comparator<Task> comparator;
+    private final TaskSorter.KeyFunction keys;
+
+    SortOrder(String label, Comparator<Task> comparator, TaskSorter.KeyFunction keys) {
+        this.label = label;
+        this.comparator = comparator;
+        this.keys = keys;
+    }
+
+    // EFFECTS: returns what tasks are sorted by in this order, e.g. "deadline"
+    public String getLabel() {
+        return label;
+    }
+
+    // EFFECTS: returns the packed sort keys for this order, null if tasks must be compared as objects
+    TaskSorter.KeyFunction getKeys() {
+        return keys;
+    }
+
+    @Override
+    public int compare(Task o1, Task o2) {
+        return comparator.compare(o1, o2);
+    }
+}
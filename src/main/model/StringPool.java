@@ -0,0 +1,79 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Represents a pool of strings where each distinct string is stored once and referred to by an integer id. The pool
+// counts the references to each string, and a string no longer referred to is dropped and its id reused.
+class StringPool {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ArrayList<String> strings;    // by id, null for an id not in use
+    private final HashMap<String, Integer> ids;
+    private int[] counts;                       // number of references to each id
+    private int[] freeIds;
+    private int freeCount;
+
+    // EFFECTS: constructs an empty string pool
+    StringPool() {
+        strings = new ArrayList<>();
+        ids = new HashMap<>();
+        counts = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+    }
+
+    // REQUIRES: s != null
+    // MODIFIES: this
+    // EFFECTS: returns the id of s, adding s to the pool if it is not already in it, and counts one more reference
+    //          to it
+    int intern(String s) {
+        Integer id = ids.get(s);
+        if (id == null) {
+            id = allocate(s);
+            ids.put(s, id);
+        }
+        counts[id]++;
+        return id;
+    }
+
+    // REQUIRES: id is in use
+    // MODIFIES: this
+    // EFFECTS: counts one reference less to the string with the given id, dropping it once nothing refers to it
+    void release(int id) {
+        if (--counts[id] == 0) {
+            ids.remove(strings.get(id));
+            strings.set(id, null);
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeIds.length * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stores s under an id not in use and returns the id
+    private int allocate(String s) {
+        if (freeCount > 0) {
+            int id = freeIds[--freeCount];
+            strings.set(id, s);
+            return id;
+        }
+        if (strings.size() == counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        strings.add(s);
+        return strings.size() - 1;
+    }
+
+    // REQUIRES: id is in use
+    // EFFECTS: returns the string with the given id
+    String get(int id) {
+        return strings.get(id);
+    }
+
+    // EFFECTS: returns the number of distinct strings in the pool
+    int size() {
+        return ids.size();
+    }
+}
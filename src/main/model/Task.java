@@ -14,6 +14,10 @@ public class Task implements Writable {
     private LocalDateTime deadline;
     private int priority;
     private boolean completed;
+    private volatile ToDoList owner;    // to-do list this task currently belongs to, null if none
+    private int position;       // index of this task inside owner
+    private int slot;           // slot of this task in the query index of owner
+    private int savedId = -1;   // id of this task in the saved copy of owner, -1 if not saved under an id
 
     // REQUIRES: name != null, description != null, deadline != null, 0 <= priority <= 5, completed != null
     // EFFECTS: name of task, description, deadline, priority, and complete set to respective specified parameters.
@@ -68,8 +72,15 @@ public class Task implements Writable {
     // REQUIRES: name != null
     // EFFECTS: changes name of task to be the new name specified in parameters
     public void setName(String name) {
-        EventLog.getInstance().logEvent(new Event("Task name changed: " + getName() + " -> " + name));
-        this.name = name;
+        edit(() -> {
+            EventLog.getInstance().logEvent(EventOperation.NAME_CHANGED, getName(), getName(), name);
+            String oldName = this.name;
+            this.name = name;
+            if (owner != null) {
+                owner.taskRenamed(this, oldName);
+            }
+            changed(EventOperation.NAME_CHANGED, oldName, name);
+        });
     }
 
     public String getDescription() {
@@ -79,9 +90,13 @@ public class Task implements Writable {
     // REQUIRES: description != null
     // EFFECTS: changes description of task to be the new description specified in parameters
     public void setDescription(String description) {
-        EventLog.getInstance().logEvent(new Event("Task \"" + getName() + "\" description changed: "
-                + getDescription() + " -> " + description));
-        this.description = description;
+        edit(() -> {
+            EventLog.getInstance().logEvent(EventOperation.DESCRIPTION_CHANGED, getName(),
+                    getDescription(), description);
+            String oldDescription = this.description;
+            this.description = description;
+            changed(EventOperation.DESCRIPTION_CHANGED, oldDescription, description);
+        });
     }
 
     public LocalDateTime getDeadline() {
@@ -91,9 +106,13 @@ public class Task implements Writable {
     // REQUIRES: deadline != null
     // EFFECTS: changes deadline of task to be the new deadline specified in parameters
     public void setDeadline(LocalDateTime deadline) {
-        EventLog.getInstance().logEvent(new Event("Task \"" + getName() + "\" deadline changed: "
-                + getDeadline() + " -> " + deadline));
-        this.deadline = deadline;
+        edit(() -> {
+            EventLog.getInstance().logEvent(EventOperation.DEADLINE_CHANGED, getName(),
+                    getDeadline(), deadline);
+            LocalDateTime oldDeadline = this.deadline;
+            this.deadline = deadline;
+            changed(EventOperation.DEADLINE_CHANGED, oldDeadline, deadline);
+        });
     }
 
     public int getPriority() {
@@ -105,9 +124,13 @@ public class Task implements Writable {
     //          parameter. otherwise, do nothing.
     public void setPriority(int priority) {
         if (priority >= 0 && priority <= 5) {
-            EventLog.getInstance().logEvent(new Event("Task \"" + getName() + "\" priority changed: "
-                    + getPriority() + " -> " + priority));
-            this.priority = priority;
+            edit(() -> {
+                EventLog.getInstance().logEvent(EventOperation.PRIORITY_CHANGED, getName(),
+                        getPriority(), priority);
+                int oldPriority = this.priority;
+                this.priority = priority;
+                changed(EventOperation.PRIORITY_CHANGED, oldPriority, priority);
+            });
         }
     }
 
@@ -118,9 +141,74 @@ public class Task implements Writable {
     // REQUIRES: completed != null;
     // EFFECTS: changes completed of task to be true or false as specified in parameters
     public void setCompleted(boolean completed) {
-        EventLog.getInstance().logEvent(new Event("Task \"" + getName() + "\" completed status changed: "
-                + isCompleted() + " -> " + completed));
-        this.completed = completed;
+        edit(() -> {
+            EventLog.getInstance().logEvent(EventOperation.COMPLETED_CHANGED, getName(),
+                    isCompleted(), completed);
+            boolean oldCompleted = this.completed;
+            this.completed = completed;
+            changed(EventOperation.COMPLETED_CHANGED, oldCompleted, completed);
+        });
+    }
+
+    // MODIFIES: this
+    // EFFECTS: runs edit, which changes fields of this task and tells the to-do list this task belongs to, as one
+    //          change of that to-do list, or on its own if this task belongs to none. If this task moves to another
+    //          to-do list or none before the change starts, edit runs as a change of where it is then.
+    private void edit(Runnable edit) {
+        for (ToDoList list = owner; list != null; list = owner) {
+            if (list.editTask(this, edit)) {
+                return;
+            }
+        }
+        edit.run();
+    }
+
+    // EFFECTS: tells the to-do list this task belongs to, if any, that field of this task changed from oldValue to
+    //          newValue
+    private void changed(EventOperation field, Object oldValue, Object newValue) {
+        if (owner != null) {
+            owner.taskChanged(this, field, oldValue, newValue);
+        }
+    }
+
+    ToDoList getOwner() {
+        return owner;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the to-do list this task belongs to, null if it no longer belongs to one
+    void setOwner(ToDoList owner) {
+        this.owner = owner;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the index of this task inside its owning to-do list
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the slot this task occupies in a query index
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    int getSavedId() {
+        return savedId;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the id this task is saved under, -1 if none
+    void setSavedId(int savedId) {
+        this.savedId = savedId;
     }
 
     // EFFECTS: returns a string representation of task
@@ -0,0 +1,194 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Represents a compact store of tasks kept column by column instead of as one object per task. Priorities are kept
+// in a byte array, completed status in a bit set, deadlines as minutes since the epoch, and names and descriptions
+// as ids into a shared string pool. Rows are numbered from 0 in the order tasks were added. As a task source, the
+// store can back a LazyToDoList, which makes a Task object for a row only when the row is asked for and keeps a
+// bounded number of them; see asToDoList.
+public class TaskColumns implements TaskSource {
+    public static final long NO_DEADLINE = Long.MAX_VALUE;     // stored deadline of a task with no deadline
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int size;
+    private int[] names;
+    private int[] descriptions;
+    private long[] deadlines;
+    private byte[] priorities;
+    private final BitSet completed;
+    private final StringPool strings;
+
+    // EFFECTS: constructs an empty task store
+    public TaskColumns() {
+        names = new int[INITIAL_CAPACITY];
+        descriptions = new int[INITIAL_CAPACITY];
+        deadlines = new long[INITIAL_CAPACITY];
+        priorities = new byte[INITIAL_CAPACITY];
+        completed = new BitSet();
+        strings = new StringPool();
+    }
+
+    // EFFECTS: returns a task store holding a copy of every task in tasks, in the same order
+    public static TaskColumns of(Iterable<Task> tasks) {
+        TaskColumns columns = new TaskColumns();
+        for (Task t : tasks) {
+            columns.add(t);
+        }
+        return columns;
+    }
+
+    // EFFECTS: returns the number of tasks in the store
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= index < size()
+    // EFFECTS: returns a new task with the values stored at row index
+    @Override
+    public Task readTask(int index) {
+        return toTask(index);
+    }
+
+    // REQUIRES: task != null
+    // MODIFIES: this
+    // EFFECTS: appends a copy of task to the store and returns its row. Seconds and nanoseconds of the deadline are
+    //          not kept, as in the saved JSON format.
+    public int add(Task task) {
+        if (size == names.length) {
+            grow();
+        }
+        int row = size++;
+        names[row] = strings.intern(task.getName());
+        descriptions[row] = strings.intern(task.getDescription());
+        deadlines[row] = toEpochMinute(task.getDeadline());
+        priorities[row] = (byte) task.getPriority();
+        completed.set(row, task.isCompleted());
+        return row;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: doubles the capacity of every column
+    private void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public String getName(int row) {
+        return strings.get(names[row]);
+    }
+
+    // REQUIRES: 0 <= row < size(), name != null
+    public void setName(int row, String name) {
+        int old = names[row];
+        names[row] = strings.intern(name);
+        strings.release(old);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public String getDescription(int row) {
+        return strings.get(descriptions[row]);
+    }
+
+    // REQUIRES: 0 <= row < size(), description != null
+    public void setDescription(int row, String description) {
+        int old = descriptions[row];
+        descriptions[row] = strings.intern(description);
+        strings.release(old);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: returns the deadline of the task at row as minutes since the epoch, NO_DEADLINE if it has none
+    public long getDeadlineMinute(int row) {
+        return deadlines[row];
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public LocalDateTime getDeadline(int row) {
+        return fromEpochMinute(deadlines[row]);
+    }
+
+    // REQUIRES: 0 <= row < size(), deadline != null
+    public void setDeadline(int row, LocalDateTime deadline) {
+        deadlines[row] = toEpochMinute(deadline);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public int getPriority(int row) {
+        return priorities[row];
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: if priority is between 0 and 5 inclusive, changes priority of the task at row. otherwise, do nothing.
+    public void setPriority(int row, int priority) {
+        if (priority >= 0 && priority <= 5) {
+            priorities[row] = (byte) priority;
+        }
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public boolean isCompleted(int row) {
+        return completed.get(row);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    public void setCompleted(int row, boolean isCompleted) {
+        completed.set(row, isCompleted);
+    }
+
+    // REQUIRES: 0 <= row < size()
+    // EFFECTS: returns a new task with the values stored at row
+    public Task toTask(int row) {
+        return new Task(getName(row), getDescription(row), getDeadline(row), getPriority(row), isCompleted(row));
+    }
+
+    // EFFECTS: returns the number of distinct names and descriptions in the store
+    public int getDistinctStrings() {
+        return strings.size();
+    }
+
+    // EFFECTS: returns a to-do list named listName whose tasks are read from this store as they are asked for, and
+    //          kept as Task objects only while they are among the cacheSize read most recently or once they are
+    //          modified. The store must not change while the to-do list reads from it.
+    public LazyToDoList asToDoList(String listName, int cacheSize) {
+        return new LazyToDoList(listName, this, cacheSize);
+    }
+
+    // EFFECTS: returns a new to-do list named listName holding a task for every row, in row order
+    public ToDoList toToDoList(String listName) {
+        ToDoList list = new ToDoList(listName);
+        for (int row = 0; row < size; row++) {
+            list.addTask(toTask(row));
+        }
+        return list;
+    }
+
+    // REQUIRES: deadline != null
+    // EFFECTS: returns deadline as whole minutes since the epoch, NO_DEADLINE if deadline is LocalDateTime.MAX
+    public static long toEpochMinute(LocalDateTime deadline) {
+        if (deadline.equals(LocalDateTime.MAX)) {
+            return NO_DEADLINE;
+        }
+        return Math.floorDiv(deadline.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    // EFFECTS: returns the deadline represented by minute, LocalDateTime.MAX if minute is NO_DEADLINE
+    public static LocalDateTime fromEpochMinute(long minute) {
+        if (minute == NO_DEADLINE) {
+            return LocalDateTime.MAX;
+        }
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+}
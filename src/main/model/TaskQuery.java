@@ -0,0 +1,109 @@
+package model;
+
+import java.time.LocalDateTime;
+
+// Represents a query over the tasks of a to-do list. A new query matches every task; each condition added narrows
+// it down further, e.g. new TaskQuery().completed(false).priorityAtLeast(4).dueBetween(now, now.plusHours(48))
+public class TaskQuery {
+    private int minPriority;
+    private int maxPriority;
+    private LocalDateTime dueFrom;      // inclusive, null if there is no lower bound
+    private LocalDateTime dueTo;        // exclusive, null if there is no upper bound
+    private Boolean completed;          // null if completed status does not matter
+    private String namePrefix;          // null if name does not matter
+
+    // EFFECTS: constructs a query matching every task
+    public TaskQuery() {
+        minPriority = 0;
+        maxPriority = 5;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks with priority >= priority, returns this
+    public TaskQuery priorityAtLeast(int priority) {
+        minPriority = Math.max(minPriority, priority);
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks with priority <= priority, returns this
+    public TaskQuery priorityAtMost(int priority) {
+        maxPriority = Math.min(maxPriority, priority);
+        return this;
+    }
+
+    // REQUIRES: from != null, to != null
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks due at or after from and before to, returns this
+    public TaskQuery dueBetween(LocalDateTime from, LocalDateTime to) {
+        dueFrom = from;
+        dueTo = to;
+        return this;
+    }
+
+    // REQUIRES: to != null
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks due before to, returns this
+    public TaskQuery dueBefore(LocalDateTime to) {
+        dueTo = to;
+        return this;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks whose completed status is isCompleted, returns this
+    public TaskQuery completed(boolean isCompleted) {
+        completed = isCompleted;
+        return this;
+    }
+
+    // REQUIRES: prefix != null
+    // MODIFIES: this
+    // EFFECTS: restricts query to tasks whose name starts with prefix, returns this
+    public TaskQuery nameStartsWith(String prefix) {
+        namePrefix = prefix;
+        return this;
+    }
+
+    // EFFECTS: returns true if task satisfies every condition of this query
+    public boolean matches(Task task) {
+        return task.getPriority() >= minPriority && task.getPriority() <= maxPriority
+                && (dueFrom == null || !task.getDeadline().isBefore(dueFrom))
+                && (dueTo == null || task.getDeadline().isBefore(dueTo))
+                && (completed == null || task.isCompleted() == completed)
+                && (namePrefix == null || task.getName().startsWith(namePrefix));
+    }
+
+    int getMinPriority() {
+        return minPriority;
+    }
+
+    int getMaxPriority() {
+        return maxPriority;
+    }
+
+    // EFFECTS: returns true if query restricts priority
+    boolean hasPriorityRange() {
+        return minPriority > 0 || maxPriority < 5;
+    }
+
+    LocalDateTime getDueFrom() {
+        return dueFrom;
+    }
+
+    LocalDateTime getDueTo() {
+        return dueTo;
+    }
+
+    // EFFECTS: returns true if query restricts deadline
+    boolean hasDeadlineRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    Boolean getCompleted() {
+        return completed;
+    }
+
+    String getNamePrefix() {
+        return namePrefix;
+    }
+}
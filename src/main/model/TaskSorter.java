@@ -0,0 +1,93 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+// Represents a sorter that sorts tasks on all cores. When every task's sort key fits in a few bits, each task's key
+// and its current index are packed into one long and the longs are sorted, so no comparator or getter is called
+// during the sort and tasks with equal keys keep their relative order. Otherwise the tasks are sorted as objects
+// with a comparator, which is also stable.
+final class TaskSorter {
+    private static final int INDEX_BITS = 28;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int DEADLINE_BITS = 34;
+    private static final long NO_DEADLINE_KEY = (1L << DEADLINE_BITS) - 1;
+    private static final long FIRST_MINUTE = LocalDateTime.of(0, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) / 60;
+
+    // Represents a function giving the sort key of a task as a non-negative number below 2^35, or -1 if the
+    // task's key does not fit
+    interface KeyFunction {
+        long key(Task task);
+    }
+
+    // sort keys for descending priority
+    static final KeyFunction BY_PRIORITY = t -> 5 - t.getPriority();
+
+    // sort keys for ascending deadline
+    static final KeyFunction BY_DEADLINE = t -> deadlineKey(t.getDeadline());
+
+    // sort keys for incomplete tasks first, then ascending deadline
+    static final KeyFunction BY_IS_COMPLETED = t -> {
+        long deadlineKey = deadlineKey(t.getDeadline());
+        if (deadlineKey < 0 || !t.isCompleted()) {
+            return deadlineKey;
+        }
+        return (1L << DEADLINE_BITS) | deadlineKey;
+    };
+
+    private TaskSorter() {
+    }
+
+    // REQUIRES: keys is null or gives keys in the same order as order
+    // MODIFIES: tasks
+    // EFFECTS: stably sorts tasks by order, using the packed keys given by keys if every task has one
+    static void sort(ArrayList<Task> tasks, Comparator<Task> order, KeyFunction keys) {
+        Task[] sorted = tasks.toArray(new Task[0]);
+        if (keys == null || !sortByKeys(sorted, keys)) {
+            Arrays.parallelSort(sorted, order);
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            tasks.set(i, sorted[i]);
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: stably sorts tasks by the keys given by keys and returns true if every task has a key and there are
+    //          few enough tasks to pack their indices; otherwise leaves tasks unchanged and returns false
+    private static boolean sortByKeys(Task[] tasks, KeyFunction keys) {
+        if (tasks.length > INDEX_MASK) {
+            return false;
+        }
+        long[] packed = new long[tasks.length];
+        Arrays.parallelSetAll(packed, i -> {
+            long key = keys.key(tasks[i]);
+            return key < 0 ? -1 : key << INDEX_BITS | i;
+        });
+        Arrays.parallelSort(packed);
+        if (packed.length > 0 && packed[0] < 0) {
+            return false;
+        }
+        Task[] unsorted = tasks.clone();
+        Arrays.parallelSetAll(tasks, i -> unsorted[(int) (packed[i] & INDEX_MASK)]);
+        return true;
+    }
+
+    // EFFECTS: returns deadline as a key below 2^34 that orders deadlines like LocalDateTime.compareTo, or -1 if
+    //          deadline is not a whole minute from year 0 to about year 32000 and is not LocalDateTime.MIN or MAX
+    static long deadlineKey(LocalDateTime deadline) {
+        if (deadline.equals(LocalDateTime.MIN)) {
+            return 0;
+        }
+        if (deadline.equals(LocalDateTime.MAX)) {
+            return NO_DEADLINE_KEY;
+        }
+        if (deadline.getSecond() != 0 || deadline.getNano() != 0 || deadline.getYear() < 0) {
+            return -1;
+        }
+        long key = deadline.toEpochSecond(ZoneOffset.UTC) / 60 - FIRST_MINUTE + 1;
+        return key < NO_DEADLINE_KEY ? key : -1;
+    }
+}
@@ -0,0 +1,12 @@
+package model;
+
+// Represents saved tasks that can be read one at a time by their index, such as those of a to-do list saved to a
+// file that has not been loaded
+public interface TaskSource {
+    // EFFECTS: returns the number of tasks
+    int getTaskCount();
+
+    // REQUIRES: 0 <= index < getTaskCount()
+    // EFFECTS: reads the task at index and returns it as a new task that belongs to no to-do list
+    Task readTask(int index);
+}
@@ -0,0 +1,174 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+// Represents an inverted index from the words in task names and descriptions to the tasks using them. Words are kept
+// in sorted order so that every word starting with a prefix can be found for type-ahead and prefix searches. Each
+// posting carries a weight of 2 per use of the word in the task name and 1 per use in the description.
+class TextIndex {
+    private static final int NAME_WEIGHT = 2;
+
+    private final TreeMap<String, HashMap<Task, Integer>> postings;
+    private final HashMap<Task, Entry> entries;
+
+    // EFFECTS: constructs an empty index
+    TextIndex() {
+        postings = new TreeMap<>();
+        entries = new HashMap<>();
+    }
+
+    // REQUIRES: task is not in this index
+    // MODIFIES: this
+    // EFFECTS: adds the words of task's name and description to the index
+    void add(Task task) {
+        Entry entry = new Entry(task.getName(), task.getDescription());
+        entries.put(task, entry);
+        for (Map.Entry<String, Integer> word : entry.weights.entrySet()) {
+            postings.computeIfAbsent(word.getKey(), w -> new HashMap<>()).put(task, word.getValue());
+        }
+    }
+
+    // REQUIRES: task is in this index
+    // MODIFIES: this
+    // EFFECTS: removes task from the index
+    void remove(Task task) {
+        Entry entry = entries.remove(task);
+        for (String word : entry.weights.keySet()) {
+            HashMap<Task, Integer> tasks = postings.get(word);
+            tasks.remove(task);
+            if (tasks.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    // REQUIRES: task is in this index
+    // MODIFIES: this
+    // EFFECTS: re-indexes task if its name or description changed since it was indexed
+    void update(Task task) {
+        Entry entry = entries.get(task);
+        if (!entry.name.equals(task.getName()) || !entry.description.equals(task.getDescription())) {
+            remove(task);
+            add(task);
+        }
+    }
+
+    // REQUIRES: query != null
+    // EFFECTS: returns the tasks matching the words of query, best match first. A word ending in * matches every
+    //          word starting with it. If matchAll is true a task must match every word of query, otherwise any one.
+    //          A task scores the sum over the words it matches of its posting weight times log(1 + tasks / tasks
+    //          using that word); ties are broken by task name.
+    List<Task> search(String query, boolean matchAll) {
+        HashMap<Task, Double> scores = null;
+        for (String term : query.trim().split("\\s+")) {
+            boolean isPrefix = term.endsWith("*");
+            for (String word : tokenize(isPrefix ? term.substring(0, term.length() - 1) : term)) {
+                HashMap<Task, Double> termScores = score(word, isPrefix);
+                scores = scores == null ? termScores : combine(scores, termScores, matchAll);
+            }
+        }
+        if (scores == null) {
+            return new ArrayList<>();
+        }
+        return rank(scores);
+    }
+
+    // REQUIRES: prefix != null
+    // EFFECTS: returns up to limit indexed words starting with prefix, in alphabetical order
+    List<String> suggest(String prefix, int limit) {
+        List<String> words = new ArrayList<>();
+        for (String word : wordsStartingWith(prefix.toLowerCase()).keySet()) {
+            if (words.size() == limit) {
+                break;
+            }
+            words.add(word);
+        }
+        return words;
+    }
+
+    // EFFECTS: returns the score of every task using word, or any word starting with word if isPrefix is true
+    private HashMap<Task, Double> score(String word, boolean isPrefix) {
+        Map<String, HashMap<Task, Integer>> matches = isPrefix ? wordsStartingWith(word)
+                : postings.containsKey(word) ? Collections.singletonMap(word, postings.get(word))
+                : Collections.emptyMap();
+        HashMap<Task, Double> scores = new HashMap<>();
+        for (HashMap<Task, Integer> tasks : matches.values()) {
+            double idf = Math.log(1 + (double) entries.size() / tasks.size());
+            for (Map.Entry<Task, Integer> posting : tasks.entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() * idf, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    // EFFECTS: returns the postings of every indexed word starting with prefix
+    private SortedMap<String, HashMap<Task, Integer>> wordsStartingWith(String prefix) {
+        return postings.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    // MODIFIES: scores
+    // EFFECTS: adds termScores into scores and returns scores. If matchAll is true, only tasks in both are kept.
+    private static HashMap<Task, Double> combine(HashMap<Task, Double> scores, HashMap<Task, Double> termScores,
+                                                 boolean matchAll) {
+        if (matchAll) {
+            scores.keySet().retainAll(termScores.keySet());
+            for (Map.Entry<Task, Double> score : scores.entrySet()) {
+                score.setValue(score.getValue() + termScores.get(score.getKey()));
+            }
+        } else {
+            termScores.forEach((task, score) -> scores.merge(task, score, Double::sum));
+        }
+        return scores;
+    }
+
+    // EFFECTS: returns the tasks in scores, highest score first and then by name
+    private static List<Task> rank(HashMap<Task, Double> scores) {
+        List<Task> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((t1, t2) -> {
+            int compareByScore = Double.compare(scores.get(t2), scores.get(t1));
+            return compareByScore != 0 ? compareByScore : t1.getName().compareTo(t2.getName());
+        });
+        return ranked;
+    }
+
+    // EFFECTS: returns the words of text in lower case, in order. A word is a run of letters or digits.
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    // Represents the text a task was indexed with and the weight of each of its words
+    private static class Entry {
+        private final String name;
+        private final String description;
+        private final HashMap<String, Integer> weights;
+
+        Entry(String name, String description) {
+            this.name = name;
+            this.description = description;
+            weights = new HashMap<>();
+            for (String word : tokenize(name)) {
+                weights.merge(word, NAME_WEIGHT, Integer::sum);
+            }
+            for (String word : tokenize(description)) {
+                weights.merge(word, 1, Integer::sum);
+            }
+        }
+    }
+}
@@ -2,19 +2,44 @@ package model;
 
 import org.json.JSONArray;
 import org.json.JSONObject;
+import persistence.ListSaver;
 import persistence.Writable;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 // Represents a To-Do List having an arraylist of tasks
-public class ToDoList implements Writable {
+public class ToDoList implements Writable, Iterable<Task> {
     ArrayList<Task> tasks;      // list of tasks
     String name;
+    HashMap<String, Task> nameIndex;    // task name -> first task (by position) with that name
+    int shadowedTasks;                  // number of tasks whose name is indexed to another task
+    SortOrder activeOrder;              // order of the most recent sort, null if never sorted
+    boolean keepSorted;                 // true if tasks are kept in activeOrder as they are added or modified
+    QueryIndex queryIndex;              // indexes used to answer queries, null until the first query
+    TextIndex textIndex;                // index of words used to answer searches, null until the first search
+    MutationListener mutationListener;  // told about every change to the to-do list, null if none
+    UndoHistory undoHistory;            // records changes to the to-do list so they can be undone, null if none
+    DirtyTracker dirtyTracker;          // records changes to the to-do list since it was last saved, null if none
+    final List<ListChangeListener> changeListeners;     // told which rows each operation changed
 
     // EFFECTS: Initializes list of tasks to be an empty arraylist and initialize listName to specified parameter
     public ToDoList(String listName) {
         tasks = new ArrayList<>();
+        nameIndex = new HashMap<>();
+        changeListeners = new CopyOnWriteArrayList<>();
         this.name = listName;
     }
 
@@ -29,8 +54,14 @@ public class ToDoList implements Writable {
 
     // REQUIRES: name != null or empty
     public void setName(String name) {
+        if (undoHistory != null) {
+            undoHistory.record(Command.renameList(this.name, name));
+        }
         this.name = name;
-        EventLog.getInstance().logEvent(new Event("List name set to: " + name));
+        EventLog.getInstance().logEvent(EventOperation.LIST_RENAMED, null, null, name);
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.setName(name));
+        }
     }
 
     // EFFECT: return size of to-do list
@@ -44,110 +75,260 @@ public class ToDoList implements Writable {
     }
 
     // REQUIRES: task != null
-    // EFFECTS: adds task to to-do list if there is no task with the same name in to-do list. returns true if
-    //          successful, false otherwise
+    // EFFECTS: adds task to to-do list if there is no task with the same name in to-do list and task does not already
+    //          belong to a to-do list. returns true if successful, false otherwise
     public boolean addTask(Task task) {
-        if (containsTask(task.getName())) {
+        if (task.getOwner() != null || nameIndex.containsKey(task.getName())) {
             return false;
         }
-        tasks.add(task);
-        EventLog.getInstance().logEvent(new Event("Added task: " + task.getName()));
+        task.setOwner(this);
+        nameIndex.put(task.getName(), task);
+        indexAdded(task);
+        if (isKeptSorted()) {
+            int index = insertionPoint(task);
+            tasks.add(index, task);
+            renumberBetween(index, tasks.size() - 1);
+        } else {
+            task.setPosition(tasks.size());
+            tasks.add(task);
+        }
+        trackAdded(Collections.singletonList(task), task.getPosition() != tasks.size() - 1);
+        EventLog.getInstance().logEvent(EventOperation.TASK_ADDED, task.getName(), null, null);
+        Mutation record = recordAdded(Collections.singletonList(task));
+        if (record != null) {
+            mutationListener.mutated(record);
+        }
+        fireChange(ListChange.inserted(task.getPosition(), task.getPosition()));
         return true;
     }
 
+    // REQUIRES: batch != null and contains no null task
+    // MODIFIES: this
+    // EFFECTS: adds every task in batch, in order, that does not already belong to a to-do list and whose name is not
+    //          already used by a task in the to-do list or by an earlier task in batch. Logs a single event for the
+    //          whole batch. If tasks are being kept sorted, the to-do list is sorted once after all tasks are added.
+    //          Returns the number of tasks added.
+    public int addAllTasks(Collection<Task> batch) {
+        int sizeBefore = tasks.size();
+        tasks.ensureCapacity(sizeBefore + batch.size());
+        for (Task task : batch) {
+            if (task.getOwner() == null && nameIndex.putIfAbsent(task.getName(), task) == null) {
+                task.setOwner(this);
+                task.setPosition(tasks.size());
+                tasks.add(task);
+                indexAdded(task);
+            }
+        }
+        int added = tasks.size() - sizeBefore;
+        EventLog.getInstance().logEvent(EventOperation.TASKS_ADDED, null, null, added);
+        if (added > 0) {
+            tasksAppended(sizeBefore);
+        }
+        return added;
+    }
+
+    // REQUIRES: tasks have just been appended to the to-do list from index sizeBefore on
+    // MODIFIES: this
+    // EFFECTS: finishes adding the tasks appended from index sizeBefore on: records the change, re-sorts the to-do
+    //          list if tasks are being kept sorted, and tells the listeners
+    private void tasksAppended(int sizeBefore) {
+        List<Task> appended = tasks.subList(sizeBefore, tasks.size());
+        trackAdded(appended, false);
+        Mutation record = recordAdded(appended);
+        ListChange change = ListChange.inserted(sizeBefore, tasks.size() - 1);
+        if (isKeptSorted()) {
+            List<Task> added = changeListeners.isEmpty() ? null : new ArrayList<>(appended);
+            resort();
+            change = added == null ? null : ListChange.inserted(positionsOf(added));
+        }
+        if (record != null) {
+            mutationListener.mutated(record);
+        }
+        fireChange(change);
+    }
+
+    // REQUIRES: added have just been added to the to-do list, in order
+    // MODIFIES: this
+    // EFFECTS: records adding added for undo if changes are being recorded, and returns the change to tell the
+    //          mutation listener about, null if there is no listener
+    private Mutation recordAdded(List<Task> added) {
+        if (undoHistory != null) {
+            undoHistory.record(Command.addTasks(added));
+        }
+        return mutationListener == null ? null : Mutation.add(added);
+    }
+
     // REQUIRES: task != null
     // EFFECTS: remove task specified by task name from to-do list if to-do list is not empty and a task with
-    //          the same name exist inside the to-do list. returns ArrayList of integers
-    //          representing the index of tasks removed, if no task removed, return empty ArrayList
-    public ArrayList<Integer> removeTask(String taskName) {
-        if (isEmpty()) {
-            return new ArrayList<>();
+    //          the same name exist inside the to-do list. returns the indices of the tasks removed in ascending
+    //          order, if no task removed, return empty array
+    public int[] removeTask(String taskName) {
+        if (!nameIndex.containsKey(taskName)) {
+            return new int[0];
         }
-        ArrayList<Integer> indexArray = new ArrayList<>();
-        ArrayList<Task> taskToRemove = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.getName().equals(taskName)) {
-                indexArray.add(tasks.indexOf(t));
-                EventLog.getInstance().logEvent(new Event("Removed task: " + t.getName()));
-                taskToRemove.add(t);
-            }
+        if (shadowedTasks > 0) {
+            return removeTasksIf(t -> t.getName().equals(taskName), EventOperation.TASK_REMOVED, null);
+        }
+        Task t = nameIndex.get(taskName);
+        int index = t.getPosition();
+        tasks.remove(index);
+        detach(t);
+        EventLog.getInstance().logEvent(EventOperation.TASK_REMOVED, t.getName(), null, null);
+        renumberBetween(index, tasks.size() - 1);
+        int[] removed = {index};
+        if (undoHistory != null) {
+            undoHistory.record(Command.removeTasks(removed, Collections.singletonList(t)));
+        }
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.remove(removed));
         }
-        tasks.removeAll(taskToRemove);
-        return indexArray;
+        fireChange(ListChange.deleted(index, index));
+        return removed;
     }
 
-    // EFFECTS: remove all completed tasks from to-do list if list is not empty, returns ArrayList of integers
-    //          representing the index of tasks removed, if no task removed, return empty ArrayList
-    public ArrayList<Integer> removeAllCompletedTasks() {
-        if (isEmpty()) {
-            return new ArrayList<>();
+    // EFFECTS: remove all completed tasks from to-do list if list is not empty, returns the indices of the tasks
+    //          removed in ascending order, if no task removed, return empty array
+    public int[] removeAllCompletedTasks() {
+        return removeTasksIf(Task::isCompleted, EventOperation.COMPLETED_TASK_REMOVED,
+                EventOperation.COMPLETED_TASKS_REMOVED);
+    }
+
+    // EFFECTS: remove all overdue tasks from to-do list if list is not empty, returns the indices of the tasks
+    //          removed in ascending order, if no task removed, return empty array
+    public int[] removeAllOverdueTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        return removeTasksIf(t -> t.getDeadline().isBefore(now), EventOperation.OVERDUE_TASK_REMOVED,
+                EventOperation.OVERDUE_TASKS_REMOVED);
+    }
+
+    // REQUIRES: indices is in ascending order and every index in it is a valid index in to-do list
+    // MODIFIES: this
+    // EFFECTS: removes the tasks at the given indices, returns indices
+    int[] removeTasksAt(int[] indices) {
+        BitSet marked = new BitSet(tasks.size());
+        for (int i : indices) {
+            marked.set(i);
         }
-        ArrayList<Integer> indexArray = new ArrayList<>();
-        ArrayList<Task> taskToRemove = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.isCompleted()) {
-                indexArray.add(tasks.indexOf(t));
-                EventLog.getInstance().logEvent(new Event("Removed completed task: " + t.getName()));
-                taskToRemove.add(t);
+        return removeTasksIf(t -> marked.get(t.getPosition()), EventOperation.TASK_REMOVED, null);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every task matching shouldRemove in a single pass, moving each kept task down over the gaps
+    //          left by removed tasks and logging an itemOperation event for each removed task, then a
+    //          summaryOperation event with the number of tasks removed if summaryOperation is not null. Returns the
+    //          indices (before removal) of the tasks removed in ascending order.
+    private int[] removeTasksIf(Predicate<Task> shouldRemove, EventOperation itemOperation,
+                                EventOperation summaryOperation) {
+        EventLog log = EventLog.getInstance();
+        List<Task> removedTasks = undoHistory == null ? null : new ArrayList<>();
+        int[] removed = new int[0];
+        int removedCount = 0;
+        int kept = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+            Task t = tasks.get(i);
+            if (shouldRemove.test(t)) {
+                removed = append(removed, removedCount++, i);
+                detach(t);
+                log.logEvent(itemOperation, t.getName(), null, null);
+                if (removedTasks != null) {
+                    removedTasks.add(t);
+                }
+            } else {
+                tasks.set(kept, t);
+                t.setPosition(kept++);
             }
         }
-        tasks.removeAll(taskToRemove);
-        return indexArray;
+        tasks.subList(kept, tasks.size()).clear();
+        return tasksRemoved(Arrays.copyOf(removed, removedCount), removedTasks, summaryOperation);
     }
 
-    // EFFECTS: remove all overdue tasks from to-do list if list is not empty, returns ArrayList of integers
-    //          representing the index of tasks removed, if no task removed, return empty ArrayList
-    public ArrayList<Integer> removeAllOverdueTasks() {
-        if (isEmpty()) {
-            return new ArrayList<>();
-        }
-        ArrayList<Integer> indexArray = new ArrayList<>();
-        ArrayList<Task> taskToRemove = new ArrayList<>();
-        for (Task t : tasks) {
-            if (t.getDeadline().isBefore(LocalDateTime.now())) {
-                indexArray.add(tasks.indexOf(t));
-                EventLog.getInstance().logEvent(new Event("Removed overdue task: " + t.getName()));
-                taskToRemove.add(t);
+    // EFFECTS: sets array[count] to value, first copying array into a larger one if it is full; returns the array
+    //          holding value
+    private static int[] append(int[] array, int count, int value) {
+        int[] result = count < array.length ? array : Arrays.copyOf(array, Math.max(16, count * 2));
+        result[count] = value;
+        return result;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finishes removing removedTasks, which were at the indices in removed, if any: brings the name index up
+    //          to date, logs a summaryOperation event unless it is null, records the change for undo if removedTasks
+    //          is not null, and tells the mutation listener. Returns removed.
+    private int[] tasksRemoved(int[] removed, List<Task> removedTasks, EventOperation summaryOperation) {
+        if (removed.length > 0) {
+            if (shadowedTasks > 0) {
+                rebuildNameIndex();
+            }
+            if (summaryOperation != null) {
+                EventLog.getInstance().logEvent(summaryOperation, null, null, removed.length);
+            }
+            if (removedTasks != null) {
+                undoHistory.record(Command.removeTasks(removed, removedTasks));
             }
+            if (mutationListener != null) {
+                mutationListener.mutated(Mutation.remove(removed));
+            }
+            if (!changeListeners.isEmpty()) {
+                fireChange(ListChange.deleted(removed));
+            }
+        }
+        return removed;
+    }
+
+    // REQUIRES: t is in this to-do list
+    // MODIFIES: this, t
+    // EFFECTS: removes t from the name index and marks it as no longer belonging to this to-do list
+    private void detach(Task t) {
+        t.setOwner(null);
+        if (dirtyTracker != null) {
+            dirtyTracker.removed(t);
+        }
+        indexRemoved(t);
+        if (nameIndex.get(t.getName()) == t) {
+            nameIndex.remove(t.getName());
+        } else {
+            shadowedTasks--;
         }
-        tasks.removeAll(taskToRemove);
-        return indexArray;
     }
 
     // EFFECTS: removes all tasks from the to-do list
     public void removeAllTasks() {
+        int sizeBefore = tasks.size();
+        if (undoHistory != null && sizeBefore > 0) {
+            undoHistory.record(Command.removeTasks(IntStream.range(0, tasks.size()).toArray(), tasks));
+        }
+        for (Task t : tasks) {
+            t.setOwner(null);
+            if (dirtyTracker != null) {
+                dirtyTracker.removed(t);
+            }
+        }
         tasks.clear();
-        EventLog.getInstance().logEvent(new Event("Removed all tasks"));
+        nameIndex.clear();
+        shadowedTasks = 0;
+        queryIndex = null;
+        textIndex = null;
+        EventLog.getInstance().logEvent(EventOperation.ALL_TASKS_REMOVED, null, null, null);
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.clear());
+        }
+        if (sizeBefore > 0) {
+            fireChange(ListChange.deleted(0, sizeBefore - 1));
+        }
     }
 
     // REQUIRES: taskName != null
     // EFFECTS: returns true if task specified by name exists inside the to-do list, false if list is empty or task
     //          does not exist inside to-do list
     public boolean containsTask(String taskName) {
-        if (isEmpty()) {
-            return false;
-        }
-        for (Task t : tasks) {
-            if (t.getName().equals(taskName)) {
-                return true;
-            }
-        }
-        return false;
+        return nameIndex.containsKey(taskName);
     }
 
     // REQUIRES: taskName != null
     // EFFECTS: return task specified by task name from to-do list if list is not empty and a task with the same name
     //          exist inside the to-do list
     public Task getTask(String taskName) {
-        if (isEmpty()) {
-            return null;
-        }
-        for (Task t : tasks) {
-            if (t.getName().equals(taskName)) {
-                return t;
-            }
-        }
-        return null;
+        return nameIndex.get(taskName);
     }
 
     // REQUIRES: index != null
@@ -166,68 +347,561 @@ public class ToDoList implements Writable {
     // REQUIRES: taskName != null
     // EFFECTS: return index of task specified by task name from to do list, -1 if list is empty or not found
     public int getTaskIndex(String taskName) {
-        if (isEmpty()) {
+        Task t = nameIndex.get(taskName);
+        if (t == null) {
             return -1;
         }
-        for (Task t : tasks) {
-            if (t.getName().equals(taskName)) {
-                return tasks.indexOf(t);
+        return t.getPosition();
+    }
+
+    // REQUIRES: task != null
+    // EFFECTS: return index of task in to-do list, -1 if task is not in this to-do list
+    public int getTaskIndex(Task task) {
+        if (task.getOwner() != this) {
+            return -1;
+        }
+        return task.getPosition();
+    }
+
+    // REQUIRES: query != null
+    // MODIFIES: this
+    // EFFECTS: returns a lazily evaluated stream of the tasks matching query, in no particular order. The indexes
+    //          used to answer queries are built by the first query and kept up to date from then on. The stream must
+    //          be consumed before the to-do list or its tasks are next changed.
+    public Stream<Task> query(TaskQuery query) {
+        if (queryIndex == null) {
+            queryIndex = new QueryIndex();
+            for (Task t : tasks) {
+                queryIndex.add(t);
+            }
+        }
+        return queryIndex.select(query);
+    }
+
+    // REQUIRES: query != null
+    // MODIFIES: this
+    // EFFECTS: returns the tasks whose name or description contain the words of query, best match first. A word
+    //          ending in * matches every word starting with it, and case is ignored. If matchAll is true a task
+    //          must contain every word of query, otherwise any one of them. The index used to answer searches is
+    //          built by the first search or suggestion and kept up to date from then on.
+    public List<Task> search(String query, boolean matchAll) {
+        return getTextIndex().search(query, matchAll);
+    }
+
+    // REQUIRES: prefix != null, limit >= 0
+    // MODIFIES: this
+    // EFFECTS: returns up to limit words used in task names or descriptions that start with prefix, in alphabetical
+    //          order
+    public List<String> suggestWords(String prefix, int limit) {
+        return getTextIndex().suggest(prefix, limit);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the text index, building it first if there is none yet
+    private TextIndex getTextIndex() {
+        if (textIndex == null) {
+            textIndex = new TextIndex();
+            for (Task t : tasks) {
+                textIndex.add(t);
             }
         }
-        return -1;
+        return textIndex;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task to the indexes that have been built
+    private void indexAdded(Task task) {
+        if (queryIndex != null) {
+            queryIndex.add(task);
+        }
+        if (textIndex != null) {
+            textIndex.add(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from the indexes that have been built
+    private void indexRemoved(Task task) {
+        if (queryIndex != null) {
+            queryIndex.remove(task);
+        }
+        if (textIndex != null) {
+            textIndex.remove(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the indexes that have been built for the new values of task
+    private void indexChanged(Task task) {
+        if (queryIndex != null) {
+            queryIndex.update(task);
+        }
+        if (textIndex != null) {
+            textIndex.update(task);
+        }
     }
 
     // EFFECTS: sorts tasks in to-do list by their priority, descending order
     public void sortByPriority() {
-        tasks.sort(new PriorityComparator());
-        EventLog.getInstance().logEvent(new Event("Sorted tasks by priority"));
+        sortBy(SortOrder.PRIORITY);
     }
 
     // EFFECTS: sorts task in to-do list by their deadline, ascending order
     public void sortByDeadline() {
-        tasks.sort(new DeadlineComparator());
-        EventLog.getInstance().logEvent(new Event("Sorted tasks by deadline"));
+        sortBy(SortOrder.DEADLINE);
     }
 
     // EFFECTS: sorts task in to-do list by their name, ascending order
     public void sortByName() {
-        tasks.sort(new NameComparator());
-        EventLog.getInstance().logEvent(new Event("Sorted tasks by name"));
+        sortBy(SortOrder.NAME);
     }
 
     // EFFECTS: sorts task in to-do list first by their completion status, and then by deadline in ascending order
     public void sortByIsCompleted() {
-        tasks.sort(new IsCompleteComparator());
-        EventLog.getInstance().logEvent(new Event("Sorted tasks by completed status"));
+        sortBy(SortOrder.IS_COMPLETED);
+    }
+
+    // REQUIRES: order != null
+    // MODIFIES: this
+    // EFFECTS: stably sorts tasks in to-do list by order on all cores, and remembers order as the order to keep
+    //          tasks in
+    public void sortBy(SortOrder order) {
+        SortOrder oldOrder = activeOrder;
+        activeOrder = order;
+        TaskSorter.sort(tasks, order, order.getKeys());
+        int[] before = positionsBeforeReorder();
+        reindexAfterSort();
+        trackReordered();
+        EventLog.getInstance().logEvent(EventOperation.TASKS_SORTED, null, null, order.getLabel());
+        if (undoHistory != null) {
+            undoHistory.record(Command.sort(before, oldOrder, order));
+        }
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.sort(order));
+        }
+        fireChange(before == null ? null : ListChange.permuted(before));
+    }
+
+    // REQUIRES: activeOrder != null
+    // MODIFIES: this
+    // EFFECTS: re-sorts tasks by the active order. Sorting an ArrayList is close to linear when most tasks are
+    //          already in order, as they are when this is used. Returns positionsBeforeReorder().
+    private int[] resort() {
+        tasks.sort(activeOrder);
+        int[] before = positionsBeforeReorder();
+        reindexAfterSort();
+        trackReordered();
+        return before;
+    }
+
+    // REQUIRES: the tasks have just been reordered and their positions not yet updated
+    // EFFECTS: returns, for each index, the index the task now there was at before the tasks were reordered, if
+    //          changes are being recorded for undo or there are change listeners; null otherwise
+    private int[] positionsBeforeReorder() {
+        if (undoHistory == null && changeListeners.isEmpty()) {
+            return null;
+        }
+        int[] before = new int[tasks.size()];
+        for (int i = 0; i < before.length; i++) {
+            before[i] = tasks.get(i).getPosition();
+        }
+        return before;
+    }
+
+    public boolean isKeepSorted() {
+        return keepSorted;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: if keepSorted is true, tasks stay in the order of the most recent sort as they are added or modified,
+    //          and the to-do list is re-sorted once now in case that order was broken while it was off. Otherwise,
+    //          added tasks are appended to the end of the to-do list and modified tasks stay where they are.
+    public void setKeepSorted(boolean keepSorted) {
+        this.keepSorted = keepSorted;
+        int[] before = isKeptSorted() ? resort() : null;
+        EventLog.getInstance().logEvent(EventOperation.KEEP_SORTED_CHANGED, null, null,
+                keepSorted ? "on" : "off");
+        if (undoHistory != null) {
+            undoHistory.record(Command.keepSorted(keepSorted, before));
+        }
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.keepSorted(keepSorted));
+        }
+        fireChange(before == null ? null : ListChange.permuted(before));
+    }
+
+    // EFFECTS: returns true if tasks are currently being kept in the order of the most recent sort
+    private boolean isKeptSorted() {
+        return keepSorted && activeOrder != null;
+    }
+
+    // REQUIRES: isKeptSorted()
+    // EFFECTS: returns the index after the last task that comes before or ties with task in the active order
+    private int insertionPoint(Task task) {
+        int low = 0;
+        int high = tasks.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (activeOrder.compare(tasks.get(mid), task) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // REQUIRES: task is in this to-do list, and field of task has just changed from oldValue to newValue
+    // MODIFIES: this
+    // EFFECTS: updates the indexes for the new values of task. If tasks are being kept sorted and task is now
+    //          out of order, moves task to where it belongs.
+    void taskChanged(Task task, EventOperation field, Object oldValue, Object newValue) {
+        indexChanged(task);
+        int from = task.getPosition();
+        if (isKeptSorted() && !isInOrder(from)) {
+            tasks.remove(from);
+            int to = insertionPoint(task);
+            tasks.add(to, task);
+            renumberBetween(Math.min(from, to), Math.max(from, to));
+            if (shadowedTasks > 0) {
+                rebuildNameIndex();
+            }
+            trackReordered();
+        }
+        if (dirtyTracker != null) {
+            dirtyTracker.changed(task);
+        }
+        if (undoHistory != null) {
+            undoHistory.record(Command.editTask(task, field, oldValue, newValue));
+        }
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.modify(from, task));
+        }
+        fireChange(ListChange.moved(from, task.getPosition()));
+    }
+
+    // REQUIRES: isKeptSorted()
+    // EFFECTS: returns true if the task at index is not out of order with its neighbours
+    private boolean isInOrder(int index) {
+        Task t = tasks.get(index);
+        return (index == 0 || activeOrder.compare(tasks.get(index - 1), t) <= 0)
+                && (index == tasks.size() - 1 || activeOrder.compare(t, tasks.get(index + 1)) <= 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: brings task positions up to date after the order of tasks has changed. If there are tasks sharing a
+    //          name, the name index is rebuilt so that it still refers to the first of them.
+    private void reindexAfterSort() {
+        renumberBetween(0, tasks.size() - 1);
+        if (shadowedTasks > 0) {
+            rebuildNameIndex();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the position of every task from index start to index end inclusive to its index in the to-do list
+    private void renumberBetween(int start, int end) {
+        for (int i = start; i <= end; i++) {
+            tasks.get(i).setPosition(i);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rebuilds the name index from scratch, mapping every name to the first task having that name
+    private void rebuildNameIndex() {
+        nameIndex.clear();
+        shadowedTasks = 0;
+        for (Task t : tasks) {
+            if (nameIndex.putIfAbsent(t.getName(), t) != null) {
+                shadowedTasks++;
+            }
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: runs edit, which changes fields of task and tells this to-do list, and returns true if task belongs to
+    //          this to-do list; returns false without running edit otherwise
+    boolean editTask(Task task, Runnable edit) {
+        if (task.getOwner() != this) {
+            return false;
+        }
+        edit.run();
+        return true;
+    }
+
+    // REQUIRES: task is in this to-do list and task.getName() has already been changed from oldName
+    // MODIFIES: this
+    // EFFECTS: updates the name index after task was renamed from oldName
+    void taskRenamed(Task task, String oldName) {
+        if (nameIndex.get(oldName) == task) {
+            nameIndex.remove(oldName);
+            if (shadowedTasks > 0 && indexFirstTaskNamed(oldName)) {
+                shadowedTasks--;
+            }
+        } else {
+            shadowedTasks--;
+        }
+        Task existing = nameIndex.get(task.getName());
+        if (existing == null) {
+            nameIndex.put(task.getName(), task);
+        } else {
+            shadowedTasks++;
+            if (task.getPosition() < existing.getPosition()) {
+                nameIndex.put(task.getName(), task);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the first task named taskName, returns true if there is one, false otherwise
+    private boolean indexFirstTaskNamed(String taskName) {
+        for (Task t : tasks) {
+            if (t.getName().equals(taskName)) {
+                nameIndex.put(taskName, t);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the listener told about every later change to the to-do list, null for none
+    public void setMutationListener(MutationListener listener) {
+        mutationListener = listener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds listener to those told which rows each later operation on the to-do list changes
+    public void addChangeListener(ListChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops telling listener about later operations on the to-do list
+    public void removeChangeListener(ListChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    // EFFECTS: tells every change listener about change, unless it is null
+    void fireChange(ListChange change) {
+        if (change != null) {
+            for (ListChangeListener listener : changeListeners) {
+                listener.listChanged(change);
+            }
+        }
+    }
+
+    // EFFECTS: returns the indices of tasks in the to-do list they belong to, in ascending order
+    static int[] positionsOf(List<Task> tasks) {
+        int[] positions = new int[tasks.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = tasks.get(i).getPosition();
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the history recording later changes to the to-do list for undo, null for none
+    void setUndoHistory(UndoHistory history) {
+        undoHistory = history;
+    }
+
+    // EFFECTS: returns the tracker recording changes to the to-do list since it was last saved, null if none
+    public DirtyTracker getDirtyTracker() {
+        return dirtyTracker;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets the tracker recording later changes to the to-do list until it is next saved, null for none
+    void setDirtyTracker(DirtyTracker tracker) {
+        dirtyTracker = tracker;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells the dirty tracker, if any, that added have been added, and that tasks changed order if
+    //          reordered is true
+    private void trackAdded(List<Task> added, boolean reordered) {
+        if (dirtyTracker != null) {
+            for (Task t : added) {
+                dirtyTracker.added(t);
+            }
+            if (reordered) {
+                dirtyTracker.reordered();
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: tells the dirty tracker, if any, that tasks changed order
+    private void trackReordered() {
+        if (dirtyTracker != null) {
+            dirtyTracker.reordered();
+        }
+    }
+
+    // EFFECTS: returns a change that, when applied to any to-do list, makes it a copy of this to-do list as it is now
+    public Mutation checkpoint() {
+        return Mutation.restore(name, tasks, activeOrder, keepSorted);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces every task in the to-do list by restored, in order, including tasks sharing a name. Names the
+    //          to-do list listName, remembers order as the order of the most recent sort without sorting, and keeps
+    //          tasks sorted if keepSorted is true.
+    void restore(String listName, List<Task> restored, SortOrder order, boolean keepSorted) {
+        adopt(restored);
+        name = listName;
+        activeOrder = order;
+        this.keepSorted = keepSorted;
+        if (dirtyTracker != null) {
+            dirtyTracker.replaced();
+        }
+        EventLog.getInstance().logEvent(EventOperation.LIST_RESTORED, null, null, tasks.size());
+        if (undoHistory != null) {
+            undoHistory.clear();
+        }
+        if (mutationListener != null) {
+            mutationListener.mutated(checkpoint());
+        }
+        fireChange(ListChange.replaced());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes restored, in order, the tasks of the to-do list, and rebuilds the name index and drops the
+    //          other indexes to match. Nothing is logged, recorded for undo or told to listeners.
+    void adopt(List<Task> restored) {
+        for (Task t : tasks) {
+            t.setOwner(null);
+        }
+        tasks = new ArrayList<>(restored);
+        for (Task t : tasks) {
+            t.setOwner(this);
+        }
+        queryIndex = null;
+        textIndex = null;
+        renumberBetween(0, tasks.size() - 1);
+        rebuildNameIndex();
+    }
+
+    // REQUIRES: indices is in ascending order and has the same length as inserted, each index in it is at most the
+    //           number of tasks before it once they are inserted, and no task of inserted belongs to a to-do list
+    // MODIFIES: this
+    // EFFECTS: inserts each task of inserted so that it ends up at the matching index in indices, including tasks
+    //          sharing a name with others. Used to put back removed tasks, so it is not recorded for undo.
+    void insertTasksAt(int[] indices, List<Task> inserted) {
+        tasks = mergedWith(indices, inserted);
+        boolean shadowing = false;
+        for (Task t : inserted) {
+            t.setOwner(this);
+            indexAdded(t);
+            shadowing |= nameIndex.putIfAbsent(t.getName(), t) != null;
+        }
+        renumberBetween(indices.length == 0 ? 0 : indices[0], tasks.size() - 1);
+        if (shadowing || shadowedTasks > 0) {
+            rebuildNameIndex();
+        }
+        trackAdded(inserted, indices.length > 0 && indices[0] < tasks.size() - inserted.size());
+        EventLog.getInstance().logEvent(EventOperation.TASKS_INSERTED, null, null, inserted.size());
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.insert(indices, inserted));
+        }
+        if (!changeListeners.isEmpty()) {
+            fireChange(ListChange.inserted(indices));
+        }
+    }
+
+    // REQUIRES: indices and inserted are as for insertTasksAt
+    // EFFECTS: returns the tasks of the to-do list with each task of inserted put at the matching index in indices
+    private ArrayList<Task> mergedWith(int[] indices, List<Task> inserted) {
+        ArrayList<Task> merged = new ArrayList<>(tasks.size() + inserted.size());
+        int next = 0;
+        for (int k = 0; k < indices.length; k++) {
+            while (merged.size() < indices[k]) {
+                merged.add(tasks.get(next++));
+            }
+            merged.add(inserted.get(k));
+        }
+        merged.addAll(tasks.subList(next, tasks.size()));
+        return merged;
+    }
+
+    // REQUIRES: positions holds each index of the to-do list once
+    // MODIFIES: this
+    // EFFECTS: moves the task at each index i to index positions[i], and remembers order as the order of the most
+    //          recent sort without sorting. Used to undo sorts, so it is not recorded for undo.
+    void reorder(int[] positions, SortOrder order) {
+        Task[] moved = new Task[tasks.size()];
+        for (int i = 0; i < moved.length; i++) {
+            moved[positions[i]] = tasks.get(i);
+        }
+        for (int i = 0; i < moved.length; i++) {
+            tasks.set(i, moved[i]);
+        }
+        activeOrder = order;
+        reindexAfterSort();
+        trackReordered();
+        EventLog.getInstance().logEvent(EventOperation.TASKS_REORDERED, null, null, null);
+        if (mutationListener != null) {
+            mutationListener.mutated(Mutation.reorder(positions, order));
+        }
+        if (!changeListeners.isEmpty()) {
+            int[] before = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                before[positions[i]] = i;
+            }
+            fireChange(ListChange.permuted(before));
+        }
+    }
+
+    // EFFECTS: returns an iterator over the tasks in to-do list, in order. The iterator does not support remove.
+    @Override
+    public Iterator<Task> iterator() {
+        return Collections.unmodifiableList(tasks).iterator();
     }
 
     // EFFECTS: returns a string representation of the to-do list
     public String toString() {
-        if (tasks.isEmpty()) {
+        StringBuilder toStringBuilder = new StringBuilder();
+        for (Task t : this) {
+            toStringBuilder.append(t.toString());
+            toStringBuilder.append("\n");
+        }
+        if (toStringBuilder.length() == 0) {
             return "To-Do List is empty";
-        } else {
-            StringBuilder toStringBuilder = new StringBuilder();
-            for (Task t : tasks) {
-                toStringBuilder.append(t.toString());
-                toStringBuilder.append("\n");
-            }
-            return toStringBuilder.toString();
         }
+        return toStringBuilder.toString();
     }
 
     @Override
     public JSONObject toJson() {
+        return toJson(getName(), this);
+    }
+
+    // EFFECTS: returns a JSON object of a to-do list named listName holding taskList
+    JSONObject toJson(String listName, Iterable<Task> taskList) {
         JSONObject json = new JSONObject();
-        json.put("listName", getName());
-        json.put("tasks", tasksToJson());
-        EventLog.getInstance().logEvent(new Event("To-do list saved"));
+        json.put("listName", listName);
+        json.put("tasks", tasksToJson(taskList));
+        EventLog.getInstance().logEvent(EventOperation.LIST_SAVED, null, null, null);
         return json;
     }
 
-    // EFFECTS: returns tasks in this to-do list as a JSON array
-    private JSONArray tasksToJson() {
+    // EFFECTS: hands the name of the to-do list and its tasks, in order, to saver and logs that the list was saved
+    public void saveWith(ListSaver saver) throws IOException {
+        saveWith(getName(), this, saver);
+    }
+
+    // EFFECTS: hands listName and taskList to saver and logs that the list was saved
+    void saveWith(String listName, Iterable<Task> taskList, ListSaver saver) throws IOException {
+        saver.save(listName, taskList);
+        EventLog.getInstance().logEvent(EventOperation.LIST_SAVED, null, null, null);
+    }
+
+    // EFFECTS: returns taskList as a JSON array
+    private JSONArray tasksToJson(Iterable<Task> taskList) {
         JSONArray jsonArray = new JSONArray();
-        for (Task t : tasks) {
+        for (Task t : taskList) {
             jsonArray.put(t.toJson());
         }
 
@@ -0,0 +1,152 @@
+package model;
+
+import java.util.ArrayDeque;
+
+// Represents the changes made to a to-do list that can be undone, and the changes undone that can be redone. Each
+// change is kept as a command holding only what it altered. Once the commands kept take more than the memory budget,
+// the oldest changes can no longer be undone. Undoing or redoing is done through the usual operations of the to-do
+// list, so its listeners see them as ordinary changes. A history must only be used from the thread changing its to-do
+// list.
+public class UndoHistory {
+    public static final long DEFAULT_BUDGET = 8L * 1024 * 1024;    // bytes
+
+    private final ToDoList list;
+    private final ArrayDeque<Command> undoable;     // most recent change first
+    private final ArrayDeque<Command> redoable;     // most recently undone change first
+    private long budget;
+    private long used;          // bytes taken by the commands in undoable and redoable
+    private boolean replaying;  // true while a change is being undone or redone
+
+    // REQUIRES: budget > 0
+    // MODIFIES: list
+    // EFFECTS: starts recording every later change to list, keeping commands taking up to about budget bytes
+    public UndoHistory(ToDoList list, long budget) {
+        this.list = list;
+        this.budget = budget;
+        undoable = new ArrayDeque<>();
+        redoable = new ArrayDeque<>();
+        list.setUndoHistory(this);
+    }
+
+    // MODIFIES: list
+    // EFFECTS: starts recording every later change to list, keeping commands taking up to DEFAULT_BUDGET bytes
+    public UndoHistory(ToDoList list) {
+        this(list, DEFAULT_BUDGET);
+    }
+
+    public boolean canUndo() {
+        return !undoable.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoable.isEmpty();
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    // EFFECTS: returns roughly how many bytes the changes kept take
+    public long getMemoryUsed() {
+        return used;
+    }
+
+    // EFFECTS: returns how many changes can be undone
+    public int getUndoCount() {
+        return undoable.size();
+    }
+
+    // REQUIRES: budget > 0
+    // MODIFIES: this
+    // EFFECTS: sets how many bytes the changes kept may take, forgetting the oldest changes if they take more
+    public void setBudget(long budget) {
+        this.budget = budget;
+        trim();
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: if there is a change to undo, undoes the most recent one and returns true; otherwise returns false.
+    //          An undone change can take more memory than before, so the oldest changes may be forgotten.
+    public boolean undo() {
+        Command c = undoable.poll();
+        if (c == null) {
+            return false;
+        }
+        used -= c.size();
+        replay(() -> c.undo(list));
+        redoable.push(c);
+        used += c.size();
+        trim();
+        return true;
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: if there is an undone change to redo, redoes the most recently undone one and returns true;
+    //          otherwise returns false
+    public boolean redo() {
+        Command c = redoable.poll();
+        if (c == null) {
+            return false;
+        }
+        used -= c.size();
+        replay(() -> c.redo(list));
+        undoable.push(c);
+        used += c.size();
+        trim();
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets every change kept
+    public void clear() {
+        undoable.clear();
+        redoable.clear();
+        used = 0;
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: stops recording changes to list and forgets every change kept
+    public void detach() {
+        list.setUndoHistory(null);
+        clear();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records c as the most recent change, unless it was made by undoing or redoing. A new change cannot be
+    //          followed by redoing changes undone before it, so those are forgotten.
+    void record(Command c) {
+        if (replaying) {
+            return;
+        }
+        for (Command undone : redoable) {
+            used -= undone.size();
+        }
+        redoable.clear();
+        undoable.push(c);
+        used += c.size();
+        trim();
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: runs change without recording the changes it makes to list
+    private void replay(Runnable change) {
+        replaying = true;
+        try {
+            change.run();
+        } finally {
+            replaying = false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the oldest changes to undo while the changes kept take more than the budget, then the changes
+    //          to redo last if that is not enough
+    private void trim() {
+        while (used > budget && !undoable.isEmpty()) {
+            used -= undoable.removeLast().size();
+        }
+        while (used > budget && !redoable.isEmpty()) {
+            used -= redoable.removeLast().size();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package persistence;
+
+import model.Event;
+import model.EventSink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Represents a sink that appends logged events to files in a directory from a background thread. Events are queued
+// in a bounded queue; when it is full, the logging thread waits for the writer to catch up. The writer takes
+// every event queued so far as one batch, writes it, and forces it to disk once for the whole batch. When the
+// current file grows past a size limit, the writer moves on to the next file, events-<n>.log. In binary mode events
+// are written with EventEncoder to events-<n>.bin instead, and each file holds one stream of its own, so a new
+// sink always starts a new file.
+public class AsyncEventFileSink implements EventSink, Closeable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    public static final long DEFAULT_MAX_FILE_BYTES = 4L << 20;
+    private static final int MAX_BATCH = 1024;
+    private static final String PREFIX = "events-";
+    private static final String SUFFIX = ".log";
+    private static final String BINARY_SUFFIX = ".bin";
+    private static final Event STOP = new Event("");
+    private static final long OFFER_WAIT_MILLIS = 100;     // how often a full queue is checked for a stopped writer
+
+    private final Path directory;
+    private final String suffix;
+    private final EventEncoder encoder;     // null when writing text
+    private final long maxFileBytes;
+    private final BlockingQueue<Event> queue;
+    private final Thread writerThread;
+    private final Object progress = new Object();
+    private long queued;
+    private long written;
+    private volatile boolean closed;
+    private volatile IOException failure;
+    private FileChannel channel;
+    private int fileNumber;
+
+    // EFFECTS: constructs sink writing to files in directory with the default queue capacity and file size
+    public AsyncEventFileSink(String directory) throws IOException {
+        this(directory, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_FILE_BYTES);
+    }
+
+    // REQUIRES: queueCapacity > 0, maxFileBytes > 0
+    // EFFECTS: constructs sink writing to files in directory, creating it if needed, appending to the newest
+    //          existing events file and starting the writer thread; throws IOException if directory or the
+    //          file cannot be opened
+    public AsyncEventFileSink(String directory, int queueCapacity, long maxFileBytes) throws IOException {
+        this(directory, queueCapacity, maxFileBytes, false);
+    }
+
+    // REQUIRES: queueCapacity > 0, maxFileBytes > 0
+    // EFFECTS: constructs sink writing to files in directory, creating it if needed, in binary if binary is true and
+    //          as text otherwise, and starts the writer thread; throws IOException if directory or the file cannot
+    //          be opened
+    public AsyncEventFileSink(String directory, int queueCapacity, long maxFileBytes, boolean binary)
+            throws IOException {
+        this.directory = Paths.get(directory);
+        this.maxFileBytes = maxFileBytes;
+        suffix = binary ? BINARY_SUFFIX : SUFFIX;
+        encoder = binary ? new EventEncoder() : null;
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(this.directory);
+        fileNumber = newestFileNumber();
+        if (binary && Files.exists(getCurrentFile())) {
+            fileNumber++;
+        }
+        channel = open(fileNumber);
+        writerThread = new Thread(this::drain, "event-sink");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues e to be written, waiting while the queue is full; drops e if the sink is closed, the writer
+    //          has stopped because writing failed, or the calling thread is interrupted while waiting
+    @Override
+    public void accept(Event e) {
+        if (closed || !isWriting()) {
+            return;
+        }
+        synchronized (progress) {
+            queued++;
+        }
+        try {
+            if (!offerWhileWriting(e)) {
+                unqueue();
+            }
+        } catch (InterruptedException ex) {
+            unqueue();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // EFFECTS: returns true if the writer thread is still taking events off the queue
+    private boolean isWriting() {
+        return failure == null && writerThread.isAlive();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: queues e, waiting while the queue is full for as long as the writer is still taking events off it;
+    //          returns true if e was queued and false if the writer stopped first
+    private boolean offerWhileWriting(Event e) throws InterruptedException {
+        while (!queue.offer(e, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (!isWriting()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes back the count of an event that was accepted but not queued
+    private void unqueue() {
+        synchronized (progress) {
+            queued--;
+            progress.notifyAll();
+        }
+    }
+
+    // EFFECTS: waits until every event accepted before this call is forced to disk; throws IOException if the
+    //          writer failed
+    public void flush() throws IOException {
+        synchronized (progress) {
+            long target = queued;
+            while (written < target && failure == null && writerThread.isAlive()) {
+                try {
+                    progress.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes every accepted event, stops the writer thread and closes the current file. Does not wait for a
+    //          writer that has already stopped because writing failed.
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            if (offerWhileWriting(STOP)) {
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: returns the path of the file events are being appended to
+    public Path getCurrentFile() {
+        return directory.resolve(PREFIX + fileNumber + suffix);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes queued events in batches until the stop marker queued by close is taken or writing fails
+    private void drain() {
+        List<Event> batch = new ArrayList<>(MAX_BATCH);
+        boolean stopping = false;
+        try {
+            while (!stopping) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                stopping = batch.removeIf(e -> e == STOP);
+                writeBatch(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // nothing more will be written
+        } catch (IOException e) {
+            failure = e;
+        }
+        synchronized (progress) {
+            progress.notifyAll();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends batch to the current file, moving to the next file first if it is full, and forces the
+    //          file to disk once
+    private void writeBatch(List<Event> batch) throws IOException {
+        ByteBuffer bytes = encode(batch);
+        if (channel.size() > 0 && channel.size() + bytes.remaining() > maxFileBytes) {
+            channel.close();
+            fileNumber++;
+            channel = open(fileNumber);
+            if (encoder != null) {
+                encoder.reset();
+                bytes = encode(batch);
+            }
+        }
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        channel.force(false);
+        synchronized (progress) {
+            written += batch.size();
+            progress.notifyAll();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the bytes to write for batch
+    private ByteBuffer encode(List<Event> batch) {
+        if (encoder != null) {
+            for (Event e : batch) {
+                encoder.encode(e);
+            }
+            return encoder.take();
+        }
+        StringBuilder sb = new StringBuilder(batch.size() * 64);
+        for (Event e : batch) {
+            sb.append(e.getInstant()).append('\t').append(escape(e.getDescription())).append('\n');
+        }
+        return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    // EFFECTS: returns text with backslashes, newlines and tabs escaped so each event stays on one line
+    static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\n", "\\n").replace("\t", "\\t");
+    }
+
+    // EFFECTS: returns the number of the newest events file in directory, or 0 if there is none
+    private int newestFileNumber() throws IOException {
+        int newest = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + suffix)) {
+            for (Path p : files) {
+                String name = p.getFileName().toString();
+                try {
+                    newest = Math.max(newest, Integer.parseInt(
+                            name.substring(PREFIX.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return newest;
+    }
+
+    // EFFECTS: opens events file number n for appending, creating it if needed
+    private FileChannel open(int n) throws IOException {
+        return FileChannel.open(directory.resolve(PREFIX + n + suffix),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
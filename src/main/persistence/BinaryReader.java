@@ -0,0 +1,177 @@
+package persistence;
+
+import model.LazyToDoList;
+import model.Task;
+import model.TaskSource;
+import model.ToDoList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Represents a reader that reads a to-do list from a file written by BinaryWriter. Opening the file maps it into
+// memory and checks its header, which takes the same time however many tasks it holds; each task is decoded from
+// its record only when it is read. A reader is not safe for use by several threads at once.
+public class BinaryReader implements TaskSource {
+    private final String source;
+    private ByteBuffer file;        // the mapped file, null until opened
+    private ByteBuffer cursor;      // view of file positioned to read strings
+    private int taskCount;
+    private int recordSize;
+    private int stringTable;        // offset in file of the string table
+    private String listName;
+    private byte[] scratch;
+
+    // EFFECTS: constructs reader to read from source file
+    public BinaryReader(String source) {
+        this.source = source;
+        scratch = new byte[64];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads ToDoList from file and returns it; throws IOException if an error occurs reading data from file
+    //          or it is not a to-do list in binary format
+    public ToDoList read() throws IOException {
+        open();
+        ArrayList<Task> batch = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            batch.add(readTask(i));
+        }
+        ToDoList list = new ToDoList(listName);
+        list.addAllTasks(batch);
+        return list;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads ToDoList from file and returns it, decoding each task only when it is asked for by index. This
+    //          takes the same time however many tasks there are, as the records are already an index of the tasks.
+    //          Throws IOException if an error occurs reading data from file or it is not a to-do list in binary
+    //          format.
+    public ToDoList readLazily() throws IOException {
+        open();
+        return new LazyToDoList(listName, this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps file into memory and reads its header, if not already done; throws IOException if an error
+    //          occurs reading data from file or it is not a to-do list in a version of binary format this reader
+    //          knows
+    public void open() throws IOException {
+        if (file != null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Not a to-do list in binary format: " + source);
+            }
+            readHeader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: checks the header of mapped and remembers what it describes; throws IOException if it is not the
+    //          header of a to-do list in binary format version BinaryWriter.VERSION
+    private void readHeader(ByteBuffer mapped) throws IOException {
+        boolean valid = mapped.remaining() >= BinaryWriter.HEADER_SIZE;
+        for (int i = 0; valid && i < BinaryWriter.MAGIC.length; i++) {
+            valid = mapped.get() == BinaryWriter.MAGIC[i];
+        }
+        if (!valid || mapped.getInt() != BinaryWriter.VERSION) {
+            throw new IOException("Not a to-do list in binary format version " + BinaryWriter.VERSION + ": " + source);
+        }
+        taskCount = mapped.getInt();
+        recordSize = mapped.getInt();
+        stringTable = mapped.getInt();
+        int nameLength = mapped.getInt();
+        if (taskCount < 0 || recordSize < BinaryWriter.RECORD_SIZE || nameLength < 0
+                || stringTable != BinaryWriter.HEADER_SIZE + (long) taskCount * recordSize
+                || (long) stringTable + nameLength > mapped.limit()) {
+            throw new IOException("Damaged to-do list in binary format: " + source);
+        }
+        file = mapped;
+        cursor = mapped.duplicate();
+        listName = readString(stringTable, nameLength);
+    }
+
+    // REQUIRES: open() has been called
+    public String getListName() {
+        return listName;
+    }
+
+    // REQUIRES: open() has been called
+    // EFFECTS: returns the number of tasks in the file
+    @Override
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    // REQUIRES: open() has been called and 0 <= index < getTaskCount()
+    // MODIFIES: this
+    // EFFECTS: decodes the task at index from its record and returns it; throws IndexOutOfBoundsException if the
+    //          record refers to strings past the end of the file
+    @Override
+    public Task readTask(int index) {
+        int record = BinaryWriter.HEADER_SIZE + index * recordSize;
+        long minutes = file.getLong(record);
+        int offset = stringTable + file.getInt(record + 8);
+        int nameLength = file.getInt(record + 12);
+        int descriptionLength = file.getInt(record + 16);
+        int flags = file.get(record + 20);
+        String name = readString(offset, nameLength);
+        String description = readString(offset + nameLength, descriptionLength);
+        return new Task(name, description, toDeadline(minutes), flags >> 1, (flags & 1) != 0);
+    }
+
+    // REQUIRES: open() has been called
+    // EFFECTS: returns the tasks of the file in order, each decoded as it is reached
+    public Iterable<Task> tasks() {
+        return () -> new Iterator<Task>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < taskCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readTask(next++);
+            }
+        };
+    }
+
+    // EFFECTS: returns the deadline that is minutes whole minutes after 1970-01-01T00:00, or LocalDateTime.MAX if
+    //          minutes is BinaryWriter.NO_DEADLINE
+    static LocalDateTime toDeadline(long minutes) {
+        if (minutes == BinaryWriter.NO_DEADLINE) {
+            return LocalDateTime.MAX;
+        }
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the length bytes of UTF-8 at offset in file and returns them as a string; throws
+    //          IndexOutOfBoundsException if they are not all in the file
+    private String readString(int offset, int length) {
+        if (offset < 0 || length < 0 || (long) offset + length > file.limit()) {
+            throw new IndexOutOfBoundsException("String outside the file: " + source);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        cursor.position(offset);
+        cursor.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,180 @@
+package persistence;
+
+import model.Task;
+import model.ToDoList;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+// Represents a writer that writes a to-do list to file in a compact binary format, read back by BinaryReader. The
+// file starts with a header: the magic bytes T D L B, then as ints the format VERSION, the number of tasks, the
+// size of a task record, the offset of the string table and the length of the list name. One fixed-width record
+// per task follows: the deadline in minutes since 1970-01-01T00:00 as a long (NO_DEADLINE if there is none), then as
+// ints the offset in the string table of the name, whose description follows right after it, the length of the name
+// and the length of the description, then a byte holding the priority shifted left by one and the completed bit.
+// The string table at the end holds the list name followed by the names and descriptions, all in UTF-8. The file is
+// written to a temporary file that is moved over the destination file on close unless the save failed, as JsonWriter
+// does.
+public class BinaryWriter implements ListSaver {
+    static final byte[] MAGIC = {'T', 'D', 'L', 'B'};
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int RECORD_SIZE = 24;
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] PADDING = new byte[RECORD_SIZE - 21];     // after the 21 bytes of fields
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final String destination;
+    private final ByteBuffer records;
+    private final ByteBuffer strings;
+    private FileChannel channel;
+    private boolean saved;
+    private long recordsPosition;   // position in file where records is written next
+    private long stringsPosition;   // position in file where strings is written next
+
+    // EFFECTS: constructs writer to write to destination file
+    public BinaryWriter(String destination) {
+        this.destination = destination;
+        records = ByteBuffer.allocate(BUFFER_SIZE);
+        strings = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot be opened for writing
+    public void open() throws FileNotFoundException {
+        try {
+            channel = FileChannel.open(Paths.get(destination + TEMP_SUFFIX), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            saved = true;
+        } catch (IOException | InvalidPathException e) {
+            throw new FileNotFoundException(destination + " (" + e.getMessage() + ")");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes list to file; throws IOException if it cannot be written
+    public void write(ToDoList list) throws IOException {
+        list.saveWith(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer and moves what it wrote over destination file, or deletes what it wrote and leaves
+    //          destination file as it was if a save was started and did not finish; throws IOException if the file
+    //          cannot be closed, moved or deleted
+    public void close() throws IOException {
+        channel.close();
+        Path temp = Paths.get(destination + TEMP_SUFFIX);
+        if (saved) {
+            Files.move(temp, Paths.get(destination), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(temp);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes a to-do list named listName holding tasks to file; throws IOException if it cannot be written
+    //          or is too large for the format
+    @Override
+    public void save(String listName, Iterable<Task> tasks) throws IOException {
+        saved = false;
+        int count = 0;
+        for (Task ignored : tasks) {
+            count++;
+        }
+        long stringTable = HEADER_SIZE + (long) count * RECORD_SIZE;
+        byte[] name = listName.getBytes(StandardCharsets.UTF_8);
+        checkSize(stringTable + name.length);
+        writeHeader(count, (int) stringTable, name.length);
+        records.clear();
+        strings.clear();
+        recordsPosition = HEADER_SIZE;
+        stringsPosition = stringTable;
+        putString(name);
+        for (Task t : tasks) {
+            writeTask(t, stringTable);
+        }
+        flush(records, recordsPosition);
+        channel.truncate(flush(strings, stringsPosition));
+        saved = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the header of a file holding count tasks whose string table starts at stringTable and holds a
+    //          list name nameLength bytes long
+    private void writeHeader(int count, int stringTable, int nameLength) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.put(MAGIC).putInt(VERSION).putInt(count).putInt(RECORD_SIZE).putInt(stringTable).putInt(nameLength);
+        flush(header, 0);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record of task and adds its name and description to the string table starting at
+    //          stringTable
+    private void writeTask(Task task, long stringTable) throws IOException {
+        byte[] name = task.getName().getBytes(StandardCharsets.UTF_8);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        long offset = stringsPosition + strings.position() - stringTable;
+        checkSize(stringTable + offset + name.length + description.length);
+        if (records.remaining() < RECORD_SIZE) {
+            recordsPosition = flush(records, recordsPosition);
+        }
+        records.putLong(toMinutes(task.getDeadline())).putInt((int) offset).putInt(name.length)
+                .putInt(description.length).put((byte) (task.getPriority() << 1 | (task.isCompleted() ? 1 : 0)))
+                .put(PADDING);
+        putString(name);
+        putString(description);
+    }
+
+    // EFFECTS: returns deadline in whole minutes since 1970-01-01T00:00, or NO_DEADLINE if it is LocalDateTime.MAX
+    static long toMinutes(LocalDateTime deadline) {
+        if (deadline.equals(LocalDateTime.MAX)) {
+            return NO_DEADLINE;
+        }
+        return Math.floorDiv(deadline.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds bytes to the string table
+    private void putString(byte[] bytes) throws IOException {
+        for (int written = 0; written < bytes.length; ) {
+            if (!strings.hasRemaining()) {
+                stringsPosition = flush(strings, stringsPosition);
+            }
+            int length = Math.min(strings.remaining(), bytes.length - written);
+            strings.put(bytes, written, length);
+            written += length;
+        }
+    }
+
+    // EFFECTS: throws IOException if a file of size bytes is too large for the format to address
+    private static void checkSize(long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("To-do list is too large for binary format version " + VERSION);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes everything in buffer to file at position, empties buffer and returns the position just past
+    //          what was written
+    private long flush(ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+}
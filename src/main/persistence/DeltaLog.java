@@ -0,0 +1,499 @@
+package persistence;
+
+import model.DirtyTracker;
+import model.Task;
+import model.ToDoList;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Represents a to-do list saved as a base file, written by JsonWriter, plus a log of the changes saved since, kept
+// next to it with ".delta" added to its name. A save appends one line of JSON to the log holding only the tasks
+// added, modified or removed since the last save, as recorded by the DirtyTracker of the to-do list, so its cost
+// grows with the amount of change and not with the size of the to-do list. Tasks are told apart by the ids the
+// tracker gives them. Once the changes in the log pass a size threshold, a background thread merges them into a new
+// base file while saves go on, and starts a new log. The first line of a log records the size and time last modified
+// of the base file it applies to, so a log left behind by a crash while the base file is replaced, or by a base file
+// written some other way, is ignored; a change cut short by a crash at the end of the log is ignored too.
+public class DeltaLog implements Closeable {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1L << 20;  // bytes
+    private static final String LOG_SUFFIX = ".delta";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String COMPACTED_SUFFIX = ".compacted";
+
+    private final Path base;
+    private final Path log;
+    private final long compactionThreshold;
+    private final Object compaction = new Object();    // held while the log is merged, so one merge runs at a time
+    private DirtyTracker tracker;   // tracker of the to-do list last read or saved, null if none
+    private FileChannel channel;    // the log, null if there is no log for the base file as it is now
+    private long logSize;
+    private long headerSize;        // bytes of the first line of the log
+    private long baseSize;          // size and time last modified of the base file the log applies to
+    private long baseModified;
+    private int generation;         // number of times the base file has been replaced
+    private Thread compactor;
+    private volatile IOException failure;
+
+    // REQUIRES: compactionThreshold > 0
+    // EFFECTS: constructs log of the changes to the to-do list saved in base file, merged into a new base file once
+    //          the changes in it take more than compactionThreshold bytes
+    public DeltaLog(String base, long compactionThreshold) {
+        this.base = Paths.get(base);
+        this.log = Paths.get(base + LOG_SUFFIX);
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    // EFFECTS: constructs log of the changes to the to-do list saved in base file, merged into a new base file once
+    //          the changes in it take more than DEFAULT_COMPACTION_THRESHOLD bytes
+    public DeltaLog(String base) {
+        this(base, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    // EFFECTS: returns true if there is a log next to base file, which may hold changes JsonReader does not see
+    public static boolean exists(String base) {
+        return Files.exists(Paths.get(base + LOG_SUFFIX));
+    }
+
+    // EFFECTS: returns the number of bytes in the log, 0 if there is none
+    public synchronized long getLogSize() {
+        return channel == null ? 0 : logSize;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the to-do list from the base file and applies the changes saved in the log after it, then starts
+    //          tracking the changes made to it so that the next save appends only those. If the log holds no changes
+    //          that apply to the base file, the to-do list is read lazily as by JsonReader.readLazily() instead, and
+    //          is not tracked, so the next save writes it in full. Waits for a merge running in the background to
+    //          finish first. Throws IOException if an error occurs reading data from file.
+    public ToDoList read() throws IOException {
+        awaitCompaction();
+        synchronized (this) {
+            closeLog();
+            if (!holdsChanges()) {
+                tracker = null;
+                return new JsonReader(base.toString()).readLazily();
+            }
+            Merged merged = merge(Long.MAX_VALUE);
+            ToDoList list = new ToDoList(merged.listName);
+            list.addAllTasks(merged.tasks.values());
+            tracker = new DirtyTracker(list, merged.idsOf(list), merged.nextId);
+            if (merged.logLength >= 0) {
+                rememberBase(base);
+                headerSize = merged.headerLength;
+                openLog(merged.logLength);
+            }
+            return list;
+        }
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: saves list. If list was last read or saved by this log and the base file has not changed since, appends
+    //          the tasks added, modified or removed since as one line of the log, nothing if nothing has changed, and
+    //          starts merging the log into a new base file in the background once the changes in it take more than
+    //          the compaction threshold. Otherwise writes list in full as the new base file and starts a new log.
+    //          Throws IOException if list cannot be saved.
+    public synchronized void save(ToDoList list) throws IOException {
+        DirtyTracker changes = list.getDirtyTracker();
+        if (changes == null || changes != tracker || changes.isReplaced() || channel == null || !baseUnchanged()) {
+            saveInFull(list);
+        } else if (changes.hasChanges()) {
+            list.saveWith((listName, tasks) -> append(toRecord(listName, changes)));
+            changes.markSaved();
+            if (logSize - headerSize > compactionThreshold) {
+                compactInBackground();
+            }
+        }
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: writes list in full as the new base file, starts a new log for it and starts tracking changes to list
+    private void saveInFull(ToDoList list) throws IOException {
+        Path temp = Paths.get(base + TEMP_SUFFIX);
+        JsonWriter writer = new JsonWriter(temp.toString());
+        writer.open();
+        try {
+            list.saveWith(writer);
+        } finally {
+            writer.close();
+        }
+        tracker = new DirtyTracker(list);
+        replaceBase(temp, header(temp, list.getSize(), null), ByteBuffer.allocate(0));
+    }
+
+    // EFFECTS: returns a line of the log recording changes, made to a to-do list now named listName, and gives an id
+    //          to each task added since the last save
+    private static JSONObject toRecord(String listName, DirtyTracker changes) {
+        JSONObject json = new JSONObject();
+        json.put("listName", listName);
+        json.put("removed", new JSONArray(changes.getRemovedIds()));
+        JSONArray tasks = new JSONArray();
+        for (Task t : changes.getDirtyTasks()) {
+            JSONObject task = t.toJson();
+            task.put("id", changes.assignId(t));
+            tasks.put(task);
+        }
+        json.put("tasks", tasks);
+        int[] order = changes.getOrder();
+        if (order != null) {
+            json.put("order", new JSONArray(order));
+        }
+        json.put("nextId", changes.getNextId());
+        return json;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends json to the log as one line
+    private void append(JSONObject json) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((json.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            logSize += channel.write(bytes, logSize);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: merges the changes in the log into a new base file and starts a new log holding only the changes saved
+    //          while they were merged, if the log holds any changes. Saves can go on while the log is merged, but
+    //          another merge waits for this one. Throws IOException if the base file or the log cannot be read or
+    //          written.
+    public void compact() throws IOException {
+        synchronized (compaction) {
+            compactLog();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: merges the changes in the log into a new base file as compact() does
+    private void compactLog() throws IOException {
+        long limit;
+        int startGeneration;
+        synchronized (this) {
+            if (channel == null || logSize == headerSize) {
+                return;
+            }
+            limit = logSize;
+            startGeneration = generation;
+        }
+        Merged merged = merge(limit);
+        Path temp = Paths.get(base + COMPACTED_SUFFIX);
+        writeMerged(merged, temp);
+        synchronized (this) {
+            if (generation != startGeneration || merged.logLength != limit) {
+                Files.deleteIfExists(temp);
+                return;
+            }
+            JSONObject header = header(temp, merged.nextId, new JSONArray(merged.tasks.keySet()));
+            replaceBase(temp, header, readLog(limit, logSize));
+        }
+    }
+
+    // EFFECTS: writes the to-do list merged from the base file and the log to file, as JsonWriter writes it
+    private static void writeMerged(Merged merged, Path file) throws IOException {
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        try {
+            writer.save(merged.listName, merged.tasks.values());
+        } finally {
+            writer.close();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts merging the log into a new base file on a background thread, unless a merge is running
+    private void compactInBackground() {
+        if (compactor == null || !compactor.isAlive()) {
+            compactor = new Thread(() -> {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }, "delta-log-compactor");
+            compactor.setDaemon(true);
+            compactor.start();
+        }
+    }
+
+    // EFFECTS: waits for a merge running in the background, if any, to finish
+    private void awaitCompaction() throws IOException {
+        Thread running;
+        synchronized (this) {
+            running = compactor;
+        }
+        if (running != null) {
+            try {
+                running.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while merging " + log);
+            }
+        }
+    }
+
+    // EFFECTS: waits for a merge running in the background to finish and closes the log; throws IOException if the
+    //          log cannot be closed or the merge failed
+    @Override
+    public void close() throws IOException {
+        awaitCompaction();
+        synchronized (this) {
+            closeLog();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: returns the first line of a log for newBase, whose tasks are under ids in order, or under their
+    //          indices if ids is null, and which gives the next task saved id nextId
+    private static JSONObject header(Path newBase, int nextId, JSONArray ids) throws IOException {
+        JSONObject json = new JSONObject();
+        json.put("baseSize", Files.size(newBase));
+        json.put("baseModified", Files.getLastModifiedTime(newBase).toMillis());
+        json.put("nextId", nextId);
+        if (ids != null) {
+            json.put("ids", ids);
+        }
+        return json;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forces newBase to disk and makes it the base file, and starts a new log for it holding header followed
+    //          by tail. The base file is replaced before the log, so a crash in between leaves a log that no longer
+    //          applies, and is ignored, next to a base file that includes every change merged into it.
+    private void replaceBase(Path newBase, JSONObject header, ByteBuffer tail) throws IOException {
+        try (FileChannel out = FileChannel.open(newBase, StandardOpenOption.WRITE)) {
+            out.force(true);
+        }
+        Path temp = Paths.get(log + TEMP_SUFFIX);
+        ByteBuffer[] lines = {ByteBuffer.wrap((header.toString() + "\n").getBytes(StandardCharsets.UTF_8)), tail};
+        long length = lines[0].remaining() + tail.remaining();
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (tail.hasRemaining() || lines[0].hasRemaining()) {
+                out.write(lines);
+            }
+            out.force(true);
+        }
+        closeLog();
+        Files.move(newBase, base, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, log, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        rememberBase(base);
+        headerSize = lines[0].limit();
+        generation++;
+        openLog(length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: remembers the size and time last modified of file as those of the base file the log applies to
+    private void rememberBase(Path file) throws IOException {
+        baseSize = Files.size(file);
+        baseModified = Files.getLastModifiedTime(file).toMillis();
+    }
+
+    // EFFECTS: returns true if the base file is still the one the log applies to
+    private boolean baseUnchanged() throws IOException {
+        return Files.exists(base) && Files.size(base) == baseSize
+                && Files.getLastModifiedTime(base).toMillis() == baseModified;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: opens the log for writing, dropping anything after its first length bytes
+    private void openLog(long length) throws IOException {
+        channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(length);
+        logSize = length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the log, if open
+    private void closeLog() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // EFFECTS: returns the bytes of the log from offset from up to offset to, or up to its end if it is shorter
+    private ByteBuffer readLog(long from, long to) throws IOException {
+        if (!Files.exists(log)) {
+            return ByteBuffer.allocate(0);
+        }
+        try (FileChannel in = FileChannel.open(log, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate((int) Math.max(0, Math.min(to, in.size()) - from));
+            int read = 0;
+            while (bytes.hasRemaining() && read >= 0) {
+                read = in.read(bytes, from + bytes.position());
+            }
+            bytes.flip();
+            return bytes;
+        }
+    }
+
+    // EFFECTS: reads the base file and applies the changes in the first limit bytes of the log after it, if the log
+    //          applies to the base file, and returns the tasks they make up
+    private Merged merge(long limit) throws IOException {
+        Merged merged = new Merged();
+        readBase(merged);
+        ByteBuffer bytes = readLog(0, limit);
+        int start = 0;
+        for (int end = indexOfLineEnd(bytes, start); end >= 0; end = indexOfLineEnd(bytes, start)) {
+            JSONObject json = parseLine(bytes, start, end);
+            if (json == null || start == 0 && !applyHeader(merged, json)) {
+                break;  // torn write at the end of the log, or a log for another base file
+            }
+            if (start > 0) {
+                applyRecord(merged, json);
+            } else {
+                merged.headerLength = end + 1;
+            }
+            start = end + 1;
+            merged.logLength = start;
+        }
+        return merged;
+    }
+
+    // MODIFIES: merged
+    // EFFECTS: reads the list name and tasks of the base file into merged, each task under its index as id
+    private void readBase(Merged merged) throws IOException {
+        List<Task> baseTasks = new ArrayList<>();
+        try {
+            JsonTaskIndex index = new JsonTaskIndex(base.toString());
+            merged.listName = index.getListName();
+            for (int i = 0; i < index.getTaskCount(); i++) {
+                baseTasks.add(index.readTask(i));
+            }
+        } catch (JSONException e) {
+            ToDoList list = new JsonReader(base.toString()).read();
+            merged.listName = list.getName();
+            list.forEach(baseTasks::add);
+        }
+        for (Task t : baseTasks) {
+            merged.tasks.put(merged.tasks.size(), t);
+        }
+        merged.nextId = baseTasks.size();
+    }
+
+    // EFFECTS: returns the index of the first line feed in bytes at or after start, -1 if there is none
+    private static int indexOfLineEnd(ByteBuffer bytes, int start) {
+        for (int i = start; i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // EFFECTS: returns the JSON object in bytes from start to end, null if it is not one
+    private static JSONObject parseLine(ByteBuffer bytes, int start, int end) {
+        try {
+            return new JSONObject(new String(bytes.array(), start, end - start, StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    // EFFECTS: returns true if the log applies to the base file as it is now and holds at least one complete change
+    private boolean holdsChanges() throws IOException {
+        ByteBuffer bytes = readLog(0, Long.MAX_VALUE);
+        int end = indexOfLineEnd(bytes, 0);
+        if (end < 0 || indexOfLineEnd(bytes, end + 1) < 0) {
+            return false;
+        }
+        JSONObject header = parseLine(bytes, 0, end);
+        return header != null && appliesToBase(header);
+    }
+
+    // EFFECTS: returns true if header is the first line of a log for the base file as it is now
+    private boolean appliesToBase(JSONObject header) throws IOException {
+        return Files.exists(base) && header.getLong("baseSize") == Files.size(base)
+                && header.getLong("baseModified") == Files.getLastModifiedTime(base).toMillis();
+    }
+
+    // MODIFIES: merged
+    // EFFECTS: returns true if header is the first line of a log for the base file as it is now, and puts the tasks of
+    //          merged under the ids it gives them, if any; returns false and leaves merged as it is otherwise
+    private boolean applyHeader(Merged merged, JSONObject header) throws IOException {
+        if (!appliesToBase(header)) {
+            return false;
+        }
+        if (header.has("ids")) {
+            JSONArray ids = header.getJSONArray("ids");
+            if (ids.length() != merged.tasks.size()) {
+                return false;
+            }
+            LinkedHashMap<Integer, Task> keyed = new LinkedHashMap<>();
+            int i = 0;
+            for (Task t : merged.tasks.values()) {
+                keyed.put(ids.getInt(i++), t);
+            }
+            merged.tasks = keyed;
+        }
+        merged.nextId = header.getInt("nextId");
+        return true;
+    }
+
+    // MODIFIES: merged
+    // EFFECTS: applies the changes recorded in one line of the log to merged
+    private static void applyRecord(Merged merged, JSONObject record) {
+        merged.listName = record.getString("listName");
+        JSONArray removed = record.getJSONArray("removed");
+        for (int i = 0; i < removed.length(); i++) {
+            merged.tasks.remove(removed.getInt(i));
+        }
+        JSONArray tasks = record.getJSONArray("tasks");
+        for (int i = 0; i < tasks.length(); i++) {
+            JSONObject json = tasks.getJSONObject(i);
+            merged.tasks.put(json.getInt("id"), JsonReader.parseTask(json));
+        }
+        if (record.has("order")) {
+            JSONArray order = record.getJSONArray("order");
+            LinkedHashMap<Integer, Task> ordered = new LinkedHashMap<>();
+            for (int i = 0; i < order.length(); i++) {
+                Task t = merged.tasks.remove(order.getInt(i));
+                if (t != null) {
+                    ordered.put(order.getInt(i), t);
+                }
+            }
+            ordered.putAll(merged.tasks);
+            merged.tasks = ordered;
+        }
+        merged.nextId = record.getInt("nextId");
+    }
+
+    // Represents a to-do list merged from the base file and the log, its tasks in order under their ids
+    private static final class Merged {
+        String listName;
+        LinkedHashMap<Integer, Task> tasks = new LinkedHashMap<>();
+        int nextId;
+        long headerLength;
+        long logLength = -1;    // bytes of the log holding complete lines, -1 if the log does not apply
+
+        // EFFECTS: returns the ids of the tasks that list, read from these tasks, holds, in order
+        int[] idsOf(ToDoList list) {
+            int[] ids = new int[list.getSize()];
+            int count = 0;
+            for (Map.Entry<Integer, Task> entry : tasks.entrySet()) {
+                if (list.getTaskIndex(entry.getValue()) >= 0) {
+                    ids[count++] = entry.getKey();
+                }
+            }
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package persistence;
+
+import model.Event;
+import model.EventOperation;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a decoder that reads events back from a binary stream written by EventEncoder
+public class EventDecoder {
+    private final ByteBuffer in;
+    private final List<String> dictionary;
+    private byte[] scratch;
+    private long previousNanos;
+
+    // EFFECTS: constructs decoder reading events from in, starting at its position; throws IOException if in does
+    //          not start with the stream header
+    public EventDecoder(ByteBuffer in) throws IOException {
+        this.in = in;
+        dictionary = new ArrayList<>();
+        scratch = new byte[64];
+        for (byte b : EventEncoder.HEADER) {
+            if (!in.hasRemaining() || in.get() != b) {
+                throw new IOException("Not an event stream");
+            }
+        }
+    }
+
+    // EFFECTS: returns every complete event stored in file, in order; an event cut short at the end of the file is
+    //          left out. Throws IOException if the file cannot be read or is not an event stream.
+    public static List<Event> readAll(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            EventDecoder decoder = new EventDecoder(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            List<Event> events = new ArrayList<>();
+            try {
+                while (decoder.hasNext()) {
+                    events.add(decoder.next());
+                }
+            } catch (BufferUnderflowException e) {
+                // torn write at the end of the file
+            }
+            return events;
+        }
+    }
+
+    // EFFECTS: returns true if there is more of the stream to decode
+    public boolean hasNext() {
+        return in.hasRemaining();
+    }
+
+    // REQUIRES: hasNext()
+    // MODIFIES: this
+    // EFFECTS: decodes and returns the next event; throws BufferUnderflowException if the stream ends part way
+    //          through it
+    public Event next() {
+        EventOperation operation = EventOperation.of((int) readVarLong());
+        long nanos = previousNanos + unZigZag(readVarLong());
+        previousNanos = nanos;
+        Object taskName = readValue();
+        Object oldValue = readValue();
+        Object newValue = readValue();
+        return new Event(nanos, operation, (String) taskName, oldValue, newValue);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes and returns the next value
+    private Object readValue() {
+        int tag = in.get();
+        switch (tag) {
+            case EventEncoder.STRING_REF:
+                return dictionary.get((int) readVarLong());
+            case EventEncoder.STRING_NEW:
+                return readNewString();
+            case EventEncoder.INT:
+                return (int) unZigZag(readVarLong());
+            case EventEncoder.LONG:
+                return unZigZag(readVarLong());
+            case EventEncoder.FALSE:
+                return Boolean.FALSE;
+            case EventEncoder.TRUE:
+                return Boolean.TRUE;
+            case EventEncoder.DATE_TIME:
+                long seconds = unZigZag(readVarLong());
+                return LocalDateTime.ofEpochSecond(seconds, (int) readVarLong(), ZoneOffset.UTC);
+            default:
+                return null;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a string written out in full, adds it to the dictionary and returns it
+    private String readNewString() {
+        int length = (int) readVarLong();
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        in.get(scratch, 0, length);
+        String s = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        dictionary.add(s);
+        return s;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes a number written seven bits at a time, lowest bits first
+    private long readVarLong() {
+        long n = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            n |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return n;
+            }
+        }
+    }
+
+    // EFFECTS: returns the number n stood for before EventEncoder.zigZag
+    static long unZigZag(long n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
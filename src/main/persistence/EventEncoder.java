@@ -0,0 +1,141 @@
+package persistence;
+
+import model.Event;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+
+// Represents an encoder that turns events into a compact binary stream. The stream starts with a header, followed by
+// one record per event: the operation as a varint, the time since the previous event in nanoseconds as a zigzag
+// varint, then the task name, old value and new value. Each value starts with a tag byte. The first time a string
+// is written, its UTF-8 bytes follow and it is given the next number in a dictionary; later it is written as that
+// number. Numbers, booleans and deadlines are written inline.
+public class EventEncoder {
+    static final byte[] HEADER = {'T', 'D', 'E', 'V', 1};
+    static final int NULL = 0;
+    static final int STRING_REF = 1;
+    static final int STRING_NEW = 2;
+    static final int INT = 3;
+    static final int LONG = 4;
+    static final int FALSE = 5;
+    static final int TRUE = 6;
+    static final int DATE_TIME = 7;
+
+    private final HashMap<String, Integer> dictionary;
+    private byte[] out;
+    private int size;
+    private long previousNanos;
+
+    // EFFECTS: constructs encoder whose output starts with the stream header
+    public EventEncoder() {
+        dictionary = new HashMap<>();
+        out = new byte[4096];
+        reset();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: forgets the dictionary and the time of the previous event and discards output not yet taken, so that
+    //          the next output taken starts a new stream
+    public void reset() {
+        dictionary.clear();
+        previousNanos = 0;
+        size = 0;
+        writeBytes(HEADER, 0, HEADER.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends a record for e to the output
+    public void encode(Event e) {
+        writeVarLong(e.getOperation().ordinal());
+        writeVarLong(zigZag(e.getEpochNanos() - previousNanos));
+        previousNanos = e.getEpochNanos();
+        writeValue(e.getTaskName());
+        writeValue(e.getOldValue());
+        writeValue(e.getNewValue());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the output appended since it was last taken, ready to be read, and empties the output
+    public ByteBuffer take() {
+        ByteBuffer taken = ByteBuffer.wrap(Arrays.copyOf(out, size));
+        size = 0;
+        return taken;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends value with its tag; values that are not strings, numbers, booleans or date-times are
+    //          written as the string they convert to
+    private void writeValue(Object value) {
+        if (value == null) {
+            writeByte(NULL);
+        } else if (value instanceof Integer) {
+            writeByte(INT);
+            writeVarLong(zigZag((Integer) value));
+        } else if (value instanceof Long) {
+            writeByte(LONG);
+            writeVarLong(zigZag((Long) value));
+        } else if (value instanceof Boolean) {
+            writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof LocalDateTime) {
+            LocalDateTime dateTime = (LocalDateTime) value;
+            writeByte(DATE_TIME);
+            writeVarLong(zigZag(dateTime.toEpochSecond(ZoneOffset.UTC)));
+            writeVarLong(dateTime.getNano());
+        } else {
+            writeString(value.toString());
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends s as a reference to the dictionary, adding it to the dictionary first if it is not there
+    private void writeString(String s) {
+        Integer id = dictionary.get(s);
+        if (id != null) {
+            writeByte(STRING_REF);
+            writeVarLong(id);
+            return;
+        }
+        dictionary.put(s, dictionary.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeByte(STRING_NEW);
+        writeVarLong(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    // EFFECTS: returns n with its sign moved to the lowest bit, so that small negative numbers stay small
+    static long zigZag(long n) {
+        return (n << 1) ^ (n >> 63);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends n seven bits at a time, lowest bits first, setting the top bit of every byte but the last
+    private void writeVarLong(long n) {
+        ensureCapacity(10);
+        while ((n & ~0x7FL) != 0) {
+            out[size++] = (byte) ((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        out[size++] = (byte) n;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        out[size++] = (byte) b;
+    }
+
+    private void writeBytes(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, out, size, length);
+        size += length;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, size + extra));
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package persistence;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+// Represents a reader of strict JSON text that hands out one value at a time. Text is read in blocks of BLOCK_SIZE
+// characters, so only the current block and the value being read are held in memory at once. Anything that is not
+// strict JSON is reported with a JSONException.
+final class JsonPullParser {
+    private static final int BLOCK_SIZE = 8192;
+
+    private Reader reader;
+    private final char[] block;
+    private final StringBuilder builder;    // reused for strings that span blocks or hold escapes
+    private int length;                     // number of characters in block
+    private int next;                       // index in block of the next character
+    private long offset;                    // number of characters read before block
+
+    // EFFECTS: constructs a parser reading JSON text from reader
+    JsonPullParser(Reader reader) {
+        this.reader = reader;
+        block = new char[BLOCK_SIZE];
+        builder = new StringBuilder();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: discards the rest of the text being read and starts reading JSON text from reader
+    void reset(Reader reader) {
+        this.reader = reader;
+        length = 0;
+        next = 0;
+        offset = 0;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character that is not whitespace without consuming it, -1 at the end of the text
+    int peek() throws IOException {
+        while (next < length || fill()) {
+            char c = block[next];
+            if (c > ' ') {
+                return c;
+            }
+            next++;
+        }
+        return -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c if it is the next character that is not whitespace and returns true; otherwise returns
+    //          false
+    boolean consume(char c) throws IOException {
+        if (peek() == c) {
+            next++;
+            return true;
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes c as the next character that is not whitespace; throws JSONException if it is not there
+    void expect(char c) throws IOException {
+        if (!consume(c)) {
+            throw syntaxError("Expected '" + c + "'");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a string value and returns it; throws JSONException if the next value is not a string
+    String nextString() throws IOException {
+        expect('"');
+        for (int i = next; i < length; i++) {
+            char c = block[i];
+            if (c == '"') {
+                String value = new String(block, next, i - next);
+                next = i + 1;
+                return value;
+            }
+            if (c == '\\' || c < ' ') {
+                break;
+            }
+        }
+        return nextStringSlowly();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the rest of a string value that holds escapes or does not end in this block, and returns it
+    private String nextStringSlowly() throws IOException {
+        builder.setLength(0);
+        for (char c = read(); c != '"'; c = read()) {
+            if (c == '\\') {
+                builder.append(unescape(read()));
+            } else if (c < ' ') {
+                throw syntaxError("Unescaped control character in string");
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the character escaped by a backslash followed by c, reading four hex digits after a u
+    private char unescape(char c) throws IOException {
+        switch (c) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                return (char) (hexDigit() << 12 | hexDigit() << 8 | hexDigit() << 4 | hexDigit());
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Illegal escape");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a hex digit and returns its value
+    private int hexDigit() throws IOException {
+        int value = Character.digit(read(), 16);
+        if (value < 0) {
+            throw syntaxError("Illegal escape");
+        }
+        return value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a number value that is a whole number within the range of int and returns it; throws
+    //          JSONException if the next value is anything else
+    int nextInt() throws IOException {
+        boolean negative = consume('-');
+        long value = 0;
+        int digits = 0;
+        for (int c = peekRaw(); c >= '0' && c <= '9'; c = peekRaw()) {
+            value = value * 10 + (c - '0');
+            next++;
+            if (++digits > 10) {
+                break;
+            }
+        }
+        value = negative ? -value : value;
+        int c = peekRaw();
+        if (digits == 0 || digits > 10 || c == '.' || c == 'e' || c == 'E' || value != (int) value) {
+            throw syntaxError("Expected a whole number");
+        }
+        return (int) value;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a true or false value and returns it; throws JSONException if the next value is anything else
+    boolean nextBoolean() throws IOException {
+        String literal = nextLiteral();
+        if (literal.equals("true") || literal.equals("false")) {
+            return literal.equals("true");
+        }
+        throw syntaxError("Expected true or false");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next value of any kind and discards it
+    void skipValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            nextString();
+        } else if (c == '{') {
+            next++;
+            if (!consume('}')) {
+                do {
+                    nextString();
+                    expect(':');
+                    skipValue();
+                } while (consume(','));
+                expect('}');
+            }
+        } else if (c == '[') {
+            next++;
+            if (!consume(']')) {
+                do {
+                    skipValue();
+                } while (consume(','));
+                expect(']');
+            }
+        } else if (nextLiteral().isEmpty()) {
+            throw syntaxError("Expected a value");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads a run of letters, digits, signs and decimal points, such as true or -1.5e3, and returns it
+    private String nextLiteral() throws IOException {
+        peek();
+        builder.setLength(0);
+        for (int c = peekRaw(); Character.isLetterOrDigit(c) || c == '-' || c == '+' || c == '.'; c = peekRaw()) {
+            builder.append((char) c);
+            next++;
+        }
+        return builder.toString();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the next character, whitespace included, without consuming it, -1 at the end of the text
+    private int peekRaw() throws IOException {
+        return next < length || fill() ? block[next] : -1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: consumes the next character, whitespace included, and returns it; throws JSONException at the end of
+    //          the text
+    private char read() throws IOException {
+        if (next == length && !fill()) {
+            throw syntaxError("Unexpected end of text");
+        }
+        return block[next++];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: reads the next block of text, returns false if there is none left
+    private boolean fill() throws IOException {
+        offset += length;
+        next = 0;
+        length = Math.max(0, reader.read(block));
+        return length > 0;
+    }
+
+    // EFFECTS: returns an exception describing a syntax error at the current position in the text
+    private JSONException syntaxError(String message) {
+        return new JSONException(message + " at character " + (offset + next));
+    }
+}
@@ -1,22 +1,32 @@
 package persistence;
 
+import model.LazyToDoList;
 import model.Task;
 import model.ToDoList;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.stream.Stream;
 
 // This class references code from JsonSerializationDemo repo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
 // Represents a reader that reads to-do list from JSON data stored in file
 public class JsonReader {
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final String source;
 
     // EFFECTS: constructs reader to read from source file
@@ -27,9 +37,35 @@ public class JsonReader {
     // EFFECTS: reads ToDoList from file and returns it;
     // throws IOException if an error occurs reading data from file
     public ToDoList read() throws IOException {
-        String jsonData = readFile(source);
-        JSONObject jsonObject = new JSONObject(jsonData);
-        return parseToDoList(jsonObject);
+        try {
+            return readStreaming();
+        } catch (JSONException e) {
+            // not strict JSON; org.json is more forgiving, so let it have a go at the whole file
+            JSONObject jsonObject = new JSONObject(readFile(source));
+            return parseToDoList(jsonObject);
+        }
+    }
+
+    // EFFECTS: reads ToDoList from file token by token, building each task as it is read, and returns it;
+    //          throws JSONException if the file is not strict JSON holding a to-do list
+    private ToDoList readStreaming() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(source));
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1)) {
+            return parseToDoList(new JsonPullParser(reader));
+        }
+    }
+
+    // EFFECTS: reads ToDoList from file and returns it, reading each task from the file only when it is asked for
+    //          by index; see JsonTaskIndex. Files that cannot be indexed are read in full as by read(). Throws
+    //          IOException if an error occurs reading data from file.
+    public ToDoList readLazily() throws IOException {
+        JsonTaskIndex index;
+        try {
+            index = new JsonTaskIndex(source);
+        } catch (JSONException e) {
+            return read();
+        }
+        return new LazyToDoList(index.getListName(), index);
     }
 
     // EFFECTS: reads source file as string and returns it
@@ -52,32 +88,161 @@ public class JsonReader {
     }
 
     // MODIFIES: list
-    // EFFECTS: parses tasks from JSON object and adds them to ToDoList
+    // EFFECTS: parses tasks from JSON object and adds them to ToDoList as one batch
     private void addTasks(ToDoList list, JSONObject jsonObject) {
         JSONArray jsonArray = jsonObject.getJSONArray("tasks");
+        ArrayList<Task> batch = new ArrayList<>(jsonArray.length());
         for (Object json : jsonArray) {
             JSONObject nextTask = (JSONObject) json;
-            addTask(list, nextTask);
+            batch.add(parseTask(nextTask));
         }
+        list.addAllTasks(batch);
     }
 
-    // MODIFIES: list
-    // EFFECTS: parses task from JSON object and adds it to ToDoList
-    private void addTask(ToDoList list, JSONObject jsonObject) {
+    // MODIFIES: parser
+    // EFFECTS: parses ToDoList from the object parser is at and returns it, skipping keys it does not know;
+    //          throws JSONException if the list name or tasks are missing
+    private ToDoList parseToDoList(JsonPullParser parser) throws IOException {
+        String name = null;
+        ArrayList<Task> batch = null;
+        parser.expect('{');
+        do {
+            String key = parser.nextString();
+            parser.expect(':');
+            if (key.equals("listName")) {
+                name = parser.nextString();
+            } else if (key.equals("tasks")) {
+                batch = parseTasks(parser);
+            } else {
+                parser.skipValue();
+            }
+        } while (parser.consume(','));
+        parser.expect('}');
+        if (name == null || batch == null) {
+            throw new JSONException("Expected listName and tasks");
+        }
+        ToDoList list = new ToDoList(name);
+        list.addAllTasks(batch);
+        return list;
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: parses the array of tasks parser is at and returns them in order
+    private static ArrayList<Task> parseTasks(JsonPullParser parser) throws IOException {
+        ArrayList<Task> batch = new ArrayList<>();
+        parser.expect('[');
+        if (!parser.consume(']')) {
+            do {
+                batch.add(parseTask(parser));
+            } while (parser.consume(','));
+            parser.expect(']');
+        }
+        return batch;
+    }
+
+    // MODIFIES: parser
+    // EFFECTS: parses the task object parser is at and returns it, skipping keys it does not know; throws
+    //          JSONException if a field is missing
+    static Task parseTask(JsonPullParser parser) throws IOException {
+        return new TaskFields(parser).toTask();
+    }
+
+    // EFFECTS: parses task from JSON object and returns it
+    static Task parseTask(JSONObject jsonObject) {
         String taskName = jsonObject.getString("taskName");
         String taskDescription = jsonObject.getString("taskDescription");
-        String readDeadline = jsonObject.getString("deadline");
-        LocalDateTime deadline;
-        if (readDeadline.equals("None")) {
-            deadline = LocalDateTime.MAX;
-        } else {
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            deadline = LocalDateTime.parse(readDeadline, formatter);
-        }
+        LocalDateTime deadline = parseDeadline(jsonObject.getString("deadline"));
         int priority = jsonObject.getInt("priority");
         boolean completed = jsonObject.getBoolean("completed");
-        list.addTask(new Task(taskName, taskDescription, deadline, priority, completed));
+        return new Task(taskName, taskDescription, deadline, priority, completed);
+    }
+
+    // EFFECTS: parses a deadline written as "None" or as yyyy-MM-dd HH:mm and returns it, LocalDateTime.MAX for
+    //          "None"; throws DateTimeParseException if it is neither. A valid date and time is read digit by
+    //          digit, and anything else is left to DEADLINE_FORMAT so that it is understood as it always was.
+    static LocalDateTime parseDeadline(String text) {
+        if (text.equals("None")) {
+            return LocalDateTime.MAX;
+        }
+        if (text.length() == 16 && text.charAt(4) == '-' && text.charAt(7) == '-' && text.charAt(10) == ' '
+                && text.charAt(13) == ':') {
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 7);
+            int day = digits(text, 8, 10);
+            int hour = digits(text, 11, 13);
+            int minute = digits(text, 14, 16);
+            if (year > 0 && month >= 1 && month <= 12 && day >= 1 && day <= Month.of(month).length(Year.isLeap(year))
+                    && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return LocalDateTime.parse(text, DEADLINE_FORMAT);
+    }
+
+    // EFFECTS: returns the number written in decimal digits from begin to end of text, or -1 if any is not a digit
+    private static int digits(String text, int begin, int end) {
+        int value = 0;
+        for (int i = begin; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
     }
 
+    // Represents the fields of one task read from a JSON object, in whatever order they were written
+    private static final class TaskFields {
+        private String taskName;
+        private String taskDescription;
+        private String deadline;
+        private Integer priority;
+        private Boolean completed;
+
+        // MODIFIES: parser
+        // EFFECTS: reads the fields of the task object parser is at, skipping keys it does not know
+        TaskFields(JsonPullParser parser) throws IOException {
+            parser.expect('{');
+            do {
+                String key = parser.nextString();
+                parser.expect(':');
+                read(key, parser);
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+
+        // MODIFIES: this, parser
+        // EFFECTS: reads the value of key from parser into its field, or skips it if key is not a field
+        private void read(String key, JsonPullParser parser) throws IOException {
+            switch (key) {
+                case "taskName":
+                    taskName = parser.nextString();
+                    break;
+                case "taskDescription":
+                    taskDescription = parser.nextString();
+                    break;
+                case "deadline":
+                    deadline = parser.nextString();
+                    break;
+                case "priority":
+                    priority = parser.nextInt();
+                    break;
+                case "completed":
+                    completed = parser.nextBoolean();
+                    break;
+                default:
+                    parser.skipValue();
+            }
+        }
 
+        // EFFECTS: returns the task with these fields; throws JSONException if any is missing
+        Task toTask() {
+            if (taskName == null || taskDescription == null || deadline == null || priority == null
+                    || completed == null) {
+                throw new JSONException("Expected taskName, taskDescription, deadline, priority and completed");
+            }
+            return new Task(taskName, taskDescription, parseDeadline(deadline), priority, completed);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package persistence;
+
+import model.Task;
+import model.TaskSource;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Represents an index of where each task is in a to-do list saved as JSON. The file is mapped into memory and
+// scanned once, byte by byte, for the start of each task object; nothing but the list name is parsed. A task is
+// parsed from its place in the file each time it is read, so only an int per task is kept in memory. Tasks are
+// parsed as JsonReader parses them, so every task JsonReader accepts can be read. An index is not safe for use by
+// several threads at once, and the file must not change while it is in use.
+public class JsonTaskIndex implements TaskSource {
+    private final String source;
+    private final ByteBuffer file;          // the mapped file
+    private final ByteBuffer cursor;        // view of file positioned to decode text
+    private final JsonPullParser parser;
+    private int[] starts;                   // offset of each task object, then of the end of the tasks array
+    private int taskCount;
+    private String listName;
+    private byte[] scratch;
+
+    // fields below are only used while the file is scanned
+    private int depth;                      // number of objects and arrays the scan is inside
+    private boolean valueNext;              // true if the next string at depth 1 is a value rather than a key
+    private String key;                     // the key at depth 1 whose value is being scanned
+    private boolean inTasks;                // true while the scan is inside the tasks array
+    private boolean tasksFound;             // true once the scan has left the tasks array
+
+    // EFFECTS: maps source file into memory and finds each task in it; throws IOException if an error occurs
+    //          reading data from file, and JSONException if the file is not laid out in a way this index understands
+    public JsonTaskIndex(String source) throws IOException {
+        this.source = source;
+        try (FileChannel channel = FileChannel.open(Paths.get(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new JSONException("Too large to index: " + source);
+            }
+            file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        cursor = file.duplicate();
+        parser = new JsonPullParser(new StringReader(""));
+        starts = new int[16];
+        scratch = new byte[256];
+        scan();
+    }
+
+    public String getListName() {
+        return listName;
+    }
+
+    @Override
+    public int getTaskCount() {
+        return taskCount;
+    }
+
+    // REQUIRES: 0 <= index < getTaskCount()
+    // MODIFIES: this
+    // EFFECTS: parses the task at index from the file and returns it; throws JSONException or
+    //          DateTimeParseException if it cannot be parsed
+    @Override
+    public Task readTask(int index) {
+        String text = decode(starts[index], starts[index + 1]);
+        try {
+            parser.reset(new StringReader(text));
+            return JsonReader.parseTask(parser);
+        } catch (JSONException e) {
+            // not strict JSON; read it as JsonReader reads such files, with line breaks dropped
+            return JsonReader.parseTask(new JSONObject(text.replace("\n", "").replace("\r", "")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: finds the list name and the start of every task object in the file; throws JSONException if either
+    //          cannot be found
+    private void scan() {
+        for (int i = 0; i < file.limit(); i++) {
+            byte b = file.get(i);
+            if (b == '"') {
+                i = scanString(i);
+            } else if (b == '{' || b == '[') {
+                scanOpen(i, b);
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth == 1 && inTasks) {
+                    addStart(i);
+                    inTasks = false;
+                    tasksFound = true;
+                }
+            } else if (depth == 1 && (b == ':' || b == ',')) {
+                valueNext = b == ':';
+            } else if (inTasks && depth == 2 && b > ' ' && b != ',') {
+                throw new JSONException("Expected a task object at byte " + i + " of " + source);
+            }
+        }
+        if (depth != 0 || listName == null || !tasksFound) {
+            throw new JSONException("Expected listName and tasks in " + source);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: scans the string starting with the quote at start and returns the offset of its closing quote. A
+    //          string at depth 1 is remembered as the current key, or as the list name if it is its value.
+    private int scanString(int start) {
+        int end = start + 1;
+        while (end < file.limit() && file.get(end) != '"') {
+            end += file.get(end) == '\\' ? 2 : 1;
+        }
+        if (end >= file.limit() || inTasks && depth == 2) {
+            throw new JSONException("Expected a task object at byte " + start + " of " + source);
+        }
+        if (depth == 1) {
+            String text = parseString(start, end + 1);
+            if (!valueNext) {
+                key = text;
+            } else if ("listName".equals(key)) {
+                listName = text;
+            }
+        }
+        return end;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: scans the object or array opened by b at offset, noting it if it is a task or the tasks array
+    private void scanOpen(int offset, byte b) {
+        if (inTasks && depth == 2) {
+            if (b != '{') {
+                throw new JSONException("Expected a task object at byte " + offset + " of " + source);
+            }
+            addStart(offset);
+        } else if (depth == 1 && valueNext && b == '[' && "tasks".equals(key)) {
+            if (tasksFound) {
+                throw new JSONException("Duplicate key tasks in " + source);
+            }
+            inTasks = true;
+        }
+        depth++;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records offset as the start of the next task, or as the end of the tasks array once the scan has left it
+    private void addStart(int offset) {
+        if (taskCount + 1 >= starts.length) {
+            starts = Arrays.copyOf(starts, starts.length * 2);
+        }
+        starts[inTasks && depth == 2 ? taskCount++ : taskCount] = offset;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: parses the JSON string from start to end of the file, quotes included, and returns it
+    private String parseString(int start, int end) {
+        try {
+            parser.reset(new StringReader(decode(start, end)));
+            return parser.nextString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: decodes the UTF-8 bytes from start to end of the file and returns them
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        cursor.position(start);
+        cursor.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
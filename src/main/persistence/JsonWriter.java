@@ -1,47 +1,287 @@
 package persistence;
 
+import model.Task;
 import model.ToDoList;
-import org.json.JSONObject;
 
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 
 // This class references code from JsonSerializationDemo repo
 // https://github.students.cs.ubc.ca/CPSC210/JsonSerializationDemo.git
-// Represents a writer that writes JSON representation of a to-do list to file
-public class JsonWriter {
+// Represents a writer that writes JSON representation of a to-do list to file. Tasks are written one at a time into
+// a buffer of BUFFER_SIZE bytes that is reused, so saving takes the same memory however many tasks there are. The
+// text is UTF-8 and laid out exactly as org.json lays out ToDoList.toJson() with an indent of TAB spaces. The text is
+// written to a temporary file that is moved over the destination file on close, so a to-do list read lazily from the
+// destination file can still read it while it is being saved over, and a save that fails leaves it as it was.
+public class JsonWriter implements ListSaver {
     private static final int TAB = 4;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final String TEMP_SUFFIX = ".tmp";
+
     private final String destination;
-    private PrintWriter writer;
+    private final ByteBuffer buffer;
+    private FileChannel channel;
+    private boolean saved;
 
     // EFFECTS: constructs writer to write to destination file
     public JsonWriter(String destination) {
         this.destination = destination;
+        buffer = ByteBuffer.allocate(BUFFER_SIZE);
     }
 
     // MODIFIES: this
     // EFFECTS: opens writer; throws FileNotFoundException if destination file cannot
     // be opened for writing
     public void open() throws FileNotFoundException {
-        writer = new PrintWriter(destination);
+        try {
+            channel = FileChannel.open(Paths.get(destination + TEMP_SUFFIX), StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            saved = true;
+        } catch (IOException | InvalidPathException e) {
+            throw new FileNotFoundException(destination + " (" + e.getMessage() + ")");
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of list to file; throws IOException if it cannot be written
+    public void write(ToDoList list) throws IOException {
+        list.saveWith(this);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes writer and moves what it wrote over destination file, or deletes what it wrote and leaves
+    //          destination file as it was if a save was started and did not finish; throws IOException if the file
+    //          cannot be closed, moved or deleted
+    public void close() throws IOException {
+        channel.close();
+        Path temp = Paths.get(destination + TEMP_SUFFIX);
+        if (saved) {
+            Files.move(temp, Paths.get(destination), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(temp);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes JSON representation of a to-do list named listName holding tasks to file
+    @Override
+    public void save(String listName, Iterable<Task> tasks) throws IOException {
+        saved = false;
+        writeAscii("{\n");
+        indent(TAB);
+        writeAscii("\"listName\": ");
+        writeQuoted(listName);
+        writeAscii(",\n");
+        indent(TAB);
+        writeAscii("\"tasks\": [");
+        writeTasks(tasks.iterator());
+        writeAscii("]\n}");
+        flush();
+        saved = true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes each task of tasks as an array element, laying a single task out on the line of the array
+    //          the way org.json does
+    private void writeTasks(Iterator<Task> tasks) throws IOException {
+        if (!tasks.hasNext()) {
+            return;
+        }
+        Task first = tasks.next();
+        if (!tasks.hasNext()) {
+            writeTask(first, TAB);
+            return;
+        }
+        writeAscii("\n");
+        indent(2 * TAB);
+        writeTask(first, 2 * TAB);
+        while (tasks.hasNext()) {
+            writeAscii(",\n");
+            indent(2 * TAB);
+            writeTask(tasks.next(), 2 * TAB);
+        }
+        writeAscii("\n");
+        indent(TAB);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes task as a JSON object whose closing brace is indented by indent spaces, with its keys in the
+    //          order org.json writes them
+    private void writeTask(Task task, int indent) throws IOException {
+        writeKey("{\n", "taskDescription", indent);
+        writeQuoted(task.getDescription());
+        writeKey(",\n", "taskName", indent);
+        writeQuoted(task.getName());
+        writeKey(",\n", "completed", indent);
+        writeAscii(task.isCompleted() ? "true" : "false");
+        writeKey(",\n", "deadline", indent);
+        writeDeadline(task.getDeadline());
+        writeKey(",\n", "priority", indent);
+        writeAscii(Integer.toString(task.getPriority()));
+        writeAscii("\n");
+        indent(indent);
+        writeAscii("}");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes separator, then key on its own line indented by TAB more than indent, ready for its value
+    private void writeKey(String separator, String key, int indent) throws IOException {
+        writeAscii(separator);
+        indent(indent + TAB);
+        put((byte) '"');
+        writeAscii(key);
+        writeAscii("\": ");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes deadline as a quoted yyyy-MM-dd HH:mm, or as "None" if it is LocalDateTime.MAX
+    private void writeDeadline(LocalDateTime deadline) throws IOException {
+        if (deadline.equals(LocalDateTime.MAX)) {
+            writeAscii("\"None\"");
+        } else if (deadline.getYear() < 1 || deadline.getYear() > 9999) {
+            writeQuoted(deadline.format(DEADLINE_FORMAT));
+        } else {
+            put((byte) '"');
+            writeDigits(deadline.getYear(), 4);
+            put((byte) '-');
+            writeDigits(deadline.getMonthValue(), 2);
+            put((byte) '-');
+            writeDigits(deadline.getDayOfMonth(), 2);
+            put((byte) ' ');
+            writeDigits(deadline.getHour(), 2);
+            put((byte) ':');
+            writeDigits(deadline.getMinute(), 2);
+            put((byte) '"');
+        }
+    }
+
+    // REQUIRES: 0 <= value < 10^width
+    // MODIFIES: this
+    // EFFECTS: writes value in decimal, padded with zeros to width digits
+    private void writeDigits(int value, int width) throws IOException {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes text as a quoted JSON string in UTF-8, escaping the characters org.json escapes
+    private void writeQuoted(String text) throws IOException {
+        put((byte) '"');
+        char previous = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\' || c == '/' && previous == '<') {
+                put((byte) '\\');
+                put((byte) c);
+            } else if (c < ' ' || c >= 0x80 && c < 0xa0 || c >= 0x2000 && c < 0x2100) {
+                writeEscaped(c);
+            } else if (Character.isSurrogate(c)) {
+                i += writeSurrogates(text, i);
+            } else {
+                writeUtf8(c);
+            }
+            previous = c;
+        }
+        put((byte) '"');
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes c as an escape: its short form if JSON has one, otherwise a backslash, u and four hex digits
+    private void writeEscaped(char c) throws IOException {
+        int shortForm = "\b\t\n\f\r".indexOf(c);
+        put((byte) '\\');
+        if (shortForm >= 0) {
+            put((byte) "btnfr".charAt(shortForm));
+        } else {
+            put((byte) 'u');
+            for (int shift = 12; shift >= 0; shift -= 4) {
+                put(HEX[c >> shift & 0xf]);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the character of text starting with the surrogate at index in UTF-8, writing ? for a surrogate
+    //          that is not part of a pair as String.getBytes does, and returns the number of extra chars used
+    private int writeSurrogates(String text, int index) throws IOException {
+        char high = text.charAt(index);
+        if (Character.isHighSurrogate(high) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(high, text.charAt(index + 1));
+            put((byte) (0xf0 | codePoint >> 18));
+            put((byte) (0x80 | codePoint >> 12 & 0x3f));
+            put((byte) (0x80 | codePoint >> 6 & 0x3f));
+            put((byte) (0x80 | codePoint & 0x3f));
+            return 1;
+        }
+        put((byte) '?');
+        return 0;
+    }
+
+    // REQUIRES: c is not a surrogate
+    // MODIFIES: this
+    // EFFECTS: writes c in UTF-8
+    private void writeUtf8(char c) throws IOException {
+        if (c < 0x80) {
+            put((byte) c);
+        } else if (c < 0x800) {
+            put((byte) (0xc0 | c >> 6));
+            put((byte) (0x80 | c & 0x3f));
+        } else {
+            put((byte) (0xe0 | c >> 12));
+            put((byte) (0x80 | c >> 6 & 0x3f));
+            put((byte) (0x80 | c & 0x3f));
+        }
+    }
+
+    // REQUIRES: text is ASCII
+    // MODIFIES: this
+    // EFFECTS: writes text
+    private void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            put((byte) text.charAt(i));
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: writes JSON representation of workroom to file
-    public void write(ToDoList list) {
-        JSONObject json = list.toJson();
-        saveToFile(json.toString(TAB));
+    // EFFECTS: writes count spaces
+    private void indent(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            put((byte) ' ');
+        }
     }
 
     // MODIFIES: this
-    // EFFECTS: closes writer
-    public void close() {
-        writer.close();
+    // EFFECTS: adds b to the buffer, first writing the buffer to file if it is full
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
     }
 
     // MODIFIES: this
-    // EFFECTS: writes string to file
-    private void saveToFile(String json) {
-        writer.print(json);
+    // EFFECTS: writes everything in the buffer to file and empties it
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
     }
 }
@@ -0,0 +1,39 @@
+package persistence;
+
+import model.ToDoList;
+
+import java.io.IOException;
+
+// Represents conversions of saved to-do lists between the JSON format of JsonWriter and the binary format of
+// BinaryWriter
+public final class ListFileConverter {
+    private ListFileConverter() {
+    }
+
+    // EFFECTS: writes the to-do list saved as JSON in jsonSource to binaryDestination in binary format; throws
+    //          IOException if jsonSource cannot be read or binaryDestination cannot be written
+    public static void jsonToBinary(String jsonSource, String binaryDestination) throws IOException {
+        ToDoList list = new JsonReader(jsonSource).read();
+        BinaryWriter writer = new BinaryWriter(binaryDestination);
+        writer.open();
+        try {
+            writer.save(list.getName(), list);
+        } finally {
+            writer.close();
+        }
+    }
+
+    // EFFECTS: writes the to-do list saved in binary format in binarySource to jsonDestination as JSON, one task at
+    //          a time; throws IOException if binarySource cannot be read or jsonDestination cannot be written
+    public static void binaryToJson(String binarySource, String jsonDestination) throws IOException {
+        BinaryReader reader = new BinaryReader(binarySource);
+        reader.open();
+        JsonWriter writer = new JsonWriter(jsonDestination);
+        writer.open();
+        try {
+            writer.save(reader.getListName(), reader.tasks());
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package persistence;
+
+import model.Task;
+
+import java.io.IOException;
+
+// Represents a destination that a to-do list can be saved to one task at a time
+@FunctionalInterface
+public interface ListSaver {
+    // EFFECTS: saves a to-do list named listName holding tasks, in order
+    void save(String listName, Iterable<Task> tasks) throws IOException;
+}
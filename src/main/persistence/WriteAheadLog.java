@@ -0,0 +1,280 @@
+package persistence;
+
+import model.Mutation;
+import model.MutationListener;
+import model.SortOrder;
+import model.Task;
+import model.ToDoList;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Represents a durable record of the changes made to a to-do list, kept in a directory as a snapshot of the to-do
+// list plus a log of the changes made since. Every change is appended to the log as one JSON line numbered with a
+// sequence number. After a set number of changes the log is set aside and a new one started, and a background thread
+// writes a copy of the to-do list as the new snapshot, then deletes the log set aside, so the thread making changes
+// only pays for taking the copy. The snapshot remembers the sequence number of the last change it includes, so a
+// crash before the log set aside is deleted only leaves changes behind that are skipped on recovery.
+public class WriteAheadLog implements MutationListener, Closeable {
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1000;
+    private static final String SNAPSHOT = "snapshot.json";
+    private static final String LOG = "changes.log";
+    private static final String OLD_LOG = "changes.old.log";    // log set aside while a snapshot is written
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final boolean syncEachChange;
+    private ToDoList list;
+    private FileChannel channel;
+    private long lastSequence;
+    private int sinceSnapshot;
+    private Thread snapshotter;
+    private volatile IOException failure;
+
+    // REQUIRES: snapshotInterval > 0
+    // EFFECTS: constructs log kept in directory, writing a new snapshot every snapshotInterval changes, and forcing
+    //          every change to disk before the change returns if syncEachChange is true
+    public WriteAheadLog(String directory, int snapshotInterval, boolean syncEachChange) {
+        this.directory = Paths.get(directory);
+        this.snapshotInterval = snapshotInterval;
+        this.syncEachChange = syncEachChange;
+    }
+
+    // REQUIRES: list is empty and not attached to another log
+    // MODIFIES: this, list
+    // EFFECTS: restores list from the latest snapshot and replays the changes logged after it, then starts logging
+    //          the changes made to list. Returns the number of changes replayed. A change cut short by a crash at the
+    //          end of the log is ignored. Throws IOException if the directory cannot be read or written.
+    public int open(ToDoList list) throws IOException {
+        Files.createDirectories(directory);
+        this.list = list;
+        lastSequence = 0;
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            JSONObject json = new JSONObject(new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8));
+            parseMutation(json.getJSONObject("state")).applyTo(list);
+            lastSequence = json.getLong("sequence");
+        }
+        int replayed = replay(directory.resolve(OLD_LOG)) + replay(directory.resolve(LOG));
+        list.setMutationListener(this);
+        snapshot();
+        return replayed;
+    }
+
+    // MODIFIES: list
+    // EFFECTS: applies every complete change in log numbered after lastSequence to list, returns how many there were
+    private int replay(Path log) throws IOException {
+        if (!Files.exists(log)) {
+            return 0;
+        }
+        int replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(log, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                JSONObject json;
+                try {
+                    json = new JSONObject(line);
+                } catch (JSONException e) {
+                    break;  // torn write at the end of the log
+                }
+                long sequence = json.getLong("sequence");
+                if (sequence > lastSequence) {
+                    parseMutation(json).applyTo(list);
+                    lastSequence = sequence;
+                    replayed++;
+                }
+            }
+        }
+        return replayed;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends m to the log, starting a new snapshot in the background if enough changes have been logged
+    //          since the last one and no snapshot is being written; throws UncheckedIOException if the log cannot be
+    //          written
+    @Override
+    public void mutated(Mutation m) {
+        JSONObject json = m.toJson();
+        json.put("sequence", ++lastSequence);
+        ByteBuffer bytes = ByteBuffer.wrap((json.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (syncEachChange) {
+                channel.force(false);
+            }
+            if (++sinceSnapshot >= snapshotInterval && failure == null
+                    && (snapshotter == null || !snapshotter.isAlive())) {
+                snapshotInBackground();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: takes a copy of the to-do list, sets the log aside and starts a new one, then writes the copy as the
+    //          new snapshot and deletes the log set aside from a background thread
+    private void snapshotInBackground() throws IOException {
+        Mutation state = list.checkpoint();
+        long sequence = lastSequence;
+        channel.close();
+        Files.move(directory.resolve(LOG), directory.resolve(OLD_LOG), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        startLog();
+        snapshotter = new Thread(() -> {
+            try {
+                writeSnapshot(sequence, state);
+                Files.delete(directory.resolve(OLD_LOG));
+            } catch (IOException e) {
+                failure = e;
+            }
+        }, "write-ahead-log-snapshot");
+        snapshotter.setDaemon(true);
+        snapshotter.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: waits for a snapshot being written in the background to finish, then writes the current state of the
+    //          to-do list as the new snapshot and empties the log. A snapshot that failed in the background is
+    //          replaced by this one.
+    public void snapshot() throws IOException {
+        awaitSnapshot();
+        writeSnapshot(lastSequence, list.checkpoint());
+        Files.deleteIfExists(directory.resolve(OLD_LOG));
+        if (channel != null) {
+            channel.close();
+        }
+        startLog();
+        failure = null;
+    }
+
+    // EFFECTS: writes state, which includes every change up to sequence, as the new snapshot
+    private void writeSnapshot(long sequence, Mutation state) throws IOException {
+        JSONObject json = new JSONObject();
+        json.put("sequence", sequence);
+        json.put("state", state.toJson());
+        Path temp = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            out.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts a new, empty log
+    private void startLog() throws IOException {
+        channel = FileChannel.open(directory.resolve(LOG), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        sinceSnapshot = 0;
+    }
+
+    // EFFECTS: waits for a snapshot being written in the background, if any, to finish
+    private void awaitSnapshot() throws IOException {
+        if (snapshotter != null) {
+            try {
+                snapshotter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing snapshot in " + directory);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops logging changes to the to-do list, waits for a snapshot being written in the background to
+    //          finish and closes the log; changes already logged stay on disk. Throws IOException if the log cannot
+    //          be closed or the snapshot failed.
+    @Override
+    public void close() throws IOException {
+        list.setMutationListener(null);
+        awaitSnapshot();
+        channel.force(false);
+        channel.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // EFFECTS: parses a change from JSON object and returns it
+    static Mutation parseMutation(JSONObject json) {
+        Mutation.Type type = Mutation.Type.valueOf(json.getString("op"));
+        switch (type) {
+            case SET_NAME:
+                return Mutation.setName(json.getString("listName"));
+            case ADD:
+                return Mutation.add(parseTasks(json.getJSONArray("tasks")));
+            case CLEAR:
+                return Mutation.clear();
+            case SORT:
+                return Mutation.sort(parseOrder(json));
+            case KEEP_SORTED:
+                return Mutation.keepSorted(json.getBoolean("keepSorted"));
+            case RESTORE:
+                return Mutation.restore(json.getString("listName"), parseTasks(json.getJSONArray("tasks")),
+                        parseOrder(json), json.getBoolean("keepSorted"));
+            default:
+                return parseIndexedMutation(type, json);
+        }
+    }
+
+    // EFFECTS: parses a change of the given type, which refers to tasks by index, from JSON object and returns it
+    private static Mutation parseIndexedMutation(Mutation.Type type, JSONObject json) {
+        int[] indices = parseIndices(json.getJSONArray("indices"));
+        switch (type) {
+            case REMOVE:
+                return Mutation.remove(indices);
+            case MODIFY:
+                return Mutation.modify(indices[0], JsonReader.parseTask(json.getJSONArray("tasks").getJSONObject(0)));
+            case INSERT:
+                return Mutation.insert(indices, parseTasks(json.getJSONArray("tasks")));
+            default:
+                return Mutation.reorder(indices, parseOrder(json));
+        }
+    }
+
+    // EFFECTS: parses the sort order from JSON object and returns it, null if there is none
+    private static SortOrder parseOrder(JSONObject json) {
+        return json.has("order") ? SortOrder.valueOf(json.getString("order")) : null;
+    }
+
+    // EFFECTS: parses tasks from JSON array and returns them in order
+    private static List<Task> parseTasks(JSONArray jsonArray) {
+        List<Task> tasks = new ArrayList<>(jsonArray.length());
+        for (int i = 0; i < jsonArray.length(); i++) {
+            tasks.add(JsonReader.parseTask(jsonArray.getJSONObject(i)));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: parses indices from JSON array and returns them in order
+    private static int[] parseIndices(JSONArray jsonArray) {
+        int[] indices = new int[jsonArray.length()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = jsonArray.getInt(i);
+        }
+        return indices;
+    }
+}
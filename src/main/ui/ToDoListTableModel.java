@@ -1,148 +1,232 @@
 package ui;
 
+import model.ListChange;
+import model.ListChangeListener;
+import model.PartialOrdering;
+import model.SortOrder;
 import model.Task;
 import model.ToDoList;
+import model.UndoHistory;
 
 import javax.swing.table.AbstractTableModel;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 
 /**
  * Referenced from https://stackoverflow.com/questions/7378013/connect-a-list-of-objects-to-a-jtable
  * Represents the JTable model used when creating a JTable to store a ToDoList
  */
-public class ToDoListTableModel extends AbstractTableModel {
+public class ToDoListTableModel extends AbstractTableModel implements ListChangeListener {
     private final String[] columnNames = {"Task", "Description", "Deadline", "Priority", "Completed?"};
     private ToDoList list;
+    private boolean keepSorted;
+    private SortOrder pendingOrder;             // order the table is showing but list is not yet sorted in
+    private PartialOrdering pendingOrdering;    // rows of list in pendingOrder, worked out as they are shown
+    private boolean finishingSort;              // true while list is sorted into the order already shown
+    private UndoHistory history;
 
     public ToDoListTableModel(ToDoList list) {
         this.list = list;
+        list.addChangeListener(this);
+        history = new UndoHistory(list);
     }
 
     // MODIFIES: this, list
-    // EFFECTS: adds a task to to-do list and updates table to reflect change in to-do list.
+    // EFFECTS: undoes the most recent change to to-do list. Returns false if there was no change to undo.
+    public boolean undo() {
+        finishSort();
+        return history.undo();
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: redoes the most recently undone change to to-do list. Returns false if there was no change to redo.
+    public boolean redo() {
+        finishSort();
+        return history.redo();
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: sets whether tasks in the to-do list are kept sorted as they are added or modified
+    public void setKeepSorted(boolean keepSorted) {
+        finishSort();
+        this.keepSorted = keepSorted;
+        list.setKeepSorted(keepSorted);
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: adds a task to to-do list
     public void addTask(Task task) {
+        finishSort();
         list.addTask(task);
-        fireTableRowsInserted(list.getSize() - 1, list.getSize() - 1);
     }
 
     // MODIFIES: this, list
-    // EFFECTS: removes a task from to-do list and updates table to reflect change in to-do list.
+    // EFFECTS: adds a batch of tasks to to-do list
+    public void addAllTasks(Collection<Task> batch) {
+        finishSort();
+        list.addAllTasks(batch);
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: removes a task from to-do list
     public void removeTask(String taskName) {
-        ArrayList<Integer> removedIndex = list.removeTask(taskName);
-        Collections.sort(removedIndex);
-        for (int i = removedIndex.size() - 1; i >= 0; i--) {
-            fireTableRowsDeleted(removedIndex.get(i), removedIndex.get(i));
-        }
+        finishSort();
+        list.removeTask(taskName);
     }
 
     // MODIFIES: this, list
-    // EFFECTS: removes all completed tasks from to-do list and updates table to reflect change in to-do list.
+    // EFFECTS: removes all completed tasks from to-do list
     public void removeAllCompletedTasks() {
-        ArrayList<Integer> removedIndex = list.removeAllCompletedTasks();
-        Collections.sort(removedIndex);
-        for (int i = removedIndex.size() - 1; i >= 0; i--) {
-            fireTableRowsDeleted(removedIndex.get(i), removedIndex.get(i));
-        }
+        finishSort();
+        list.removeAllCompletedTasks();
     }
 
     // MODIFIES: this, list
-    // EFFECTS: removes all overdue tasks from to-do list and updates table to reflect change in to-do list.
+    // EFFECTS: removes all overdue tasks from to-do list
     public void removeAllOverdueTasks() {
-        ArrayList<Integer> removedIndex = list.removeAllOverdueTasks();
-        Collections.sort(removedIndex);
-        for (int i = removedIndex.size() - 1; i >= 0; i--) {
-            fireTableRowsDeleted(removedIndex.get(i), removedIndex.get(i));
-        }
+        finishSort();
+        list.removeAllOverdueTasks();
     }
 
     // MODIFIES: this, list
-    // EFFECTS: removes all tasks from to-do list and updates table to reflect change in to-do list.
+    // EFFECTS: removes all tasks from to-do list
     public void removeAllTasks() {
-        fireTableRowsDeleted(0, list.getSize() - 1);
+        finishSort();
         list.removeAllTasks();
     }
 
     // MODIFIES: this, list, list.getTask(taskName)
-    // EFFECTS: modifies the task specified by taskName in to-do list by changing its name to newName and updates
-    //          table to reflect change in to-do list.
+    // EFFECTS: modifies the task specified by taskName in to-do list by changing its name to newName
     public void modifyTaskName(String taskName, String newName) {
-        int index = list.getTaskIndex(taskName);
+        finishSort();
         list.getTask(taskName).setName(newName);
-        fireTableRowsUpdated(index, index);
     }
 
     // MODIFIES: this, list, list.getTask(taskName)
     // EFFECTS: modifies the task specified by taskName in to-do list by changing its description to newDescription
-    //          and updates table to reflect change in to-do list.
     public void modifyTaskDescription(String taskName, String newDescription) {
-        int index = list.getTaskIndex(taskName);
+        finishSort();
         list.getTask(taskName).setDescription(newDescription);
-        fireTableRowsUpdated(index, index);
     }
 
     // MODIFIES: this, list, list.getTask(taskName)
     // EFFECTS: modifies the task specified by taskName in to-do list by changing its deadline to newDeadline
-    //          and updates table to reflect change in to-do list.
     public void modifyTaskDeadline(String taskName, LocalDateTime newDeadline) {
-        int index = list.getTaskIndex(taskName);
+        finishSort();
         list.getTask(taskName).setDeadline(newDeadline);
-        fireTableRowsUpdated(index, index);
     }
 
     // MODIFIES: this, list, list.getTask(taskName)
     // EFFECTS: modifies the task specified by taskName in to-do list by changing its priority to newPriority
-    //          and updates table to reflect change in to-do list.
     public void modifyTaskPriority(String taskName, int newPriority) {
-        int index = list.getTaskIndex(taskName);
+        finishSort();
         list.getTask(taskName).setPriority(newPriority);
-        fireTableRowsUpdated(index, index);
     }
 
     // MODIFIES: this, list, list.getTask(taskName)
     // EFFECTS: modifies the task specified by taskName in to-do list by changing its isCompleted to newIsCompleted
-    //          and updates table to reflect change in to-do list.
     public void modifyTaskIsCompleted(String taskName, boolean newIsCompleted) {
-        int index = list.getTaskIndex(taskName);
+        finishSort();
         list.getTask(taskName).setCompleted(newIsCompleted);
-        fireTableRowsUpdated(index, index);
     }
 
-    // MODIFIES: this, list
-    // EFFECTS: sorts the tasks in to-do list by name and updates table to reflect change in to-do list
+    // MODIFIES: this
+    // EFFECTS: updates table to reflect the rows of to-do list changed by an operation, however it was made. Rows
+    //          are deleted starting from the last run so that earlier row indices stay valid.
+    @Override
+    public void listChanged(ListChange change) {
+        if (finishingSort) {
+            return;
+        }
+        if (pendingOrdering != null || change.getType() == ListChange.Type.REPLACE) {
+            pendingOrder = null;
+            pendingOrdering = null;
+            fireTableDataChanged();
+        } else if (change.getType() == ListChange.Type.INSERT) {
+            for (int run = 0; run < change.getRunCount(); run++) {
+                fireTableRowsInserted(change.getFirst(run), change.getLast(run));
+            }
+        } else if (change.getType() == ListChange.Type.DELETE) {
+            for (int run = change.getRunCount() - 1; run >= 0; run--) {
+                fireTableRowsDeleted(change.getFirst(run), change.getLast(run));
+            }
+        } else {
+            for (int run = 0; run < change.getRunCount(); run++) {
+                fireTableRowsUpdated(change.getFirst(run), change.getLast(run));
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the tasks in to-do list sorted by name, to-do list is sorted by the next finishSort
     public void sortTasksByName() {
-        list.sortByName();
-        fireTableRowsUpdated(0, list.getSize() - 1);
+        sortLazily(SortOrder.NAME);
     }
 
-    // MODIFIES: this, list
-    // EFFECTS: sorts the tasks in to-do list by deadline and updates table to reflect change in to-do list
+    // MODIFIES: this
+    // EFFECTS: shows the tasks in to-do list sorted by deadline, to-do list is sorted by the next finishSort
     public void sortTasksByDeadline() {
-        list.sortByDeadline();
-        fireTableRowsUpdated(0, list.getSize() - 1);
+        sortLazily(SortOrder.DEADLINE);
     }
 
-    // MODIFIES: this, list
-    // EFFECTS: sorts the tasks in to-do list by priority and updates table to reflect change in to-do list
+    // MODIFIES: this
+    // EFFECTS: shows the tasks in to-do list sorted by priority, to-do list is sorted by the next finishSort
     public void sortTasksByPriority() {
-        list.sortByPriority();
-        fireTableRowsUpdated(0, list.getSize() - 1);
+        sortLazily(SortOrder.PRIORITY);
     }
 
-    // MODIFIES: this, list
-    // EFFECTS: sorts the tasks in to-do list by completed status and updates table to reflect change in to-do list
+    // MODIFIES: this
+    // EFFECTS: shows the tasks in to-do list sorted by completed status, to-do list is sorted by the next finishSort
     public void sortTasksByCompleted() {
-        list.sortByIsCompleted();
-        fireTableRowsUpdated(0, list.getSize() - 1);
+        sortLazily(SortOrder.IS_COMPLETED);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the tasks in to-do list in order and updates table to reflect the new order. Only the rows the
+    //          table asks for are put in order; list itself is sorted when finishSort is next called. An empty list
+    //          has no rows to update, so the table is not told of any.
+    private void sortLazily(SortOrder order) {
+        finishSort();
+        pendingOrder = order;
+        pendingOrdering = new PartialOrdering(list, order);
+        if (list.getSize() > 0) {
+            fireTableRowsUpdated(0, list.getSize() - 1);
+        }
+    }
+
+    // MODIFIES: this, list
+    // EFFECTS: if the table is showing an order list has not been sorted in yet, sorts list in that order. The rows
+    //          shown do not change, so the table is not updated. Called before anything that relies on the order of
+    //          list.
+    public void finishSort() {
+        if (pendingOrder != null) {
+            SortOrder order = pendingOrder;
+            pendingOrder = null;
+            pendingOrdering = null;
+            finishingSort = true;
+            try {
+                list.sortBy(order);
+            } finally {
+                finishingSort = false;
+            }
+        }
     }
 
     // MODIFIES: this
     // EFFECTS: loads a list and updates table to reflect new list
     public void loadList(ToDoList list) {
+        pendingOrder = null;
+        pendingOrdering = null;
+        this.list.removeChangeListener(this);
+        history.detach();
         this.list = list;
-        fireTableRowsInserted(0, list.getSize() - 1);
+        if (keepSorted) {
+            list.setKeepSorted(true);
+        }
+        list.addChangeListener(this);
+        history = new UndoHistory(list);
+        fireTableDataChanged();
     }
     
     @Override
@@ -162,7 +246,7 @@ public class ToDoListTableModel extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        Task task = list.getTask(rowIndex);
+        Task task = pendingOrdering != null ? pendingOrdering.get(rowIndex) : list.getTask(rowIndex);
         switch (columnIndex) {
             case 0:
                 return task.getName();
@@ -199,6 +283,4 @@ public class ToDoListTableModel extends AbstractTableModel {
         }
         return null;
     }
-
-
 }
@@ -4,19 +4,19 @@ import model.Event;
 import model.EventLog;
 import model.Task;
 import model.ToDoList;
-import persistence.JsonReader;
-import persistence.JsonWriter;
+import persistence.AsyncEventFileSink;
+import persistence.DeltaLog;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.List;
 
 /**
  * Represents To-Do List's main window frame
@@ -26,6 +26,7 @@ public class ToDoListUI extends JFrame {
     private static final int HEIGHT = 600;
     private static final String[] removeMenu = {"Select to remove task/s", "by name", "all overdue tasks",
             "all completed tasks", "all tasks"};
+    private static final String EVENT_STORE = "./data/events";
     private static final String[] sortMenu = {"Select to sort tasks", "by name", "by deadline",
             "by priority", "by completed"};
     private static final String[] modifyOptions = {"name", "description", "deadline", "priority", "completed status"};
@@ -39,9 +40,9 @@ public class ToDoListUI extends JFrame {
     private JPanel buttonPanel;
     private JComboBox<String> removeTaskMenu;
     private JComboBox<String> sortTaskMenu;
-    private JsonWriter jsonWriter;
-    private JsonReader jsonReader;
     private String jsonStore;
+    private DeltaLog deltaLog;      // log of the changes saved to jsonStore, null if none
+    private AsyncEventFileSink eventSink;
 
 
     /**
@@ -50,6 +51,7 @@ public class ToDoListUI extends JFrame {
      */
     public ToDoListUI() {
         displayOnStartup();
+        openEventSink();
 
         main = new JPanel();
         main.setLayout(new BorderLayout());
@@ -61,7 +63,7 @@ public class ToDoListUI extends JFrame {
         setTitle("To-Do List");
         setSize(WIDTH, HEIGHT);
         setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
-        addWindowListener(new PrintEventLogOnClose());
+        addWindowListener(new PrintEventLogOnClose(eventSink));
 
         centreOnScreen();
         setVisible(true);
@@ -73,7 +75,7 @@ public class ToDoListUI extends JFrame {
      */
     private void addButtonPanel() {
         buttonPanel = new JPanel();
-        buttonPanel.setLayout(new GridLayout(3, 2));
+        buttonPanel.setLayout(new GridLayout(5, 2));
 
         buttonPanel.add(new JButton(new AddAddTaskButton()));
 
@@ -93,6 +95,14 @@ public class ToDoListUI extends JFrame {
 
         buttonPanel.add(new JButton(new AddLoadButton()));
 
+        buttonPanel.add(new JCheckBox(new AddKeepSortedCheckBox()));
+
+        buttonPanel.add(new JButton(new AddSearchButton()));
+
+        buttonPanel.add(new JButton(new AddUndoButton()));
+
+        buttonPanel.add(new JButton(new AddRedoButton()));
+
         main.add(buttonPanel, BorderLayout.WEST);
     }
 
@@ -121,6 +131,60 @@ public class ToDoListUI extends JFrame {
         setLocation((width - getWidth()) / 2, (height - getHeight()) / 2);
     }
 
+    /**
+     * MODIFIES: this
+     * EFFECTS: Starts appending logged events to files under EVENT_STORE, or keeps them in memory only
+     *          if the directory cannot be written
+     */
+    private void openEventSink() {
+        try {
+            eventSink = new AsyncEventFileSink(EVENT_STORE);
+            EventLog.getInstance().setSink(eventSink);
+        } catch (IOException e) {
+            eventSink = null;
+        }
+    }
+
+    /**
+     * EFFECTS: Returns the delta log of store: the open one if it is the log of store, a new one otherwise
+     */
+    private DeltaLog deltaLogOf(String store) {
+        if (deltaLog != null && store.equals(jsonStore)) {
+            return deltaLog;
+        }
+        return new DeltaLog(store);
+    }
+
+    /**
+     * MODIFIES: this
+     * EFFECTS: Makes store, whose delta log is log, the file to-do lists are saved to and loaded from, closing the
+     *          delta log open before if it is another one
+     */
+    private void useDeltaLog(String store, DeltaLog log) {
+        if (deltaLog != null && deltaLog != log) {
+            try {
+                deltaLog.close();
+            } catch (IOException e) {
+                System.err.println("Unable to merge saved changes into " + jsonStore + ": " + e.getMessage());
+            }
+        }
+        jsonStore = store;
+        deltaLog = log;
+    }
+
+    /**
+     * EFFECTS: Closes log after a failed load or save, unless it is the delta log in use
+     */
+    private void discardDeltaLog(DeltaLog log) {
+        if (log != deltaLog) {
+            try {
+                log.close();
+            } catch (IOException e) {
+                // nothing was saved through log, so there is nothing to merge
+            }
+        }
+    }
+
     /**
      * MODIFIES: this
      * EFFECTS: Display startup splash art
@@ -324,6 +388,96 @@ public class ToDoListUI extends JFrame {
         }
     }
 
+    /**
+     * Represents action to be taken when user wants tasks to stay sorted as they are added or modified
+     */
+    private class AddKeepSortedCheckBox extends AbstractAction {
+
+        AddKeepSortedCheckBox() {
+            super("Keep sorted");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: keeps to-do list in the order of the most recent sort if check box is selected
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            listOfTasksModel.setKeepSorted(((JCheckBox) e.getSource()).isSelected());
+        }
+    }
+
+    /**
+     * Represents action to be taken when user wants to search tasks in to-do list
+     */
+    private class AddSearchButton extends AbstractAction {
+
+        AddSearchButton() {
+            super("Search tasks");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: selects the tasks whose name or description contain every word entered by user, and scrolls to
+        //          the best match
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            String query = JOptionPane.showInputDialog(null,
+                    "Enter words to search for (end a word with * to match words starting with it)",
+                    "Search tasks", JOptionPane.QUESTION_MESSAGE);
+            if (query == null || query.trim().isEmpty()) {
+                return;
+            }
+            listOfTasksModel.finishSort();
+            List<Task> found = list.search(query, true);
+            listOfTasks.clearSelection();
+            for (Task task : found) {
+                int row = list.getTaskIndex(task);
+                listOfTasks.addRowSelectionInterval(row, row);
+            }
+            if (found.isEmpty()) {
+                JOptionPane.showMessageDialog(null, "No tasks found for: " + query);
+            } else {
+                listOfTasks.scrollRectToVisible(listOfTasks.getCellRect(list.getTaskIndex(found.get(0)), 0, true));
+            }
+        }
+    }
+
+    /**
+     * Represents action to be taken when user wants to undo the most recent change to to-do list
+     */
+    private class AddUndoButton extends AbstractAction {
+
+        AddUndoButton() {
+            super("Undo");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: undoes the most recent change to to-do list, if any
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            if (!listOfTasksModel.undo()) {
+                JOptionPane.showMessageDialog(null, "Nothing to undo");
+            }
+        }
+    }
+
+    /**
+     * Represents action to be taken when user wants to redo the most recently undone change to to-do list
+     */
+    private class AddRedoButton extends AbstractAction {
+
+        AddRedoButton() {
+            super("Redo");
+        }
+
+        // MODIFIES: this
+        // EFFECTS: redoes the most recently undone change to to-do list, if any
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            if (!listOfTasksModel.redo()) {
+                JOptionPane.showMessageDialog(null, "Nothing to redo");
+            }
+        }
+    }
+
     /**
      * Represents action to be taken when user wants to save to-do list
      */
@@ -342,18 +496,19 @@ public class ToDoListUI extends JFrame {
                 String listName = JOptionPane.showInputDialog(null, "Enter list name",
                         "List name?", JOptionPane.QUESTION_MESSAGE);
                 if (listName != null && !listName.isEmpty()) {
+                    listOfTasksModel.finishSort();
                     list.setName(listName);
+                    String store = "./data/" + listName + "ToDoList.json";
+                    DeltaLog log = deltaLogOf(store);
                     try {
-                        jsonStore = "./data/" + listName + "ToDoList.json";
-                        jsonWriter = new JsonWriter(jsonStore);
-                        jsonWriter.open();
-                        jsonWriter.write(list);
-                        jsonWriter.close();
+                        log.save(list);
+                        useDeltaLog(store, log);
                         JOptionPane.showMessageDialog(null,
-                                "Saved " + list.getName() + " to " + jsonStore);
-                    } catch (FileNotFoundException err) {
+                                "Saved " + list.getName() + " to " + store);
+                    } catch (IOException err) {
+                        discardDeltaLog(log);
                         JOptionPane.showMessageDialog(null,
-                                "Unable to write to file: " + jsonStore);
+                                "Unable to write to file: " + store);
                     }
                 } else {
                     JOptionPane.showMessageDialog(null,
@@ -375,18 +530,25 @@ public class ToDoListUI extends JFrame {
         }
 
         // MODIFIES: this
-        // EFFECTS: loads to-do list from file
+        // EFFECTS: loads to-do list from file, keeping the list shown and the file it is saved to if that fails or
+        //          the user cancels
         @Override
         public void actionPerformed(ActionEvent e) {
+            String listName = JOptionPane.showInputDialog(null, "Enter list name to load from",
+                    "List name?", JOptionPane.QUESTION_MESSAGE);
+            if (listName == null) {
+                return;
+            }
+            String store = "./data/" + listName + "ToDoList.json";
+            DeltaLog log = deltaLogOf(store);
             try {
-                String listName = JOptionPane.showInputDialog(null, "Enter list name to load from",
-                        "List name?", JOptionPane.QUESTION_MESSAGE);
-                jsonStore = "./data/" + listName + "ToDoList.json";
-                jsonReader = new JsonReader(jsonStore);
-                list = jsonReader.read();
+                ToDoList loaded = log.read();
+                useDeltaLog(store, log);
+                list = loaded;
                 listOfTasksModel.loadList(list);
             } catch (IOException err) {
-                JOptionPane.showMessageDialog(null, "Unable to read from file: " + jsonStore);
+                discardDeltaLog(log);
+                JOptionPane.showMessageDialog(null, "Unable to read from file: " + store);
             }
         }
     }
@@ -395,10 +557,24 @@ public class ToDoListUI extends JFrame {
      * Represents action to be taken when user closes the window
      */
     private static class PrintEventLogOnClose extends WindowAdapter {
+        private final AsyncEventFileSink eventSink;
+
+        // EFFECTS: Constructs action that closes eventSink, if any, on window closing
+        PrintEventLogOnClose(AsyncEventFileSink eventSink) {
+            this.eventSink = eventSink;
+        }
 
-        // EFFECTS: Prints event log on window closing and exits program
+        // EFFECTS: Writes out pending events, prints event log on window closing and exits program
         @Override
         public void windowClosing(WindowEvent windowEvent) {
+            if (eventSink != null) {
+                EventLog.getInstance().setSink(null);
+                try {
+                    eventSink.close();
+                } catch (IOException e) {
+                    System.err.println("Unable to write event log: " + e.getMessage());
+                }
+            }
             for (Event e : EventLog.getInstance()) {
                 System.out.println(e.toString());
             }
@@ -0,0 +1,222 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentToDoListTest {
+    private static final int WRITERS = 4;
+    private static final int TASKS_PER_WRITER = 2000;
+
+    private ConcurrentToDoList list;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ConcurrentToDoList("Test");
+    }
+
+    @Test
+    void testSameBehaviourAsToDoList() {
+        assertEquals("Test", list.getName());
+        assertTrue(list.isEmpty());
+        assertTrue(list.addTask(new Task("task 1", "description 1", 1)));
+        assertFalse(list.addTask(new Task("task 1", "duplicate", 1)));
+        Task t2 = new Task("task 2", "description 2", 4);
+        list.addTask(t2);
+        assertEquals(2, list.getSize());
+        assertEquals(t2, list.getTask("task 2"));
+        assertEquals(t2, list.getTask(1));
+        assertNull(list.getTask(2));
+        list.sortByPriority();
+        assertEquals(0, list.getTaskIndex("task 2"));
+        assertEquals(0, list.getTaskIndex(t2));
+        t2.setName("renamed");
+        assertFalse(list.containsTask("task 2"));
+        assertTrue(list.containsTask("renamed"));
+        assertArrayEquals(new int[] {1}, list.removeTask("task 1"));
+        list.setName("Renamed list");
+        assertEquals("Renamed list", list.toJson().getString("listName"));
+        assertEquals(1, list.toJson().getJSONArray("tasks").length());
+        list.removeAllTasks();
+        assertEquals("To-Do List is empty", list.toString());
+    }
+
+    @Test
+    void testKeepSorted() {
+        Task t1 = new Task("task 1", "description 1", 1);
+        list.addTask(t1);
+        list.addTask(new Task("task 2", "description 2", 3));
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        assertTrue(list.isKeepSorted());
+        t1.setPriority(5);
+        assertEquals(0, list.getTaskIndex(t1));
+        assertEquals(t1, list.getTask(0));
+    }
+
+    @Test
+    void testDirtyTrackerSeesTaskEdits() {
+        Task task = new Task("task", "description", 1);
+        list.addTask(task);
+        DirtyTracker tracker = new DirtyTracker(list);
+        assertSame(tracker, list.getDirtyTracker());
+        assertFalse(tracker.hasChanges());
+        task.setPriority(4);
+        assertTrue(tracker.hasChanges());
+        assertEquals(List.of(task), tracker.getDirtyTasks());
+    }
+
+    @Test
+    void testConcurrentAddsAndRemoves() throws InterruptedException {
+        runWriters(w -> {
+            for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                assertTrue(list.addTask(new Task(taskName(w, i), "description", i % 6)));
+            }
+        });
+        assertEquals(WRITERS * TASKS_PER_WRITER, list.getSize());
+        for (int w = 0; w < WRITERS; w++) {
+            for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                Task t = list.getTask(taskName(w, i));
+                assertNotNull(t);
+                assertEquals(t, list.getTask(list.getTaskIndex(t)));
+            }
+        }
+        runWriters(w -> {
+            for (int i = 0; i < TASKS_PER_WRITER; i += 2) {
+                assertEquals(1, list.removeTask(taskName(w, i)).length);
+            }
+        });
+        assertEquals(WRITERS * TASKS_PER_WRITER / 2, list.getSize());
+    }
+
+    @Test
+    void testConcurrentTaskEdits() throws InterruptedException {
+        List<Task> all = new ArrayList<>();
+        for (int i = 0; i < TASKS_PER_WRITER; i++) {
+            all.add(new Task(taskName(0, i), "description", i % 6));
+        }
+        list.addAllTasks(all);
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        runWriters(w -> {
+            for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                Task t = all.get(i);
+                if (w == 0 && i % 4 == 0) {
+                    while (list.getTaskIndex(t) != -1) {
+                        list.removeTask(t.getName());
+                    }
+                } else if (w == 1) {
+                    list.getTask(t.getName());  // races the renames, so only an exception fails it
+                    list.containsTask(taskName(0, i));
+                } else if (w > 1) {
+                    t.setName("task " + i + " renamed by " + w);
+                    t.setPriority((i + w) % 6);
+                }
+            }
+        });
+        checkIndexes(all);
+    }
+
+    // EFFECTS: fails unless every task in list can be found by its name and index, tasks are in priority order, and
+    //          every fourth task of all has been removed
+    private void checkIndexes(List<Task> all) {
+        int index = 0;
+        int lastPriority = Integer.MAX_VALUE;
+        for (Task t : list) {
+            assertSame(t, list.getTask(t.getName()));
+            assertEquals(index++, list.getTaskIndex(t));
+            assertTrue(t.getPriority() <= lastPriority);
+            lastPriority = t.getPriority();
+        }
+        assertEquals(index, list.getSize());
+        assertEquals(TASKS_PER_WRITER - TASKS_PER_WRITER / 4, index);
+        for (int i = 0; i < TASKS_PER_WRITER; i += 4) {
+            assertNotSame(all.get(i), list.getTask(all.get(i).getName()));
+        }
+    }
+
+    @Test
+    void testAddsInterleavedWithLookups() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 50000; i++) {
+                list.addTask(new Task("task " + i, "description", i % 6));
+                assertEquals(i, list.getTaskIndex("task " + i));
+                assertTrue(list.containsTask("task " + (i / 2)));
+            }
+        });
+    }
+
+    @Test
+    void testReadersSeeWholeSnapshots() throws InterruptedException {
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> error = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 2; r++) {
+            Thread reader = new Thread(() -> {
+                while (writing.get() && error.get() == null) {
+                    checkSnapshot(error);
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        runWriters(w -> {
+            for (int i = 0; i < TASKS_PER_WRITER; i++) {
+                list.addTask(new Task(taskName(w, i), "description", i % 6));
+            }
+        });
+        writing.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(error.get());
+    }
+
+    // EFFECTS: records an error if the tasks seen in one pass over list are not, for every writer, exactly the first
+    //          few tasks that writer added
+    private void checkSnapshot(AtomicReference<String> error) {
+        int[] seen = new int[WRITERS];
+        for (Task t : list) {
+            String[] parts = t.getName().split(" ");
+            int w = Integer.parseInt(parts[1]);
+            int i = Integer.parseInt(parts[2]);
+            if (i != seen[w]) {
+                error.set("writer " + w + " task " + i + " seen after " + seen[w] + " tasks");
+            }
+            seen[w]++;
+        }
+    }
+
+    // EFFECTS: runs body once per writer on its own thread and waits for all of them to finish, failing if any
+    //          of them threw
+    private void runWriters(WriterBody body) throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> body.run(writer));
+            thread.setUncaughtExceptionHandler((t, e) -> failure.set(e));
+            writers.add(thread);
+            thread.start();
+        }
+        for (Thread thread : writers) {
+            thread.join();
+        }
+        assertNull(failure.get());
+    }
+
+    private String taskName(int writer, int i) {
+        return "writer " + writer + " " + i;
+    }
+
+    private interface WriterBody {
+        void run(int writer);
+    }
+}
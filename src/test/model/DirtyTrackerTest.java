@@ -0,0 +1,122 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DirtyTrackerTest {
+    private ToDoList list;
+    private Task a;
+    private Task b;
+    private Task c;
+    private DirtyTracker tracker;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList("Tracked");
+        a = new Task("a", "", 1);
+        b = new Task("b", "", 3);
+        c = new Task("c", "", 2);
+        list.addAllTasks(Arrays.asList(a, b, c));
+        tracker = new DirtyTracker(list, new int[] {7, 3, 5}, 8);
+    }
+
+    @Test
+    void testNothingChanged() {
+        assertSame(tracker, list.getDirtyTracker());
+        assertFalse(tracker.hasChanges());
+        assertEquals(3, tracker.assignId(b));
+        assertNull(tracker.getOrder());
+        assertEquals(0, tracker.getRemovedIds().length);
+        assertTrue(tracker.getDirtyTasks().isEmpty());
+    }
+
+    @Test
+    void testModifiedAndAddedTasks() {
+        Task d = new Task("d", "", 0);
+        list.addTask(d);
+        c.setPriority(5);
+        a.setDescription("changed");
+        assertTrue(tracker.hasChanges());
+        assertEquals(List.of(a, c, d), tracker.getDirtyTasks());
+        assertEquals(8, tracker.assignId(d));
+        assertEquals(9, tracker.getNextId());
+        assertNull(tracker.getOrder());
+        tracker.markSaved();
+        assertFalse(tracker.hasChanges());
+        list.setName("Renamed");
+        assertTrue(tracker.hasChanges());
+    }
+
+    @Test
+    void testRemovedTasks() {
+        Task d = new Task("d", "", 0);
+        list.addTask(d);
+        d.setPriority(4);
+        list.removeTask("d");
+        list.removeTask("b");
+        c.setCompleted(true);
+        list.removeAllCompletedTasks();
+        assertArrayEquals(new int[] {3, 5}, tracker.getRemovedIds());
+        assertEquals(List.of(), tracker.getDirtyTasks());
+        list.removeAllTasks();
+        assertArrayEquals(new int[] {3, 5, 7}, tracker.getRemovedIds());
+    }
+
+    @Test
+    void testUndoneRemovalIsAddedAgain() {
+        UndoHistory history = new UndoHistory(list);
+        list.removeTask("a");
+        history.undo();
+        assertArrayEquals(new int[] {7}, tracker.getRemovedIds());
+        assertEquals(List.of(a), tracker.getDirtyTasks());
+        assertArrayEquals(new int[] {8, 3, 5}, tracker.getOrder());
+    }
+
+    @Test
+    void testSortedTasks() {
+        list.sortBy(SortOrder.PRIORITY);
+        assertTrue(tracker.hasChanges());
+        assertTrue(tracker.getDirtyTasks().isEmpty());
+        assertArrayEquals(new int[] {3, 5, 7}, tracker.getOrder());
+        tracker.markSaved();
+        list.setKeepSorted(true);
+        tracker.markSaved();
+        a.setPriority(5);
+        assertArrayEquals(new int[] {7, 3, 5}, tracker.getOrder());
+        tracker.markSaved();
+        list.addTask(new Task("e", "", 4));
+        assertEquals(4, tracker.getOrder().length);
+    }
+
+    @Test
+    void testRestoredList() {
+        list.restore("Restored", List.of(new Task("x", "", 0)), null, false);
+        assertTrue(tracker.isReplaced());
+        tracker.markSaved();
+        assertFalse(tracker.isReplaced());
+    }
+
+    @Test
+    void testLazyListIsLoaded() {
+        LazyToDoList lazy = new LazyToDoList("Lazy", new TaskSource() {
+            @Override
+            public int getTaskCount() {
+                return 2;
+            }
+
+            @Override
+            public Task readTask(int index) {
+                return new Task("task " + index, "", 0);
+            }
+        });
+        DirtyTracker lazyTracker = new DirtyTracker(lazy);
+        assertTrue(lazy.isLoaded());
+        assertEquals(2, lazyTracker.getNextId());
+        assertEquals(1, lazyTracker.assignId(lazy.getTask(1)));
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventIndexTest {
+    private EventIndex index;
+    private List<Event> events;
+
+    @BeforeEach
+    void runBefore() {
+        index = new EventIndex();
+        events = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Event e = new Event(i * 10L, EventOperation.PRIORITY_CHANGED, i % 2 == 0 ? "even" : "odd", i, i + 1);
+            events.add(e);
+            index.add(i, e);
+        }
+    }
+
+    @Test
+    void testEventAddedTwiceIsHeldOnce() {
+        index.add(4, events.get(4));
+        index.add(5, events.get(5));
+        assertEquals(50, index.forTask("even", Long.MIN_VALUE, Long.MAX_VALUE, sequence -> true).size());
+        assertEquals(50, index.forTask("odd", Long.MIN_VALUE, Long.MAX_VALUE, sequence -> true).size());
+        assertEquals(100, index.between(Long.MIN_VALUE, Long.MAX_VALUE, sequence -> true).size());
+    }
+
+    @Test
+    void testForTaskRange() {
+        List<Event> found = index.forTask("even", 200, 400, sequence -> true);
+        assertEquals(events.subList(20, 40).stream().filter(e -> e.getTaskName().equals("even")).toArray().length,
+                found.size());
+        assertSame(events.get(20), found.get(0));
+        assertSame(events.get(38), found.get(found.size() - 1));
+        assertTrue(index.forTask("even", 400, 200, sequence -> true).isEmpty());
+        assertTrue(index.forTask("none", 0, 1000, sequence -> true).isEmpty());
+    }
+
+    @Test
+    void testRemoveAndHeld() {
+        index.remove(20, events.get(20));
+        assertSame(events.get(22), index.forTask("even", 200, 400, sequence -> true).get(0));
+        List<Event> held = index.forTask("even", 200, 400, sequence -> sequence != 22);
+        assertSame(events.get(24), held.get(0));
+        assertEquals(8, held.size());
+        for (int i = 1; i < 100; i += 2) {
+            index.remove(i, events.get(i));
+        }
+        assertTrue(index.forTask("odd", Long.MIN_VALUE, Long.MAX_VALUE, sequence -> true).isEmpty());
+        index.add(1, events.get(1));
+        assertEquals(1, index.forTask("odd", Long.MIN_VALUE, Long.MAX_VALUE, sequence -> true).size());
+    }
+}
@@ -3,9 +3,15 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,11 +24,12 @@ public class EventLogTest {
 	private Event e3;
 	
 	@BeforeEach
-	public void loadEvents() {
+	public void loadEvents() throws IOException {
 		e1 = new Event("A1");
 		e2 = new Event("A2");
 		e3 = new Event("A3");
 		EventLog el = EventLog.getInstance();
+		el.configure(EventLog.DEFAULT_CAPACITY, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
 		el.logEvent(e1);
 		el.logEvent(e2);
 		el.logEvent(e3);
@@ -51,4 +58,209 @@ public class EventLogTest {
 		assertEquals("Event log cleared.", itr.next().getDescription());
 		assertFalse(itr.hasNext());
 	}
+
+	@Test
+	public void testOverwriteOldest() throws IOException {
+		EventLog el = EventLog.getInstance();
+		el.configure(3, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
+		assertEquals(4, el.getCapacity());
+		el.clear();
+		for (int i = 0; i < 10; i++) {
+			el.logEvent(new Event("B" + i));
+		}
+		List<String> l = new ArrayList<>();
+		for (Event next : el) {
+			l.add(next.getDescription());
+		}
+		assertEquals(List.of("B6", "B7", "B8", "B9"), l);
+	}
+
+	@Test
+	public void testSpillToDisk() throws IOException {
+		File spill = File.createTempFile("events", ".log");
+		spill.deleteOnExit();
+		EventLog el = EventLog.getInstance();
+		el.configure(2, EventLog.OverflowPolicy.SPILL_TO_DISK, spill.getPath());
+		el.clear();
+		el.logEvent(new Event("B1"));
+		el.logEvent(new Event("B2"));
+		el.logEvent(new Event("B3"));
+		List<String> lines = Files.readAllLines(spill.toPath());
+		assertTrue(lines.contains("Event log cleared."));
+		assertTrue(lines.contains("B1"));
+		assertFalse(lines.contains("B2"));
+		el.configure(EventLog.DEFAULT_CAPACITY, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
+	}
+
+	@Test
+	public void testIterateWhileLogging() throws Exception {
+		EventLog el = EventLog.getInstance();
+		el.configure(64, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
+		Thread[] producers = new Thread[4];
+		for (int p = 0; p < producers.length; p++) {
+			String prefix = "P" + p + ":";
+			producers[p] = new Thread(() -> {
+				for (int i = 0; i < 20000; i++) {
+					el.logEvent(new Event(prefix + i));
+				}
+			});
+			producers[p].start();
+		}
+		while (producers[0].isAlive()) {
+			List<Event> l = new ArrayList<>();
+			el.forEach(l::add);
+			assertTrue(l.size() <= 64);
+			assertTrue(l.stream().noneMatch(e -> e == null));
+		}
+		for (Thread t : producers) {
+			t.join();
+		}
+		List<Event> l = new ArrayList<>();
+		el.forEach(l::add);
+		assertEquals(64, l.size());
+	}
+
+	@Test
+	public void testTimeRangeQuery() {
+		EventLog el = EventLog.getInstance();
+		AtomicLong now = new AtomicLong();
+		el.setClock(() -> now.addAndGet(1000));
+		try {
+			el.clear();
+			for (int i = 0; i < 100; i++) {
+				el.logEvent(new Event("B" + i));
+			}
+			List<Event> l = el.getEvents(Instant.ofEpochSecond(0, 10_000), Instant.ofEpochSecond(0, 20_000));
+			assertEquals(10, l.size());
+			assertEquals("B8", l.get(0).getDescription());
+			assertEquals("B17", l.get(9).getDescription());
+			el.logEvent(new Event("B100"));
+			assertEquals(102, el.getEvents(Instant.MIN, Instant.MAX).size());
+			assertTrue(el.getEvents(Instant.MAX, Instant.MIN).isEmpty());
+		} finally {
+			el.setClock(EventClock.SYSTEM);
+		}
+	}
+
+	@Test
+	public void testTaskQuery() {
+		EventLog el = EventLog.getInstance();
+		AtomicLong now = new AtomicLong();
+		el.setClock(now::incrementAndGet);
+		el.clear();
+		assertTrue(el.getEvents("write").isEmpty());
+		ToDoList list = new ToDoList("Test");
+		Task t = new Task("write", "write report", 2);
+		list.addTask(t);
+		list.addTask(new Task("read", "read book", 1));
+		t.setPriority(5);
+		t.setName("draft");
+		t.setCompleted(true);
+		list.removeAllCompletedTasks();
+		List<Event> write = el.getEvents("write");
+		assertEquals(3, write.size());
+		assertEquals(EventOperation.TASK_ADDED, write.get(0).getOperation());
+		assertEquals(EventOperation.PRIORITY_CHANGED, write.get(1).getOperation());
+		assertEquals(EventOperation.NAME_CHANGED, write.get(2).getOperation());
+		List<Event> draft = el.getEvents("draft");
+		assertEquals(3, draft.size());
+		assertEquals(EventOperation.COMPLETED_TASK_REMOVED, draft.get(2).getOperation());
+		assertEquals(1, el.getEvents("read").size());
+		Instant from = write.get(1).getInstant();
+		assertEquals(write.subList(1, 3), el.getEvents("write", from, Instant.MAX));
+		el.setClock(EventClock.SYSTEM);
+	}
+
+	@Test
+	public void testQueriesSkipEvicted() throws IOException {
+		EventLog el = EventLog.getInstance();
+		el.configure(8, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
+		el.clear();
+		Task t = new Task("task", "", 0);
+		t.setPriority(1);
+		assertEquals(1, el.getEvents("task").size());
+		for (int i = 0; i < 8; i++) {
+			el.logEvent(new Event("B" + i));
+		}
+		assertTrue(el.getEvents("task").isEmpty());
+		assertEquals(8, el.getEvents(Instant.MIN, Instant.MAX).size());
+		t.setPriority(2);
+		assertEquals(1, el.getEvents("task").size());
+		el.configure(EventLog.DEFAULT_CAPACITY, EventLog.OverflowPolicy.OVERWRITE_OLDEST, null);
+	}
+
+	@Test
+	public void testSummaryLevelKeepsOnlySummaries() {
+		EventLog el = EventLog.getInstance();
+		ToDoList list = new ToDoList("list");
+		for (int i = 0; i < 5; i++) {
+			list.addTask(new Task("task" + i, "", LocalDateTime.MAX, 0, i % 2 == 0));
+		}
+		el.clear();
+		el.setLevel(EventLevel.SUMMARY);
+		try {
+			assertEquals(3, list.removeAllCompletedTasks().length);
+		} finally {
+			el.setLevel(EventLevel.DETAIL);
+		}
+		List<EventOperation> operations = new ArrayList<>();
+		Event last = null;
+		for (Event next : el) {
+			operations.add(next.getOperation());
+			last = next;
+		}
+		assertFalse(operations.contains(EventOperation.COMPLETED_TASK_REMOVED));
+		assertEquals(EventOperation.COMPLETED_TASKS_REMOVED, last.getOperation());
+		assertEquals("Removed 3 completed tasks", last.getDescription());
+	}
+
+	@Test
+	public void testDetailLevelLogsEachRemoval() {
+		EventLog el = EventLog.getInstance();
+		ToDoList list = new ToDoList("list");
+		list.addTask(new Task("a", "", LocalDateTime.MAX, 0, true));
+		list.addTask(new Task("b", "", LocalDateTime.MAX, 0, true));
+		el.clear();
+		list.removeAllCompletedTasks();
+		List<EventOperation> operations = new ArrayList<>();
+		for (Event next : el) {
+			operations.add(next.getOperation());
+		}
+		assertEquals(List.of(EventOperation.LOG_CLEARED, EventOperation.COMPLETED_TASK_REMOVED,
+				EventOperation.COMPLETED_TASK_REMOVED, EventOperation.COMPLETED_TASKS_REMOVED), operations);
+		el.clear();
+		list.removeAllCompletedTasks();
+		assertEquals(1, countEvents(el));
+	}
+
+	@Test
+	public void testSampling() {
+		EventLog el = EventLog.getInstance();
+		Task t = new Task("task", "", 0);
+		el.clear();
+		el.setSampling(EventOperation.PRIORITY_CHANGED, 4);
+		try {
+			for (int i = 0; i < 100; i++) {
+				t.setPriority(i % 5);
+			}
+			assertEquals(25, el.getEvents("task").size());
+			el.setSampling(EventOperation.PRIORITY_CHANGED, 0);
+			assertFalse(el.isLogged(EventOperation.PRIORITY_CHANGED));
+			t.setPriority(3);
+			assertEquals(25, el.getEvents("task").size());
+			t.setDescription("logged");
+			assertEquals(26, el.getEvents("task").size());
+		} finally {
+			el.setSampling(EventOperation.PRIORITY_CHANGED, 1);
+		}
+		assertTrue(el.isLogged(EventOperation.PRIORITY_CHANGED));
+	}
+
+	private int countEvents(EventLog el) {
+		int count = 0;
+		for (Event ignored : el) {
+			count++;
+		}
+		return count;
+	}
 }
@@ -3,10 +3,14 @@ package model;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
 import java.util.Calendar;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for the Event class
@@ -35,4 +39,86 @@ public class EventTest {
 	public void testToString() {
 		assertEquals(d.toString() + "\n" + "Sensor open at door", e.toString());
 	}
+
+	@Test
+	public void testTemplate() {
+		Event t = new Event("Task \"{}\" priority changed: {} -> {}", "a{}b", 1, 4);
+		assertEquals("Task \"a{}b\" priority changed: 1 -> 4", t.getDescription());
+		assertEquals("only {} and {}", new Event("only {} and {}").getDescription());
+		assertEquals("x -> {}", new Event("{} -> {}", "x").getDescription());
+		assertEquals("a b", new Event("{} {}", "a", "b", "c").getDescription());
+	}
+
+	@Test
+	public void testTemplateEquality() {
+		Event t = new Event("Sensor {} at {}", "open", "door");
+		Event plain = new Event("Sensor open at door");
+		if (t.getDate().equals(plain.getDate())) {
+			assertEquals(plain, t);
+			assertEquals(plain.hashCode(), t.hashCode());
+		}
+		assertNotEquals(new Event("Sensor {} at {}", "open", "window"), t);
+		assertEquals(t.getDate().toString() + "\n" + "Sensor open at door", t.toString());
+	}
+
+	@Test
+	public void testFakeClock() {
+		EventLog el = EventLog.getInstance();
+		long nanos = 1_700_000_000_123_456_789L;
+		el.setClock(() -> nanos);
+		try {
+			Event fake = new Event("tick");
+			assertEquals(nanos, fake.getEpochNanos());
+			assertEquals(Instant.ofEpochSecond(1_700_000_000L, 123_456_789L), fake.getInstant());
+			assertEquals(new Date(1_700_000_000_123L), fake.getDate());
+			assertEquals(new Event("tick"), fake);
+			assertEquals(new Event("tick").hashCode(), fake.hashCode());
+		} finally {
+			el.setClock(EventClock.SYSTEM);
+		}
+	}
+
+	@Test
+	public void testCachedMillisClock() throws InterruptedException {
+		EventClock cached = EventClock.cachedMillis();
+		long before = System.currentTimeMillis();
+		long first = cached.epochNanos();
+		assertEquals(0, first % EventClock.NANOS_PER_MILLI);
+		Thread.sleep(20);
+		long second = cached.epochNanos();
+		assertTrue(second > first);
+		assertTrue(Math.abs(second / EventClock.NANOS_PER_MILLI - before) < 1000);
+	}
+
+	@Test
+	public void testTypedEvent() {
+		Event typed = new Event(EventOperation.PRIORITY_CHANGED, "task", 1, 4);
+		assertEquals(EventOperation.PRIORITY_CHANGED, typed.getOperation());
+		assertEquals("task", typed.getTaskName());
+		assertEquals(1, typed.getOldValue());
+		assertEquals(4, typed.getNewValue());
+		assertEquals("Task \"task\" priority changed: 1 -> 4", typed.getDescription());
+		assertEquals("Task name changed: a -> b",
+				new Event(EventOperation.NAME_CHANGED, "a", "a", "b").getDescription());
+		assertEquals("Event log cleared.", new Event(EventOperation.LOG_CLEARED, null, null, null).getDescription());
+		assertEquals(EventOperation.MESSAGE, e.getOperation());
+		assertEquals("Sensor open at door", e.getNewValue());
+		assertEquals("x 1", new Event("{} {}", "x", 1).getNewValue());
+	}
+
+	@Test
+	public void testTaskEmitsTypedEvents() {
+		EventLog el = EventLog.getInstance();
+		Task t = new Task("task", "description", 2);
+		LocalDateTime deadline = LocalDateTime.of(2030, 1, 2, 3, 4);
+		el.clear();
+		t.setDeadline(deadline);
+		Event last = null;
+		for (Event next : el) {
+			last = next;
+		}
+		assertEquals(EventOperation.DEADLINE_CHANGED, last.getOperation());
+		assertEquals(LocalDateTime.MAX, last.getOldValue());
+		assertEquals(deadline, last.getNewValue());
+	}
 }
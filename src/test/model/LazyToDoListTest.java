@@ -0,0 +1,106 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LazyToDoListTest {
+    private List<Integer> reads;
+    private TaskSource source;
+    private LazyToDoList list;
+
+    @BeforeEach
+    void runBefore() {
+        reads = new ArrayList<>();
+        source = new TaskSource() {
+            @Override
+            public int getTaskCount() {
+                return 100;
+            }
+
+            @Override
+            public Task readTask(int index) {
+                reads.add(index);
+                return new Task("task " + index, "description " + index, LocalDateTime.MAX, index % 6,
+                        index % 2 == 0);
+            }
+        };
+        list = new LazyToDoList("Lazy", source, 10);
+    }
+
+    @Test
+    void testReadsOnlyRowsAskedFor() {
+        assertEquals(100, list.getSize());
+        assertFalse(list.isEmpty());
+        assertTrue(reads.isEmpty());
+        Task task = list.getTask(42);
+        assertEquals("task 42", task.getName());
+        assertSame(task, list.getTask(42));
+        assertEquals(42, list.getTaskIndex(task));
+        assertNull(list.getTask(100));
+        assertEquals(List.of(42), reads);
+        assertFalse(list.isLoaded());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        Task first = list.getTask(0);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("task " + i, list.getTask(i).getName());
+        }
+        assertEquals(10, list.getTasksInMemory());
+        assertEquals(-1, list.getTaskIndex(first));
+        assertNotSame(first, list.getTask(0));
+        first.setPriority(5);
+        assertEquals(0, list.getTask(0).getPriority());
+    }
+
+    @Test
+    void testModifiedTasksAreKept() {
+        List<String> changes = new ArrayList<>();
+        list.addChangeListener(change -> changes.add(change.toString()));
+        UndoHistory history = new UndoHistory(list);
+        Task task = list.getTask(3);
+        task.setDescription("changed");
+        task.setName("renamed");
+        for (int i = 10; i < 100; i++) {
+            list.getTask(i);
+        }
+        assertSame(task, list.getTask(3));
+        assertEquals(List.of("UPDATE 3", "UPDATE 3"), changes);
+        history.undo();
+        assertEquals("task 3", list.getTask(3).getName());
+        assertFalse(list.isLoaded());
+    }
+
+    @Test
+    void testChangingListLoadsEveryTask() {
+        Task kept = list.getTask(7);
+        kept.setPriority(5);
+        assertEquals(7, list.getTaskIndex("task 7"));
+        assertTrue(list.isLoaded());
+        assertEquals(100, reads.size());
+        assertSame(kept, list.getTask(7));
+        assertEquals(5, list.getTask("task 7").getPriority());
+        list.removeAllCompletedTasks();
+        assertEquals(50, list.getSize());
+        assertEquals("task 1", list.getTask(0).getName());
+        assertEquals(100, reads.size());
+    }
+
+    @Test
+    void testIteratesWithoutLoading() {
+        int count = 0;
+        for (Task t : list) {
+            assertEquals("task " + count++, t.getName());
+        }
+        assertEquals(100, count);
+        assertFalse(list.isLoaded());
+        assertTrue(list.toString().startsWith("Task Name: task 0"));
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListChangeTest {
+    private ToDoList list;
+    private List<ListChange> changes;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList("Test");
+        changes = new ArrayList<>();
+        list.addChangeListener(changes::add);
+    }
+
+    // EFFECTS: returns the changes told so far as strings, and forgets them
+    private List<String> told() {
+        List<String> described = new ArrayList<>();
+        for (ListChange c : changes) {
+            described.add(c.toString());
+        }
+        changes.clear();
+        return described;
+    }
+
+    @Test
+    void testOneChangePerOperation() {
+        list.addTask(new Task("a", "", 1));
+        list.addAllTasks(Arrays.asList(new Task("b", "", 3), new Task("c", "", LocalDateTime.MAX, 2, true),
+                new Task("d", "", LocalDateTime.MAX, 0, true)));
+        assertEquals(List.of("INSERT 0", "INSERT 1-3"), told());
+        list.getTask("a").setDescription("changed");
+        list.setName("quiet");
+        assertEquals(List.of("UPDATE 0"), told());
+        list.sortByPriority();
+        assertEquals(List.of("PERMUTE 0-2"), told());
+        list.sortByPriority();
+        assertEquals(List.of(), told());
+        list.removeAllCompletedTasks();
+        list.removeTask("a");
+        list.removeAllTasks();
+        list.removeAllTasks();
+        assertEquals(List.of("DELETE 1, 3", "DELETE 1", "DELETE 0"), told());
+    }
+
+    @Test
+    void testKeptSortedChanges() {
+        list.addAllTasks(Arrays.asList(new Task("b", "", 1), new Task("d", "", 1), new Task("a", "", 1)));
+        list.sortByName();
+        changes.clear();
+        list.setKeepSorted(true);
+        assertEquals(List.of(), told());
+        list.addAllTasks(Arrays.asList(new Task("c", "", 1), new Task("e", "", 1), new Task("0", "", 1)));
+        assertEquals(List.of("INSERT 0, 3, 5"), told());
+        list.getTask("e").setName("aa");
+        ListChange moved = changes.get(0);
+        assertEquals(List.of("PERMUTE 2-5"), told());
+        assertEquals(5, moved.getOldIndex(2));
+        assertEquals(2, moved.getOldIndex(3));
+        assertEquals(4, moved.getOldIndex(5));
+    }
+
+    @Test
+    void testPermutedOldIndices() {
+        list.addAllTasks(Arrays.asList(new Task("a", "", 1), new Task("c", "", 1), new Task("b", "", 1),
+                new Task("d", "", 1)));
+        changes.clear();
+        list.sortByName();
+        ListChange sorted = changes.get(0);
+        assertEquals(ListChange.Type.PERMUTE, sorted.getType());
+        assertEquals(1, sorted.getRunCount());
+        assertEquals(1, sorted.getFirst(0));
+        assertEquals(2, sorted.getLast(0));
+        assertEquals(2, sorted.getOldIndex(1));
+        assertEquals(1, sorted.getOldIndex(2));
+        assertNull(ListChange.permuted(new int[] {0, 1, 2}));
+        assertEquals("UPDATE 4", ListChange.moved(4, 4).toString());
+        assertEquals("PERMUTE 1-4", ListChange.moved(4, 1).toString());
+    }
+
+    @Test
+    void testRestoreReplaces() {
+        ToDoList copy = new ToDoList();
+        list.addTask(new Task("a", "", 1));
+        copy.addChangeListener(changes::add);
+        changes.clear();
+        list.checkpoint().applyTo(copy);
+        assertEquals(List.of("REPLACE"), told());
+    }
+
+    @Test
+    void testRemovedListenerNotTold() {
+        ListChangeListener listener = changes::add;
+        list.addChangeListener(listener);
+        list.addTask(new Task("a", "", 1));
+        assertEquals(2, changes.size());
+        list.removeChangeListener(listener);
+        list.addTask(new Task("b", "", 1));
+        assertEquals(3, changes.size());
+    }
+
+    @Test
+    void testConcurrentListToldAfterPublishing() {
+        ConcurrentToDoList shared = new ConcurrentToDoList("Shared");
+        List<Integer> sizes = new ArrayList<>();
+        shared.addChangeListener(change -> sizes.add(shared.getSize()));
+        shared.addTask(new Task("a", "", 1));
+        shared.addAllTasks(Arrays.asList(new Task("b", "", 1), new Task("c", "", 1)));
+        shared.removeTask("b");
+        shared.getTask("c").setPriority(3);
+        assertEquals(List.of(1, 3, 2, 2), sizes);
+    }
+}
@@ -0,0 +1,108 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MutationTest {
+    private ToDoList list;
+    private List<Mutation> recorded;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList("Test");
+        recorded = new ArrayList<>();
+        list.setMutationListener(recorded::add);
+    }
+
+    // EFFECTS: replays every recorded change on a new to-do list and checks it ends up the same as list
+    private void assertReplays() {
+        ToDoList replayed = new ToDoList();
+        for (Mutation m : recorded) {
+            m.applyTo(replayed);
+        }
+        assertSame(list, replayed);
+    }
+
+    static void assertSame(ToDoList expected, ToDoList actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.isKeepSorted(), actual.isKeepSorted());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    void testRecordsEveryChange() {
+        list.setName("Renamed");
+        list.addTask(new Task("a", "first", LocalDateTime.of(2030, 1, 1, 9, 0), 1));
+        list.addAllTasks(Arrays.asList(new Task("b", "second", 5), new Task("c", "third", 3)));
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        list.getTask("a").setPriority(4);
+        list.getTask("c").setCompleted(true);
+        list.removeAllCompletedTasks();
+        list.getTask("b").setName("a");
+        list.removeTask("a");
+        assertEquals(List.of(Mutation.Type.SET_NAME, Mutation.Type.ADD, Mutation.Type.ADD, Mutation.Type.SORT,
+                Mutation.Type.KEEP_SORTED, Mutation.Type.MODIFY, Mutation.Type.MODIFY, Mutation.Type.REMOVE,
+                Mutation.Type.MODIFY, Mutation.Type.REMOVE), types());
+        assertReplays();
+        list.removeAllTasks();
+        assertReplays();
+    }
+
+    @Test
+    void testNoChangeNoRecord() {
+        assertFalse(list.addTask(new Task("a", "a", 1)) && list.addTask(new Task("a", "again", 1)));
+        recorded.clear();
+        list.getTask("a").setPriority(9);
+        list.removeTask("missing");
+        list.removeAllOverdueTasks();
+        assertTrue(recorded.isEmpty());
+        list.setMutationListener(null);
+        list.setName("quiet");
+        assertTrue(recorded.isEmpty());
+    }
+
+    @Test
+    void testCheckpointKeepsSharedNamesAndOrder() {
+        list.addTask(new Task("a", "first", 1));
+        list.addTask(new Task("b", "second", 2));
+        list.sortByName();
+        list.getTask("b").setName("a");
+        list.getTask(0).setName("z");
+        ToDoList copy = new ToDoList();
+        list.checkpoint().applyTo(copy);
+        assertSame(list, copy);
+        assertEquals(1, copy.getTaskIndex("a"));
+        copy.setKeepSorted(true);
+        assertEquals("a", copy.getTask(0).getName());
+        assertEquals("z", copy.getTask(1).getName());
+    }
+
+    @Test
+    void testReplayOnConcurrentToDoList() {
+        list.addAllTasks(Arrays.asList(new Task("a", "first", 1), new Task("b", "second", 2)));
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        list.getTask("a").setPriority(5);
+        ConcurrentToDoList replayed = new ConcurrentToDoList("Test");
+        for (Mutation m : recorded) {
+            m.applyTo(replayed);
+        }
+        assertSame(list, replayed);
+    }
+
+    private List<Mutation.Type> types() {
+        List<Mutation.Type> types = new ArrayList<>();
+        for (Mutation m : recorded) {
+            types.add(m.getType());
+        }
+        return types;
+    }
+}
@@ -0,0 +1,42 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartialOrderingTest {
+
+    @Test
+    void testMatchesStableSort() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        Random random = new Random(210);
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(new Task("task " + i, "description", LocalDateTime.of(2022, 1, 1, 0, 0)
+                    .plusHours(random.nextInt(50)), random.nextInt(6), random.nextBoolean()));
+        }
+        for (SortOrder order : SortOrder.values()) {
+            ArrayList<Task> expected = new ArrayList<>(tasks);
+            expected.sort(order);
+            PartialOrdering ordering = new PartialOrdering(tasks, order);
+            assertEquals(2000, ordering.size());
+            assertSame(expected.get(9), ordering.get(9));
+            assertEquals(10, ordering.getSortedCount());
+            assertSame(expected.get(3), ordering.get(3));
+            assertEquals(10, ordering.getSortedCount());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), ordering.get(i));
+            }
+        }
+    }
+
+    @Test
+    void testEmpty() {
+        PartialOrdering ordering = new PartialOrdering(new ArrayList<>(), SortOrder.NAME);
+        assertEquals(0, ordering.size());
+        assertEquals(0, ordering.getSortedCount());
+    }
+}
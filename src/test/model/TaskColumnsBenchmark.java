@@ -0,0 +1,75 @@
+package model;
+
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+// Represents a benchmark comparing the heap used by a to-do list kept as Task objects with that used by the same
+// tasks kept in TaskColumns behind a LazyToDoList. Run as a program, not as a test: the first argument is the number
+// of tasks (default 1000000). Tasks have unique names, one of 100 descriptions, a deadline and a priority. Run with a
+// heap large enough for both, e.g. -Xmx2g.
+public final class TaskColumnsBenchmark {
+    private static final int DEFAULT_TASKS = 1_000_000;
+    private static final int DESCRIPTIONS = 100;
+    private static final LocalDateTime FIRST_DEADLINE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private TaskColumnsBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        EventLog.getInstance().clear();
+        report("ToDoList of Task objects", size, measure(() -> {
+            ToDoList list = new ToDoList("objects");
+            list.addAllTasks(tasks(size));
+            return list;
+        }));
+        EventLog.getInstance().clear();
+        report("TaskColumns behind LazyToDoList", size, measure(() -> {
+            TaskColumns columns = new TaskColumns();
+            for (int i = 0; i < size; i++) {
+                columns.add(task(i));
+            }
+            return columns.asToDoList("columns", LazyToDoList.DEFAULT_CACHE_SIZE);
+        }));
+    }
+
+    // EFFECTS: returns size tasks made by task
+    private static List<Task> tasks(int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(task(i));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns task number i
+    private static Task task(int i) {
+        return new Task("task " + i, "description " + i % DESCRIPTIONS, FIRST_DEADLINE.plusMinutes(i), i % 6);
+    }
+
+    // EFFECTS: returns the number of bytes the heap grows by while keeping what build returns
+    private static long measure(Supplier<Object> build) {
+        long before = usedHeap();
+        Object built = build.get();
+        long after = usedHeap();
+        Reference.reachabilityFence(built);
+        return after - before;
+    }
+
+    // EFFECTS: returns the number of bytes of heap in use after collecting garbage
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // EFFECTS: prints bytes used by size tasks kept as described by layout, in total and per task
+    private static void report(String layout, int size, long bytes) {
+        System.out.println(layout + ": " + bytes / (1 << 20) + " MiB, " + bytes / size + " B/task");
+    }
+}
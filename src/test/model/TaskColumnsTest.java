@@ -0,0 +1,120 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskColumnsTest {
+    private TaskColumns columns;
+    private Task t1, t2, t3;
+
+    @BeforeEach
+    void runBefore() {
+        columns = new TaskColumns();
+        t1 = new Task("task 1", "testing task 1",
+                LocalDateTime.of(2025, 10, 12, 23, 10), 5, true);
+        t2 = new Task("task 2", "Different task");
+        t3 = new Task("task 3", "Definitely overdue", LocalDateTime.MIN, 2);
+    }
+
+    @Test
+    void testAddAndGet() {
+        assertEquals(0, columns.size());
+        assertEquals(0, columns.add(t1));
+        assertEquals(1, columns.add(t2));
+        assertEquals(2, columns.add(t3));
+        assertEquals(3, columns.size());
+        checkRow(t1, 0);
+        checkRow(t2, 1);
+        checkRow(t3, 2);
+        assertEquals(TaskColumns.NO_DEADLINE, columns.getDeadlineMinute(1));
+    }
+
+    @Test
+    void testSetters() {
+        columns.add(t1);
+        columns.setName(0, "renamed");
+        columns.setDescription(0, "new description");
+        columns.setDeadline(0, LocalDateTime.MAX);
+        columns.setPriority(0, 1);
+        columns.setPriority(0, 6);
+        columns.setCompleted(0, false);
+        checkRow(new Task("renamed", "new description", LocalDateTime.MAX, 1, false), 0);
+    }
+
+    @Test
+    void testGrow() {
+        for (int i = 0; i < 100; i++) {
+            columns.add(new Task("task " + i, "description", i % 6));
+        }
+        assertEquals(100, columns.size());
+        assertEquals("task 99", columns.getName(99));
+        assertEquals(3, columns.getPriority(99));
+    }
+
+    @Test
+    void testToDoListRoundTrip() {
+        ToDoList list = new ToDoList("Test");
+        list.addTask(t1);
+        list.addTask(t2);
+        list.addTask(t3);
+        ToDoList copy = TaskColumns.of(list).toToDoList("Copy");
+        assertEquals("Copy", copy.getName());
+        assertEquals(3, copy.getSize());
+        assertEquals(t1.toString(), copy.getTask(0).toString());
+        assertEquals(t2.toString(), copy.getTask(1).toString());
+        assertEquals(t3.getDeadline(), copy.getTask("task 3").getDeadline());
+    }
+
+    @Test
+    void testStringsAreShared() {
+        columns.add(t1);
+        columns.add(new Task("task 4", "testing task 1"));
+        assertEquals(3, columns.getDistinctStrings());
+        columns.setDescription(0, "changed");
+        assertEquals(4, columns.getDistinctStrings());
+        columns.setDescription(1, "changed");
+        assertEquals(3, columns.getDistinctStrings());
+        columns.setName(1, "task 5");
+        columns.setName(0, "task 5");
+        assertEquals(2, columns.getDistinctStrings());
+        columns.add(t2);
+        assertEquals("task 2", columns.getName(2));
+        assertEquals("task 5", columns.getName(0));
+        assertEquals("changed", columns.getDescription(1));
+    }
+
+    @Test
+    void testAsToDoList() {
+        for (int i = 0; i < 100; i++) {
+            columns.add(new Task("task " + i, "description", i % 6));
+        }
+        LazyToDoList list = columns.asToDoList("Columns", 10);
+        assertEquals("Columns", list.getName());
+        assertEquals(100, list.getSize());
+        int i = 0;
+        for (Task t : list) {
+            assertEquals("task " + i, t.getName());
+            assertEquals(i++ % 6, t.getPriority());
+        }
+        assertTrue(list.getTasksInMemory() <= 10);
+        list.getTask(42).setPriority(5);
+        list.sortByPriority();
+        assertTrue(list.isLoaded());
+        assertEquals(5, list.getTask("task 42").getPriority());
+        assertEquals(5, list.getTask(0).getPriority());
+        assertEquals(0, columns.getPriority(42));
+    }
+
+    private void checkRow(Task expected, int row) {
+        assertEquals(expected.getName(), columns.getName(row));
+        assertEquals(expected.getDescription(), columns.getDescription(row));
+        assertEquals(expected.getDeadline(), columns.getDeadline(row));
+        assertEquals(expected.getPriority(), columns.getPriority(row));
+        assertEquals(expected.isCompleted(), columns.isCompleted(row));
+        assertEquals(expected.toString(), columns.toTask(row).toString());
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskQueryTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 3, 1, 12, 0);
+
+    private ToDoList list;
+    private Task t1, t2, t3, t4, t5;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList();
+        t1 = new Task("call mom", "weekly", NOW.plusHours(3), 5);
+        t2 = new Task("call bank", "card", NOW.plusHours(30), 4, true);
+        t3 = new Task("essay", "english", NOW.plusHours(47), 4);
+        t4 = new Task("exam", "math", NOW.plusDays(7), 5);
+        t5 = new Task("laundry", "none", 1);
+        list.addAllTasks(Arrays.asList(t1, t2, t3, t4, t5));
+    }
+
+    @Test
+    void testMatches() {
+        assertTrue(new TaskQuery().matches(t5));
+        assertTrue(new TaskQuery().priorityAtLeast(4).priorityAtMost(4).completed(true).matches(t2));
+        assertFalse(new TaskQuery().completed(false).matches(t2));
+        assertTrue(new TaskQuery().dueBefore(NOW.plusHours(4)).matches(t1));
+        assertFalse(new TaskQuery().dueBetween(NOW, NOW.plusHours(3)).matches(t1));
+        assertTrue(new TaskQuery().nameStartsWith("ex").matches(t4));
+    }
+
+    @Test
+    void testQueryByIndexes() {
+        assertEquals(set(t1, t2, t3, t4, t5), query(new TaskQuery()));
+        assertEquals(set(t1, t3), query(new TaskQuery().completed(false).priorityAtLeast(4)
+                .dueBetween(NOW, NOW.plusHours(48))));
+        assertEquals(set(t1, t4), query(new TaskQuery().priorityAtLeast(5)));
+        assertEquals(set(t2), query(new TaskQuery().completed(true)));
+        assertEquals(set(t1, t2), query(new TaskQuery().nameStartsWith("call")));
+        assertEquals(set(t2, t3), query(new TaskQuery().dueBetween(NOW.plusHours(4), NOW.plusHours(48))));
+        assertEquals(set(), query(new TaskQuery().nameStartsWith("z")));
+    }
+
+    @Test
+    void testQueryAfterChanges() {
+        assertEquals(set(t1, t2), query(new TaskQuery().nameStartsWith("call")));
+        t3.setName("call dad");
+        t1.setCompleted(true);
+        t5.setDeadline(NOW.plusHours(1));
+        t5.setPriority(5);
+        list.removeTask("call bank");
+        Task t6 = new Task("call school", "form", NOW.plusHours(2), 5);
+        list.addTask(t6);
+        assertEquals(set(t3, t6), query(new TaskQuery().nameStartsWith("call").completed(false)));
+        assertEquals(set(t5, t6), query(new TaskQuery().priorityAtLeast(5).dueBefore(NOW.plusHours(3))));
+        assertEquals(set(t4, t5, t6), query(new TaskQuery().priorityAtLeast(5).completed(false)));
+        list.removeAllTasks();
+        assertEquals(set(), query(new TaskQuery()));
+        list.addTask(t2);
+        assertEquals(set(t2), query(new TaskQuery().completed(true)));
+    }
+
+    @Test
+    void testQueryLargeList() {
+        list.removeAllTasks();
+        for (int i = 0; i < 1000; i++) {
+            list.addTask(new Task("task " + i, "description", NOW.plusHours(i), i % 6, i % 2 == 0));
+        }
+        assertEquals(5, list.query(new TaskQuery().dueBetween(NOW, NOW.plusHours(5))).count());
+        assertEquals(166, list.query(new TaskQuery().priorityAtLeast(5)).count());
+        assertEquals(1, list.query(new TaskQuery().nameStartsWith("task 999")).count());
+        assertEquals(0, list.query(new TaskQuery().completed(true).priorityAtLeast(5)).count());
+    }
+
+    private Set<Task> query(TaskQuery query) {
+        return list.query(query).collect(Collectors.toSet());
+    }
+
+    private Set<Task> set(Task... tasks) {
+        return new HashSet<>(Arrays.asList(tasks));
+    }
+}
@@ -0,0 +1,61 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Represents a benchmark comparing TaskSorter with sorting an ArrayList by comparator, as sortBy did before, for each
+// sort order. Run as a program, not as a test: the first argument is the number of tasks (default 2000000) and the
+// second the number of runs (default 5); the best time of all runs is printed for each way of sorting.
+public final class TaskSorterBenchmark {
+    private static final int DEFAULT_TASKS = 2_000_000;
+    private static final int DEFAULT_RUNS = 5;
+    private static final LocalDateTime FIRST_DEADLINE = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    private TaskSorterBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASKS;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RUNS;
+        List<Task> tasks = randomTasks(size, new Random(42));
+        System.out.println(size + " tasks, best of " + runs + " runs, "
+                + Runtime.getRuntime().availableProcessors() + " cores");
+        for (SortOrder order : SortOrder.values()) {
+            long comparator = best(runs, tasks, copy -> copy.sort(order));
+            long sorter = best(runs, tasks, copy -> TaskSorter.sort(copy, order, order.getKeys()));
+            System.out.println(order.getLabel() + ": " + comparator + " ms -> " + sorter + " ms");
+        }
+    }
+
+    // EFFECTS: returns size tasks with random names, deadlines in whole minutes or none, priorities and completed
+    //          statuses drawn from random
+    private static List<Task> randomTasks(int size, Random random) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            LocalDateTime deadline = random.nextInt(10) == 0 ? LocalDateTime.MAX
+                    : FIRST_DEADLINE.plusMinutes(random.nextInt(10 * 365 * 24 * 60));
+            tasks.add(new Task("task " + random.nextInt(size), "description", deadline, random.nextInt(6),
+                    random.nextBoolean()));
+        }
+        return tasks;
+    }
+
+    // EFFECTS: runs sort on a fresh copy of tasks runs times and returns the fastest run in milliseconds
+    private static long best(int runs, List<Task> tasks, Sort sort) {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            ArrayList<Task> copy = new ArrayList<>(tasks);
+            long start = System.nanoTime();
+            sort.sort(copy);
+            best = Math.min(best, (System.nanoTime() - start) / 1_000_000);
+        }
+        return best;
+    }
+
+    // Represents a way of sorting a list of tasks
+    private interface Sort {
+        void sort(ArrayList<Task> tasks);
+    }
+}
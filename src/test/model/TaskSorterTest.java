@@ -0,0 +1,93 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TaskSorterTest {
+    private ArrayList<Task> tasks;
+
+    @BeforeEach
+    void runBefore() {
+        tasks = new ArrayList<>();
+        Random random = new Random(210);
+        LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime deadline;
+            int choice = random.nextInt(10);
+            if (choice == 0) {
+                deadline = LocalDateTime.MAX;
+            } else if (choice == 1) {
+                deadline = LocalDateTime.MIN;
+            } else {
+                deadline = start.plusMinutes(random.nextInt(500));
+            }
+            tasks.add(new Task("task " + random.nextInt(1000), "description " + i, deadline,
+                    random.nextInt(6), random.nextBoolean()));
+        }
+    }
+
+    @Test
+    void testDeadlineKey() {
+        assertEquals(0, TaskSorter.deadlineKey(LocalDateTime.MIN));
+        assertTrue(TaskSorter.deadlineKey(LocalDateTime.of(0, 1, 1, 0, 0)) > 0);
+        assertTrue(TaskSorter.deadlineKey(LocalDateTime.of(2022, 1, 1, 0, 0))
+                < TaskSorter.deadlineKey(LocalDateTime.of(2022, 1, 1, 0, 1)));
+        assertTrue(TaskSorter.deadlineKey(LocalDateTime.of(9999, 12, 31, 23, 59))
+                < TaskSorter.deadlineKey(LocalDateTime.MAX));
+        assertEquals(-1, TaskSorter.deadlineKey(LocalDateTime.of(2022, 1, 1, 0, 0, 30)));
+        assertEquals(-1, TaskSorter.deadlineKey(LocalDateTime.of(-1, 1, 1, 0, 0)));
+        assertEquals(-1, TaskSorter.deadlineKey(LocalDateTime.of(100000, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void testSortByPriority() {
+        checkSameAsComparator(new PriorityComparator(), TaskSorter.BY_PRIORITY);
+    }
+
+    @Test
+    void testSortByDeadline() {
+        checkSameAsComparator(new DeadlineComparator(), TaskSorter.BY_DEADLINE);
+    }
+
+    @Test
+    void testSortByIsCompleted() {
+        checkSameAsComparator(new IsCompleteComparator(), TaskSorter.BY_IS_COMPLETED);
+    }
+
+    @Test
+    void testSortByName() {
+        checkSameAsComparator(new NameComparator(), null);
+    }
+
+    @Test
+    void testSortFallsBackForUnpackableDeadline() {
+        tasks.get(42).setDeadline(LocalDateTime.of(2022, 1, 1, 3, 0, 1));
+        checkSameAsComparator(new DeadlineComparator(), TaskSorter.BY_DEADLINE);
+        checkSameAsComparator(new IsCompleteComparator(), TaskSorter.BY_IS_COMPLETED);
+    }
+
+    @Test
+    void testSortEmpty() {
+        tasks.clear();
+        TaskSorter.sort(tasks, new PriorityComparator(), TaskSorter.BY_PRIORITY);
+        assertTrue(tasks.isEmpty());
+    }
+
+    // EFFECTS: checks that sorting with keys gives exactly the order of a stable sort with order
+    private void checkSameAsComparator(Comparator<Task> order, TaskSorter.KeyFunction keys) {
+        ArrayList<Task> expected = new ArrayList<>(tasks);
+        expected.sort(order);
+        TaskSorter.sort(tasks, order, keys);
+        assertEquals(expected.size(), tasks.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), tasks.get(i));
+        }
+    }
+}
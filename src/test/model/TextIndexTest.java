@@ -0,0 +1,69 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextIndexTest {
+    private ToDoList list;
+    private Task t1, t2, t3, t4;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList();
+        t1 = new Task("Math homework", "Problem set 4, calculus");
+        t2 = new Task("Read", "Chapter 4 of the math textbook");
+        t3 = new Task("Groceries", "Milk, eggs, bread");
+        t4 = new Task("Math exam", "Study calculus and algebra, math review");
+        list.addAllTasks(Arrays.asList(t1, t2, t3, t4));
+    }
+
+    @Test
+    void testTokenize() {
+        assertEquals(Arrays.asList("milk", "eggs", "bread"), TextIndex.tokenize("Milk, eggs,  bread!"));
+        assertEquals(Arrays.asList(), TextIndex.tokenize(" -- "));
+    }
+
+    @Test
+    void testSearchAll() {
+        assertEquals(Arrays.asList(t4, t1), list.search("math calculus", true));
+        assertEquals(Arrays.asList(t3), list.search("EGGS", true));
+        assertEquals(Arrays.asList(), list.search("math eggs", true));
+        assertEquals(Arrays.asList(), list.search("  ", true));
+    }
+
+    @Test
+    void testSearchAny() {
+        List<Task> found = list.search("math eggs", false);
+        assertEquals(4, found.size());
+        assertEquals(t4, found.get(0));
+        assertEquals(t2, found.get(found.size() - 1));
+    }
+
+    @Test
+    void testSearchPrefix() {
+        assertEquals(Arrays.asList(t4, t1), list.search("calc*", true));
+        assertEquals(Arrays.asList(t4, t1, t2), list.search("mat* 4* alg*", false).subList(0, 3));
+        assertEquals(Arrays.asList("math", "milk"), list.suggestWords("M", 5));
+        assertEquals(Arrays.asList("math"), list.suggestWords("m", 1));
+    }
+
+    @Test
+    void testSearchAfterChanges() {
+        assertEquals(Arrays.asList(t3), list.search("milk", true));
+        t3.setDescription("Oat milk");
+        t1.setName("Physics homework");
+        list.removeTask("Read");
+        Task t5 = new Task("Buy milk", "corner store");
+        list.addTask(t5);
+        assertEquals(Arrays.asList(t5, t3), list.search("milk", true));
+        assertEquals(Arrays.asList(t4), list.search("math", true));
+        assertEquals(Arrays.asList(), list.search("textbook eggs", false));
+        list.removeAllTasks();
+        assertEquals(Arrays.asList(), list.search("milk", false));
+    }
+}
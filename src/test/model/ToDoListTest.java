@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -41,10 +42,48 @@ public class ToDoListTest {
         assertTrue(list.addTask(t5));
     }
 
+    @Test
+    void testAddAllTasks() {
+        list.addTask(t3);
+        assertEquals(3, list.addAllTasks(Arrays.asList(t1, t2, t3, t4, t5)));
+        assertEquals(4, list.getSize());
+        assertEquals(t1, list.getTask("task 1"));
+        assertEquals(1, list.getTaskIndex("task 1"));
+        assertEquals(3, list.getTaskIndex("task 5"));
+        assertEquals(0, list.addAllTasks(new ArrayList<>()));
+    }
+
+    @Test
+    void testAddAllTasksKeepSorted() {
+        list.addTask(t3);
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        assertEquals(3, list.addAllTasks(Arrays.asList(t5, t4, t1)));
+        assertEquals(0, list.getTaskIndex("task 1"));
+        assertEquals(1, list.getTaskIndex("task 4"));
+        assertEquals(2, list.getTaskIndex("task 5"));
+        assertEquals(3, list.getTaskIndex("task 3"));
+    }
+
+    @Test
+    void testAddTaskOfAnotherList() {
+        ToDoList other = new ToDoList("Other");
+        other.addTask(t1);
+        assertFalse(list.addTask(t1));
+        assertEquals(1, list.addAllTasks(Arrays.asList(t1, t3)));
+        assertFalse(list.containsTask("task 1"));
+        t1.setName("renamed");
+        assertEquals(t1, other.getTask("renamed"));
+        assertEquals(0, other.getTaskIndex(t1));
+        other.removeTask("renamed");
+        assertTrue(list.addTask(t1));
+        assertEquals(1, list.getTaskIndex(t1));
+    }
+
     @Test
     void testRemoveTask() {
-        ArrayList<Integer> removedIndex = list.removeTask("task 1");
-        assertEquals(0, removedIndex.size());
+        int[] removedIndex = list.removeTask("task 1");
+        assertEquals(0, removedIndex.length);
 
         list.addTask(t1);
         list.addTask(t3);
@@ -67,8 +106,8 @@ public class ToDoListTest {
 
     @Test
     void testRemoveAllCompletedTasks() {
-        ArrayList<Integer> removedIndex = list.removeAllCompletedTasks();
-        assertEquals(0, removedIndex.size());
+        int[] removedIndex = list.removeAllCompletedTasks();
+        assertEquals(0, removedIndex.length);
 
         t1.setCompleted(true);
         t3.setCompleted(true);
@@ -84,10 +123,26 @@ public class ToDoListTest {
         assertTrue(list.containsTask("task 5"));
     }
 
+    @Test
+    void testRemoveAllCompletedTasksIndices() {
+        t3.setCompleted(true);
+        t5.setCompleted(true);
+        list.addTask(t1);
+        list.addTask(t3);
+        list.addTask(t4);
+        list.addTask(t5);
+        int[] removedIndex = list.removeAllCompletedTasks();
+        assertArrayEquals(new int[] {1, 3}, removedIndex);
+        assertEquals(2, list.getSize());
+        assertEquals(t1, list.getTask(0));
+        assertEquals(t4, list.getTask(1));
+        assertEquals(1, list.getTaskIndex("task 4"));
+    }
+
     @Test
     void testRemoveAllOverdueTasks() {
-        ArrayList<Integer> removedIndex = list.removeAllOverdueTasks();
-        assertEquals(0, removedIndex.size());
+        int[] removedIndex = list.removeAllOverdueTasks();
+        assertEquals(0, removedIndex.length);
 
         list.addTask(t1);
         list.addTask(t3);
@@ -150,6 +205,63 @@ public class ToDoListTest {
         assertEquals(-1, list.getTaskIndex("task 5"));
     }
 
+    @Test
+    void testGetIndexOfTaskAfterRemove() {
+        list.addTask(t1);
+        list.addTask(t3);
+        list.addTask(t4);
+        list.addTask(t5);
+        list.removeTask("task 3");
+        assertEquals(0, list.getTaskIndex("task 1"));
+        assertEquals(1, list.getTaskIndex("task 4"));
+        assertEquals(2, list.getTaskIndex("task 5"));
+        assertEquals(t5, list.getTask(2));
+    }
+
+    @Test
+    void testRenameTask() {
+        list.addTask(t1);
+        list.addTask(t3);
+        t3.setName("renamed");
+        assertFalse(list.containsTask("task 3"));
+        assertEquals(t3, list.getTask("renamed"));
+        assertEquals(1, list.getTaskIndex("renamed"));
+        assertTrue(list.addTask(new Task("task 3", "new task 3")));
+        assertFalse(list.addTask(new Task("renamed", "duplicate")));
+    }
+
+    @Test
+    void testRenameTaskToExistingName() {
+        list.addTask(t1);
+        list.addTask(t3);
+        list.addTask(t4);
+        t4.setName("task 1");
+        assertEquals(t1, list.getTask("task 1"));
+        list.sortByPriority();
+        assertEquals(t1, list.getTask("task 1"));
+        t1.setName("task 2");
+        assertEquals(t4, list.getTask("task 1"));
+        assertEquals(t4.getName(), list.getTask(list.getTaskIndex("task 1")).getName());
+        int[] removedIndex = list.removeTask("task 1");
+        assertEquals(1, removedIndex.length);
+        assertFalse(list.containsTask("task 1"));
+        assertEquals(2, list.getSize());
+        t4.setName("task 3");
+        assertFalse(list.containsTask("task 1"));
+    }
+
+    @Test
+    void testRemoveTaskWithSharedName() {
+        list.addTask(t1);
+        list.addTask(t3);
+        list.addTask(t4);
+        t4.setName("task 1");
+        int[] removedIndex = list.removeTask("task 1");
+        assertEquals(2, removedIndex.length);
+        assertEquals(1, list.getSize());
+        assertEquals(0, list.getTaskIndex("task 3"));
+    }
+
     @Test
     void testSortByPriority() {
         list.addTask(t1);
@@ -220,6 +332,56 @@ public class ToDoListTest {
         assertEquals(3, list.getTaskIndex("task 4"));
     }
 
+    @Test
+    void testKeepSorted() {
+        assertFalse(list.isKeepSorted());
+        list.addTask(t1);
+        list.addTask(t3);
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        assertTrue(list.isKeepSorted());
+        list.addTask(t4);
+        list.addTask(t5);
+        assertEquals(0, list.getTaskIndex("task 1"));
+        assertEquals(1, list.getTaskIndex("task 4"));
+        assertEquals(2, list.getTaskIndex("task 5"));
+        assertEquals(3, list.getTaskIndex("task 3"));
+        t3.setPriority(4);
+        assertEquals(1, list.getTaskIndex("task 3"));
+        assertEquals(2, list.getTaskIndex("task 4"));
+        assertEquals(t4, list.getTask(2));
+        t1.setPriority(0);
+        assertEquals(3, list.getTaskIndex(t1));
+        assertEquals(0, list.getTaskIndex(t3));
+    }
+
+    @Test
+    void testKeepSortedTurnedOnLater() {
+        list.addTask(t1);
+        list.addTask(t3);
+        list.sortByName();
+        list.addTask(t5);
+        list.addTask(t4);
+        assertEquals(3, list.getTaskIndex("task 4"));
+        list.setKeepSorted(true);
+        assertEquals(2, list.getTaskIndex("task 4"));
+        t1.setName("task 9");
+        assertEquals(3, list.getTaskIndex("task 9"));
+        assertEquals(0, list.getTaskIndex("task 3"));
+        list.setKeepSorted(false);
+        t3.setName("task 99");
+        assertEquals(0, list.getTaskIndex("task 99"));
+    }
+
+    @Test
+    void testKeepSortedWithoutSort() {
+        list.setKeepSorted(true);
+        list.addTask(t3);
+        list.addTask(t1);
+        assertEquals(1, list.getTaskIndex("task 1"));
+        assertEquals(-1, list.getTaskIndex(t4));
+    }
+
     @Test
     void testToString() {
         assertEquals("To-Do List is empty", list.toString());
@@ -0,0 +1,230 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UndoHistoryTest {
+    private ToDoList list;
+    private UndoHistory history;
+    private List<String> states;
+    private List<String> notified;
+
+    @BeforeEach
+    void runBefore() {
+        list = new ToDoList("Test");
+        history = new UndoHistory(list);
+        states = new ArrayList<>();
+        notified = new ArrayList<>();
+        list.addChangeListener(change -> notified.add(change.toString()));
+        saveState();
+    }
+
+    // EFFECTS: remembers the current state of list
+    private void saveState() {
+        states.add(state());
+    }
+
+    private String state() {
+        return list.getName() + " " + list.isKeepSorted() + "\n" + list;
+    }
+
+    @Test
+    void testUndoRedoEveryChange() {
+        list.addTask(new Task("a", "first", LocalDateTime.of(2030, 1, 1, 9, 0), 1));
+        saveState();
+        list.addAllTasks(Arrays.asList(new Task("b", "second", 5), new Task("c", "third", 3),
+                new Task("d", "fourth", 3)));
+        saveState();
+        list.setName("Renamed");
+        saveState();
+        list.sortByPriority();
+        saveState();
+        list.setKeepSorted(true);
+        saveState();
+        list.getTask("a").setPriority(4);
+        saveState();
+        list.getTask("c").setCompleted(true);
+        saveState();
+        list.getTask("d").setDeadline(LocalDateTime.of(2031, 2, 3, 4, 5));
+        saveState();
+        list.getTask("d").setDescription("changed");
+        saveState();
+        list.removeAllCompletedTasks();
+        saveState();
+        list.getTask("b").setName("a");
+        saveState();
+        list.removeTask("d");
+        saveState();
+        list.removeAllTasks();
+        saveState();
+        assertEquals(states.size() - 1, history.getUndoCount());
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertTrue(history.undo());
+            assertEquals(states.get(i), state());
+        }
+        assertFalse(history.undo());
+        for (int i = 1; i < states.size(); i++) {
+            assertTrue(history.redo());
+            assertEquals(states.get(i), state());
+        }
+        assertFalse(history.redo());
+    }
+
+    @Test
+    void testUndoSortRestoresTies() {
+        list.addAllTasks(Arrays.asList(new Task("c", "", 1), new Task("a", "", 2), new Task("b", "", 1),
+                new Task("d", "", 2)));
+        saveState();
+        list.sortByPriority();
+        list.sortByName();
+        notified.clear();
+        history.undo();
+        history.undo();
+        assertEquals(states.get(1), state());
+        assertEquals(List.of("PERMUTE 1-3", "PERMUTE 0-3"), notified);
+    }
+
+    @Test
+    void testUndoRemoveSharedNames() {
+        list.addAllTasks(Arrays.asList(new Task("a", "1", 1), new Task("b", "2", 2), new Task("c", "3", 3)));
+        list.getTask("c").setName("a");
+        saveState();
+        list.removeTask("a");
+        assertEquals(1, list.getSize());
+        history.undo();
+        assertEquals(states.get(1), state());
+        assertEquals("1", list.getTask("a").getDescription());
+        list.removeTask("b");
+        assertEquals(0, list.getTaskIndex("a"));
+        assertEquals(1, list.getTaskIndex(list.getTask(1)));
+    }
+
+    @Test
+    void testRowNotifications() {
+        list.addAllTasks(Arrays.asList(new Task("a", "", LocalDateTime.MAX, 0, true), new Task("b", "", 1),
+                new Task("c", "", LocalDateTime.MAX, 0, true), new Task("d", "", LocalDateTime.MAX, 0, true)));
+        list.removeAllCompletedTasks();
+        history.undo();
+        history.redo();
+        history.undo();
+        list.getTask("d").setPriority(5);
+        history.undo();
+        history.undo();
+        assertEquals(List.of("INSERT 0-3", "DELETE 0, 2-3", "INSERT 0, 2-3", "DELETE 0, 2-3", "INSERT 0, 2-3",
+                "UPDATE 3", "UPDATE 3", "DELETE 0-3"), notified);
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void testUndoneMovePermutesRowsBetween() {
+        list.addAllTasks(Arrays.asList(new Task("a", "", 1), new Task("b", "", 2), new Task("c", "", 3)));
+        list.sortByName();
+        list.setKeepSorted(true);
+        list.getTask("a").setName("z");
+        assertEquals(2, list.getTaskIndex("z"));
+        notified.clear();
+        history.undo();
+        assertEquals(0, list.getTaskIndex("a"));
+        assertEquals(List.of("PERMUTE 0-2"), notified);
+    }
+
+    @Test
+    void testNewChangeForgetsRedo() {
+        list.addTask(new Task("a", "", 1));
+        list.addTask(new Task("b", "", 1));
+        history.undo();
+        assertTrue(history.canRedo());
+        list.addTask(new Task("c", "", 1));
+        assertFalse(history.canRedo());
+        assertFalse(history.redo());
+        assertTrue(history.canUndo());
+    }
+
+    @Test
+    void testBudgetForgetsOldestChanges() {
+        history.setBudget(4096);
+        for (int i = 0; i < 200; i++) {
+            list.addTask(new Task("task" + i, "description " + i, 1));
+        }
+        for (int i = 0; i < 200; i++) {
+            list.removeTask("task" + i);
+        }
+        assertTrue(history.getMemoryUsed() <= 4096);
+        int kept = history.getUndoCount();
+        assertTrue(kept > 0 && kept < 200);
+        while (history.undo()) {
+            kept--;
+        }
+        assertEquals(0, kept);
+        assertEquals("task199", list.getTask(list.getSize() - 1).getName());
+        history.setBudget(1);
+        assertFalse(history.canRedo());
+        assertEquals(0, history.getMemoryUsed());
+    }
+
+    @Test
+    void testUndoneAddCountsTasks() {
+        list.addTask(new Task("a", "x".repeat(10000), 1));
+        long added = history.getMemoryUsed();
+        assertTrue(added < 1000);
+        history.undo();
+        assertTrue(history.getMemoryUsed() > added + 20000);
+        history.redo();
+        assertEquals(added, history.getMemoryUsed());
+        history.undo();
+        history.setBudget(1000);
+        assertFalse(history.canRedo());
+        assertEquals(0, history.getMemoryUsed());
+    }
+
+    @Test
+    void testUndoIsReplayedByMutationListener() {
+        List<Mutation> recorded = new ArrayList<>();
+        list.setMutationListener(recorded::add);
+        list.addAllTasks(Arrays.asList(new Task("a", "1", 2), new Task("b", "2", 1), new Task("c", "3", 3)));
+        list.sortByPriority();
+        list.getTask("b").setCompleted(true);
+        list.removeAllCompletedTasks();
+        history.undo();
+        history.undo();
+        history.undo();
+        history.redo();
+        ToDoList replayed = new ToDoList("Test");
+        for (Mutation m : recorded) {
+            m.applyTo(replayed);
+        }
+        MutationTest.assertSame(list, replayed);
+    }
+
+    @Test
+    void testDetachStopsRecording() {
+        list.addTask(new Task("a", "", 1));
+        history.detach();
+        list.addTask(new Task("b", "", 1));
+        assertFalse(history.canUndo());
+        assertFalse(history.undo());
+        assertEquals(2, list.getSize());
+    }
+
+    @Test
+    void testConcurrentToDoList() {
+        ConcurrentToDoList shared = new ConcurrentToDoList("Shared");
+        UndoHistory sharedHistory = new UndoHistory(shared);
+        shared.addAllTasks(Arrays.asList(new Task("a", "", 1), new Task("b", "", 2)));
+        shared.getTask("a").setDescription("changed");
+        shared.removeTask("b");
+        sharedHistory.undo();
+        sharedHistory.undo();
+        assertEquals("", shared.getTask("a").getDescription());
+        assertEquals(1, shared.getTaskIndex("b"));
+        sharedHistory.undo();
+        assertTrue(shared.isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package persistence;
+
+import model.Event;
+import model.EventLog;
+import model.EventOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncEventFileSinkTest {
+    private static final String DIRECTORY = "./data/testEventSink";
+
+    @BeforeEach
+    void runBefore() {
+        deleteDirectory();
+    }
+
+    @AfterEach
+    void runAfter() {
+        deleteDirectory();
+    }
+
+    // EFFECTS: deletes every file in DIRECTORY, then DIRECTORY itself
+    private void deleteDirectory() {
+        File directory = new File(DIRECTORY);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                assertTrue(f.delete());
+            }
+            assertTrue(directory.delete());
+        }
+    }
+
+    @Test
+    void testWritesLoggedEvents() throws IOException {
+        AsyncEventFileSink sink = new AsyncEventFileSink(DIRECTORY);
+        EventLog.getInstance().setSink(sink);
+        try {
+            EventLog.getInstance().logEvent(new Event("Added task: {}", "multi\nline"));
+            EventLog.getInstance().logEvent(new Event("Removed all tasks"));
+        } finally {
+            EventLog.getInstance().setSink(null);
+        }
+        sink.flush();
+        List<String> lines = Files.readAllLines(sink.getCurrentFile());
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).endsWith("\tAdded task: multi\\nline"));
+        assertTrue(lines.get(1).endsWith("\tRemoved all tasks"));
+        sink.close();
+        sink.accept(new Event("after close"));
+        assertEquals(2, Files.readAllLines(sink.getCurrentFile()).size());
+    }
+
+    @Test
+    void testRotationAndBackpressure() throws Exception {
+        AsyncEventFileSink sink = new AsyncEventFileSink(DIRECTORY, 4, 1000);
+        Thread[] producers = new Thread[3];
+        for (int p = 0; p < producers.length; p++) {
+            int id = p;
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < 200; i++) {
+                    sink.accept(new Event("event {} {}", id, i));
+                }
+            });
+            producers[p].start();
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        sink.close();
+        List<String> lines = new ArrayList<>();
+        File[] files = new File(DIRECTORY).listFiles();
+        assertTrue(files.length > 1);
+        for (File f : files) {
+            assertTrue(f.length() <= 1000 || Files.readAllLines(f.toPath()).size() <= 4);
+            lines.addAll(Files.readAllLines(f.toPath()));
+        }
+        assertEquals(600, lines.size());
+        assertTrue(lines.stream().anyMatch(l -> l.endsWith("\tevent 2 199")));
+    }
+
+    @Test
+    void testStopsQueueingOnceWritingFails() throws IOException {
+        AsyncEventFileSink sink = new AsyncEventFileSink(DIRECTORY, 4, 1);
+        Files.createDirectory(sink.getCurrentFile().resolveSibling("events-1.log"));
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 1000; i++) {
+                sink.accept(new Event("event {}", i));
+            }
+            assertThrows(IOException.class, sink::flush);
+            assertThrows(IOException.class, sink::close);
+        });
+    }
+
+    @Test
+    void testAppendsToNewestFile() throws IOException {
+        AsyncEventFileSink first = new AsyncEventFileSink(DIRECTORY, 4, 40);
+        for (int i = 0; i < 10; i++) {
+            first.accept(new Event("event {}", i));
+            first.flush();
+        }
+        first.close();
+        Path newest = first.getCurrentFile();
+        AsyncEventFileSink second = new AsyncEventFileSink(DIRECTORY);
+        assertEquals(newest, second.getCurrentFile());
+        second.close();
+    }
+
+    @Test
+    void testBinaryFiles() throws IOException {
+        AsyncEventFileSink sink = new AsyncEventFileSink(DIRECTORY, 4, 200, true);
+        for (int i = 0; i < 50; i++) {
+            sink.accept(new Event(EventOperation.PRIORITY_CHANGED, "task " + (i % 3), i % 6, (i + 1) % 6));
+            sink.flush();
+        }
+        sink.close();
+        AsyncEventFileSink next = new AsyncEventFileSink(DIRECTORY, 4, 200, true);
+        assertNotEquals(sink.getCurrentFile(), next.getCurrentFile());
+        next.close();
+        List<Event> events = new ArrayList<>();
+        File[] files = new File(DIRECTORY).listFiles();
+        Arrays.sort(files, Comparator.comparingInt((File f) -> f.getName().length()).thenComparing(File::getName));
+        assertTrue(files.length > 2);
+        for (File f : files) {
+            events.addAll(EventDecoder.readAll(f.toPath()));
+        }
+        assertEquals(50, events.size());
+        assertEquals("Task \"task 1\" priority changed: 1 -> 2", events.get(49).getDescription());
+    }
+
+    @Test
+    void testEscape() {
+        assertEquals("a\\\\b\\nc\\td", AsyncEventFileSink.escape("a\\b\nc\td"));
+    }
+}
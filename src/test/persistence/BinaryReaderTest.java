@@ -0,0 +1,152 @@
+package persistence;
+
+import model.ConcurrentToDoList;
+import model.LazyToDoList;
+import model.Task;
+import model.ToDoList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryReaderTest extends JsonTest {
+    private static final String FILE = "./data/testBinaryToDoList.tdl";
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(FILE));
+    }
+
+    // EFFECTS: writes list to FILE in binary format
+    private void save(ToDoList list) throws IOException {
+        BinaryWriter writer = new BinaryWriter(FILE);
+        writer.open();
+        writer.write(list);
+        writer.close();
+    }
+
+    @Test
+    void testReaderNonExistentFile() {
+        assertThrows(IOException.class, () -> new BinaryReader("./data/noSuchFile.tdl").read());
+    }
+
+    @Test
+    void testWriterInvalidFile() {
+        assertThrows(IOException.class, () -> new BinaryWriter("./data/my\0illegal:fileName.tdl").open());
+    }
+
+    @Test
+    void testRoundTripEmptyToDoList() throws IOException {
+        save(new ToDoList("Empty"));
+        ToDoList list = new BinaryReader(FILE).read();
+        assertEquals("Empty", list.getName());
+        assertTrue(list.isEmpty());
+        assertEquals(BinaryWriter.HEADER_SIZE + "Empty".length(), Files.size(Paths.get(FILE)));
+    }
+
+    @Test
+    void testRoundTripGeneralToDoList() throws IOException {
+        ToDoList list = new ToDoList("caf\u00e9 list");
+        list.addTask(new Task("task 1", "", LocalDateTime.MAX, 3));
+        list.addTask(new Task("", "description \uD83D\uDE00", LocalDateTime.of(2022, 8, 8, 23, 59), 5, true));
+        list.addTask(new Task("old", "before 1970", LocalDateTime.of(1969, 12, 31, 23, 59), 0, true));
+        list.addTask(new Task("far", "x".repeat(200000), LocalDateTime.of(123456, 1, 2, 3, 4), 1));
+        save(list);
+        ToDoList read = new BinaryReader(FILE).read();
+        assertEquals("caf\u00e9 list", read.getName());
+        assertEquals(4, read.getSize());
+        for (int i = 0; i < list.getSize(); i++) {
+            Task t = list.getTask(i);
+            checkTask(t.getName(), t.getDescription(), t.getDeadline(), t.getPriority(), t.isCompleted(),
+                    read.getTask(i));
+        }
+    }
+
+    @Test
+    void testRoundTripManyTasks() throws IOException {
+        ConcurrentToDoList list = new ConcurrentToDoList("Many");
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            tasks.add(new Task("task " + i, "description " + i, LocalDateTime.of(2030, 1, 1, 0, 0).plusMinutes(i),
+                    i % 6, i % 2 == 0));
+        }
+        list.addAllTasks(tasks);
+        save(list);
+        BinaryReader reader = new BinaryReader(FILE);
+        reader.open();
+        assertEquals("Many", reader.getListName());
+        assertEquals(10000, reader.getTaskCount());
+        checkTask("task 9999", "description 9999", LocalDateTime.of(2030, 1, 7, 22, 39), 3, false,
+                reader.readTask(9999));
+        checkTask("task 42", "description 42", LocalDateTime.of(2030, 1, 1, 0, 42), 0, true, reader.readTask(42));
+        int count = 0;
+        for (Task t : reader.tasks()) {
+            assertEquals("task " + count++, t.getName());
+        }
+        assertEquals(10000, count);
+    }
+
+    @Test
+    void testReadLazily() throws IOException {
+        ToDoList list = new ToDoList("Lazy");
+        for (int i = 0; i < 50; i++) {
+            list.addTask(new Task("task " + i, "", i % 6));
+        }
+        save(list);
+        LazyToDoList lazy = (LazyToDoList) new BinaryReader(FILE).readLazily();
+        assertEquals("Lazy", lazy.getName());
+        assertEquals(50, lazy.getSize());
+        assertEquals(0, lazy.getTasksInMemory());
+        assertEquals("task 31", lazy.getTask(31).getName());
+        assertEquals(1, lazy.getTasksInMemory());
+        assertEquals(31, lazy.getTaskIndex("task 31"));
+        assertTrue(lazy.isLoaded());
+    }
+
+    @Test
+    void testDeadlineMinutes() {
+        LocalDateTime deadline = LocalDateTime.of(1969, 12, 31, 23, 59, 30);
+        assertEquals(-1, BinaryWriter.toMinutes(deadline));
+        assertEquals(LocalDateTime.of(1969, 12, 31, 23, 59), BinaryReader.toDeadline(-1));
+        assertEquals(BinaryWriter.NO_DEADLINE, BinaryWriter.toMinutes(LocalDateTime.MAX));
+        assertEquals(LocalDateTime.MAX, BinaryReader.toDeadline(BinaryWriter.NO_DEADLINE));
+    }
+
+    @Test
+    void testReaderRejectsOtherFiles() throws IOException {
+        assertThrows(IOException.class, () -> new BinaryReader("./data/testReaderGeneralToDoList.json").read());
+        Path file = Paths.get(FILE);
+        Files.write(file, new byte[] {'T', 'D', 'L', 'B', 0, 0, 0, 9});
+        assertThrows(IOException.class, () -> new BinaryReader(FILE).read());
+        ByteBuffer header = ByteBuffer.allocate(BinaryWriter.HEADER_SIZE);
+        header.put(BinaryWriter.MAGIC).putInt(BinaryWriter.VERSION).putInt(5).putInt(BinaryWriter.RECORD_SIZE)
+                .putInt(BinaryWriter.HEADER_SIZE).putInt(0);
+        Files.write(file, header.array());
+        assertThrows(IOException.class, () -> new BinaryReader(FILE).read());
+    }
+
+    @Test
+    void testFailedSaveKeepsDestination() throws IOException {
+        ToDoList list = new ToDoList("Saved");
+        list.addTask(new Task("task 1", "description 1"));
+        save(list);
+        BinaryWriter writer = new BinaryWriter(FILE);
+        writer.open();
+        Iterable<Task> broken = failingAfter(new Task("task 2", "description 2"));
+        assertThrows(RuntimeException.class, () -> writer.save("Broken", broken));
+        writer.close();
+        ToDoList read = new BinaryReader(FILE).read();
+        assertEquals("Saved", read.getName());
+        assertEquals("task 1", read.getTask(0).getName());
+        assertFalse(Files.exists(Paths.get(FILE + ".tmp")));
+    }
+}
@@ -0,0 +1,232 @@
+package persistence;
+
+import model.LazyToDoList;
+import model.Task;
+import model.ToDoList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeltaLogTest extends JsonTest {
+    private static final String DIRECTORY = "./data/testDeltaLog";
+    private static final String BASE = DIRECTORY + "/testDeltaLogToDoList.json";
+
+    private ToDoList list;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        deleteFiles();
+        Files.createDirectories(Paths.get(DIRECTORY));
+        list = new ToDoList("Delta");
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            batch.add(new Task("task " + i, "description " + i, LocalDateTime.of(2030, 1, 1, 9, i % 60), i % 6,
+                    i % 3 == 0));
+        }
+        list.addAllTasks(batch);
+    }
+
+    @AfterEach
+    void runAfter() {
+        deleteFiles();
+    }
+
+    // EFFECTS: deletes every file in DIRECTORY
+    private void deleteFiles() {
+        File[] files = new File(DIRECTORY).listFiles();
+        if (files != null) {
+            for (File f : files) {
+                assertTrue(f.delete());
+            }
+        }
+    }
+
+    // EFFECTS: checks that actual holds the same tasks as expected, in the same order
+    private void assertSameList(ToDoList expected, ToDoList actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getSize(), actual.getSize());
+        for (int i = 0; i < expected.getSize(); i++) {
+            Task t = expected.getTask(i);
+            checkTask(t.getName(), t.getDescription(), t.getDeadline(), t.getPriority(), t.isCompleted(),
+                    actual.getTask(i));
+        }
+    }
+
+    // EFFECTS: returns the number of lines in the log of BASE
+    private long logLines() throws IOException {
+        return Files.readAllLines(Paths.get(BASE + ".delta"), StandardCharsets.UTF_8).size();
+    }
+
+    // EFFECTS: reads the list saved in BASE with a new log and returns it
+    private ToDoList readBack() throws IOException {
+        DeltaLog reader = new DeltaLog(BASE);
+        try {
+            return reader.read();
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    void testFirstSaveWritesInFull() throws IOException {
+        assertFalse(DeltaLog.exists(BASE));
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        log.close();
+        assertTrue(DeltaLog.exists(BASE));
+        assertNotNull(list.getDirtyTracker());
+        assertSameList(list, new JsonReader(BASE).read());
+        assertSameList(list, readBack());
+    }
+
+    @Test
+    void testReadWithoutChangesIsLazy() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        log.close();
+        DeltaLog other = new DeltaLog(BASE);
+        ToDoList read = other.read();
+        assertTrue(read instanceof LazyToDoList);
+        assertNull(read.getDirtyTracker());
+        assertSameList(list, read);
+        read.getTask(7).setPriority(0);
+        other.save(read);
+        assertEquals(1, logLines());
+        read.getTask(8).setPriority(0);
+        other.save(read);
+        assertEquals(2, logLines());
+        other.close();
+        assertSameList(read, readBack());
+    }
+
+    @Test
+    void testSaveAppendsOnlyChanges() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        byte[] base = Files.readAllBytes(Paths.get(BASE));
+        long header = log.getLogSize();
+        list.getTask(500).setPriority(5);
+        log.save(list);
+        assertTrue(log.getLogSize() - header < 250);
+        long size = log.getLogSize();
+        log.save(list);
+        assertEquals(size, log.getLogSize());
+        log.close();
+        assertArrayEquals(base, Files.readAllBytes(Paths.get(BASE)));
+        assertEquals(5, readBack().getTask(500).getPriority());
+    }
+
+    @Test
+    void testSavesMergeOnRead() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        list.removeTask("task 3");
+        list.addTask(new Task("new", "added", 2));
+        list.getTask(0).setName("renamed");
+        log.save(list);
+        list.sortByPriority();
+        list.removeAllCompletedTasks();
+        list.getTask("new").setDescription("changed");
+        list.setName("Sorted");
+        log.save(list);
+        log.close();
+        assertSameList(list, readBack());
+    }
+
+    @Test
+    void testSavesGoOnAfterRead() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        list.removeTask("task 1");
+        log.save(list);
+        log.close();
+        DeltaLog other = new DeltaLog(BASE);
+        ToDoList read = other.read();
+        read.addTask(new Task("later", "", 1));
+        read.getTask(0).setCompleted(false);
+        read.removeTask("task 999");
+        long size = other.getLogSize();
+        other.save(read);
+        assertTrue(other.getLogSize() - size < 400);
+        other.close();
+        assertSameList(read, readBack());
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        DeltaLog log = new DeltaLog(BASE, 1000);
+        log.save(list);
+        for (int i = 0; i < 20; i++) {
+            list.getTask(i * 7).setDescription("edit " + i);
+            list.removeTask("task " + (900 + i));
+            log.save(list);
+        }
+        log.compact();
+        assertEquals(1, logLines());
+        assertSameList(list, new JsonReader(BASE).read());
+        assertSameList(list, readBack());
+        list.getTask(3).setPriority(0);
+        list.removeTask("task 10");
+        list.sortByName();
+        log.save(list);
+        assertEquals(2, logLines());
+        log.compact();
+        assertEquals(1, logLines());
+        log.close();
+        assertSameList(list, new JsonReader(BASE).read());
+        assertSameList(list, readBack());
+    }
+
+    @Test
+    void testLogForAnotherBaseIsIgnored() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        list.removeTask("task 0");
+        log.save(list);
+        ToDoList other = new ToDoList("Other");
+        other.addTask(new Task("only", "", 1));
+        JsonWriter writer = new JsonWriter(BASE);
+        writer.open();
+        writer.write(other);
+        writer.close();
+        assertSameList(other, readBack());
+        log.save(list);
+        log.close();
+        assertSameList(list, readBack());
+    }
+
+    @Test
+    void testTornChangeIsIgnored() throws IOException {
+        DeltaLog log = new DeltaLog(BASE);
+        log.save(list);
+        list.getTask(2).setPriority(0);
+        log.save(list);
+        log.close();
+        Files.write(Paths.get(BASE + ".delta"), "{\"listName\": \"Torn".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        DeltaLog other = new DeltaLog(BASE);
+        ToDoList read = other.read();
+        assertSameList(list, read);
+        read.getTask(4).setPriority(0);
+        other.save(read);
+        other.close();
+        assertSameList(read, readBack());
+    }
+
+    @Test
+    void testReadMissingFile() {
+        assertThrows(IOException.class, () -> new DeltaLog(DIRECTORY + "/noSuchFile.json").read());
+    }
+}
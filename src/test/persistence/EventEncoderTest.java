@@ -0,0 +1,91 @@
+package persistence;
+
+import model.Event;
+import model.EventOperation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventEncoderTest {
+
+    // EFFECTS: returns events of every kind of value, logged at increasing and decreasing times
+    private List<Event> sampleEvents() {
+        List<Event> events = new ArrayList<>();
+        events.add(new Event(1_000_000_000L, EventOperation.TASK_ADDED, "wash dishes", null, null));
+        events.add(new Event(1_000_000_500L, EventOperation.PRIORITY_CHANGED, "wash dishes", 1, 5));
+        events.add(new Event(999_999_000L, EventOperation.DEADLINE_CHANGED, "wash dishes", LocalDateTime.MAX,
+                LocalDateTime.of(1999, 12, 31, 23, 59, 58, 7)));
+        events.add(new Event(1_000_002_000L, EventOperation.COMPLETED_CHANGED, "wash dishes", false, true));
+        events.add(new Event(1_000_003_000L, EventOperation.NAME_CHANGED, "wash dishes", "wash dishes", "cook"));
+        events.add(new Event(1_000_004_000L, EventOperation.LIST_RESTORED, null, null, 1L << 40));
+        events.add(new Event(1_000_005_000L, EventOperation.MESSAGE, null, null, "caf\u00e9 \u2713"));
+        events.add(new Event("Sensor {} at {}", "open", "door"));
+        return events;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Event> events = sampleEvents();
+        EventEncoder encoder = new EventEncoder();
+        for (Event e : events) {
+            encoder.encode(e);
+        }
+        EventDecoder decoder = new EventDecoder(encoder.take());
+        for (Event expected : events) {
+            assertTrue(decoder.hasNext());
+            Event actual = decoder.next();
+            assertEquals(expected.getEpochNanos(), actual.getEpochNanos());
+            assertEquals(expected.getOperation(), actual.getOperation());
+            assertEquals(expected.getTaskName(), actual.getTaskName());
+            assertEquals(expected.getOldValue(), actual.getOldValue());
+            assertEquals(expected.getNewValue(), actual.getNewValue());
+            assertEquals(expected.toString(), actual.toString());
+        }
+        assertFalse(decoder.hasNext());
+    }
+
+    @Test
+    void testDictionaryKeepsRepeatsSmall() {
+        EventEncoder encoder = new EventEncoder();
+        encoder.encode(new Event(0, EventOperation.TASK_ADDED, "a long task name that repeats", null, null));
+        int first = encoder.take().remaining();
+        encoder.encode(new Event(1, EventOperation.TASK_REMOVED, "a long task name that repeats", null, null));
+        assertEquals(6, encoder.take().remaining());
+        assertTrue(first > 30);
+    }
+
+    @Test
+    void testResetStartsNewStream() throws IOException {
+        EventEncoder encoder = new EventEncoder();
+        encoder.encode(new Event(5, EventOperation.TASK_ADDED, "a", null, null));
+        encoder.reset();
+        encoder.encode(new Event(7, EventOperation.TASK_REMOVED, "a", null, null));
+        Event decoded = new EventDecoder(encoder.take()).next();
+        assertEquals("Removed task: a", decoded.getDescription());
+        assertEquals(7, decoded.getEpochNanos());
+    }
+
+    @Test
+    void testNotAnEventStream() {
+        try {
+            new EventDecoder(ByteBuffer.wrap(new byte[] {'{', '}'}));
+            fail("IOException was expected");
+        } catch (IOException e) {
+            // pass
+        }
+    }
+
+    @Test
+    void testZigZag() {
+        for (long n : new long[] {0, 1, -1, 63, -64, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(n, EventDecoder.unZigZag(EventEncoder.zigZag(n)));
+        }
+        assertEquals(1, EventEncoder.zigZag(-1));
+    }
+}
@@ -1,13 +1,18 @@
 package persistence;
 
 import model.ToDoList;
+import org.json.JSONException;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class JsonReaderTest extends JsonTest{
     @Test
@@ -51,4 +56,73 @@ public class JsonReaderTest extends JsonTest{
         }
     }
 
+    @Test
+    void testReaderUnorderedToDoList() {
+        JsonReader reader = new JsonReader("./data/testReaderUnorderedToDoList.json");
+        try {
+            ToDoList list = reader.read();
+            assertEquals("Unordered", list.getName());
+            assertEquals(1, list.getSize());
+            checkTask("caf\u00e9 \"run\"", "line one\nline two\t\\ /",
+                    LocalDateTime.of(2024, 2, 29, 23, 59), 0,
+                    false, list.getTask(0));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderLenientToDoList() {
+        JsonReader reader = new JsonReader("./data/testReaderLenientToDoList.json");
+        try {
+            ToDoList list = reader.read();
+            assertEquals("Lenient", list.getName());
+            assertEquals(1, list.getSize());
+            checkTask("task 1", "split across lines",
+                    LocalDateTime.of(2023, 2, 28, 10, 0), 3,
+                    true, list.getTask(0));
+        } catch (IOException e) {
+            fail("Couldn't read from file");
+        }
+    }
+
+    @Test
+    void testReaderStringsLongerThanBlock() throws IOException {
+        String description = "x".repeat(20000) + "\u00e9";
+        Path file = Files.createTempFile("testReaderLong", ".json");
+        try {
+            Files.writeString(file, "{\"listName\":\"Long\",\"tasks\":[{\"taskName\":\"a\",\"taskDescription\":\""
+                    + description + "\",\"deadline\":\"None\",\"priority\":5,\"completed\":true}]}",
+                    StandardCharsets.UTF_8);
+            ToDoList list = new JsonReader(file.toString()).read();
+            checkTask("a", description, LocalDateTime.MAX, 5, true, list.getTask(0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testReaderMalformedFile() throws IOException {
+        Path file = Files.createTempFile("testReaderMalformed", ".json");
+        try {
+            Files.writeString(file, "{\"listName\": \"Test\", \"tasks\": [{\"taskName\": ", StandardCharsets.UTF_8);
+            assertThrows(JSONException.class, () -> new JsonReader(file.toString()).read());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testParseDeadline() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        assertEquals(LocalDateTime.MAX, JsonReader.parseDeadline("None"));
+        for (String text : new String[] {"2023-12-12 22:01", "2024-02-29 00:00", "2023-02-29 12:30",
+                "2023-04-31 23:59", "0001-01-01 00:00"}) {
+            assertEquals(LocalDateTime.parse(text, formatter), JsonReader.parseDeadline(text));
+        }
+        assertThrows(DateTimeParseException.class, () -> JsonReader.parseDeadline("2023-13-01 10:00"));
+        assertThrows(DateTimeParseException.class, () -> JsonReader.parseDeadline("2023-01-01 10:60"));
+        assertThrows(DateTimeParseException.class, () -> JsonReader.parseDeadline("2023-1-01 10:00"));
+        assertThrows(DateTimeParseException.class, () -> JsonReader.parseDeadline("tomorrow"));
+    }
 }
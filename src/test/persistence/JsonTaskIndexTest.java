@@ -0,0 +1,107 @@
+package persistence;
+
+import model.LazyToDoList;
+import model.Task;
+import model.ToDoList;
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonTaskIndexTest extends JsonTest {
+
+    // EFFECTS: checks that source read lazily holds the same tasks as source read in full
+    private void assertReadsLikeJsonReader(String source) throws IOException {
+        ToDoList expected = new JsonReader(source).read();
+        ToDoList lazy = new JsonReader(source).readLazily();
+        assertEquals(expected.getName(), lazy.getName());
+        assertEquals(expected.getSize(), lazy.getSize());
+        for (int i = lazy.getSize() - 1; i >= 0; i--) {
+            Task t = expected.getTask(i);
+            checkTask(t.getName(), t.getDescription(), t.getDeadline(), t.getPriority(), t.isCompleted(),
+                    lazy.getTask(i));
+        }
+    }
+
+    @Test
+    void testReadsLikeJsonReader() throws IOException {
+        assertReadsLikeJsonReader("./data/testReaderEmptyToDoList.json");
+        assertReadsLikeJsonReader("./data/testReaderGeneralToDoList.json");
+        assertReadsLikeJsonReader("./data/testReaderUnorderedToDoList.json");
+        assertReadsLikeJsonReader("./data/testReaderLenientToDoList.json");
+    }
+
+    @Test
+    void testIndexesWithoutParsingTasks() throws IOException {
+        JsonTaskIndex index = new JsonTaskIndex("./data/testReaderUnorderedToDoList.json");
+        assertEquals("Unordered", index.getListName());
+        assertEquals(1, index.getTaskCount());
+        assertEquals("caf\u00e9 \"run\"", index.readTask(0).getName());
+        ToDoList list = new JsonReader("./data/testReaderGeneralToDoList.json").readLazily();
+        assertFalse(((LazyToDoList) list).isLoaded());
+        assertEquals(0, ((LazyToDoList) list).getTasksInMemory());
+    }
+
+    @Test
+    void testLenientTaskIsReadLikeJsonReader() throws IOException {
+        Path file = Files.createTempFile("testIndexLenient", ".json");
+        try {
+            Files.writeString(file, "{\"tasks\": [{\"taskName\": \"a {[\", \"taskDescription\": \"\", "
+                    + "\"deadline\": \"None\", \"priority\": \"4\", \"completed\": false,},\n"
+                    + "{\"taskName\": \"b\", \"taskDescription\": \"x\", \"deadline\": \"2030-01-01 10:00\", "
+                    + "\"priority\": 1, \"completed\": true}], \"listName\": \"L\\u0069st\"}",
+                    StandardCharsets.UTF_8);
+            JsonTaskIndex index = new JsonTaskIndex(file.toString());
+            assertEquals("List", index.getListName());
+            assertEquals(2, index.getTaskCount());
+            assertEquals(4, index.readTask(0).getPriority());
+            assertEquals("a {[", index.readTask(0).getName());
+            assertEquals("x", index.readTask(1).getDescription());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testSaveOverFileReadLazily() throws IOException {
+        Path file = Files.createTempFile("testIndexSaveOver", ".json");
+        try {
+            Files.copy(Paths.get("./data/testReaderGeneralToDoList.json"), file, StandardCopyOption.REPLACE_EXISTING);
+            ToDoList expected = new JsonReader(file.toString()).read();
+            ToDoList lazy = new JsonReader(file.toString()).readLazily();
+            JsonWriter writer = new JsonWriter(file.toString());
+            writer.open();
+            writer.write(lazy);
+            writer.close();
+            assertTrue(((LazyToDoList) lazy).isLoaded());
+            assertReadsLikeJsonReader(file.toString());
+            assertEquals(expected.toString(), new JsonReader(file.toString()).read().toString());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testFilesThatCannotBeIndexed() throws IOException {
+        Path file = Files.createTempFile("testIndexUnindexable", ".json");
+        try {
+            Files.writeString(file, "{listName: 'Unquoted', \"tasks\": []}", StandardCharsets.UTF_8);
+            assertThrows(JSONException.class, () -> new JsonTaskIndex(file.toString()));
+            ToDoList list = new JsonReader(file.toString()).readLazily();
+            assertEquals("Unquoted", list.getName());
+            assertTrue(list.isEmpty());
+            Files.writeString(file, "{\"listName\": \"x\", \"tasks\": [null]}", StandardCharsets.UTF_8);
+            assertThrows(JSONException.class, () -> new JsonTaskIndex(file.toString()));
+        } finally {
+            Files.delete(file);
+        }
+        assertThrows(IOException.class, () -> new JsonReader("./data/noSuchFile.json").readLazily());
+    }
+}
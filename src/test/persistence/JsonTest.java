@@ -2,7 +2,10 @@ package persistence;
 
 import model.Task;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.Iterator;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -14,4 +17,25 @@ public class JsonTest {
         assertEquals(priority, task.getPriority());
         assertEquals(completed, task.isCompleted());
     }
+
+    // EFFECTS: returns tasks that give task and then fail, as reading them from a file that breaks off would
+    protected Iterable<Task> failingAfter(Task task) {
+        return () -> new Iterator<Task>() {
+            private boolean given = false;
+
+            @Override
+            public boolean hasNext() {
+                if (given) {
+                    throw new UncheckedIOException(new IOException("source broke off"));
+                }
+                return true;
+            }
+
+            @Override
+            public Task next() {
+                given = true;
+                return task;
+            }
+        };
+    }
 }
@@ -1,13 +1,20 @@
 package persistence;
 
+import model.ConcurrentToDoList;
 import model.Task;
 import model.ToDoList;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class JsonWriterTest extends JsonTest {
@@ -66,4 +73,58 @@ public class JsonWriterTest extends JsonTest {
             fail("Exception should not have been thrown");
         }
     }
+
+    @Test
+    void testWriterMatchesOrgJsonLayout() throws IOException {
+        ToDoList list = new ToDoList("Layout </ \"quoted\" \u00e9");
+        assertWritesLikeOrgJson(list);
+        list.addTask(new Task("only", "one task", LocalDateTime.of(2030, 1, 2, 3, 4), 5));
+        assertWritesLikeOrgJson(list);
+        list.addTask(new Task("tab\tnew\nline\\ a</b", "\u0001\u0085\u2028 \uD83D\uDE00 \uD800 caf\u00e9",
+                LocalDateTime.of(999, 12, 31, 23, 59), -2, true));
+        list.addTask(new Task("", "", LocalDateTime.MAX, 0));
+        list.addTask(new Task("far", "future", LocalDateTime.of(12345, 6, 7, 8, 9), 3));
+        assertWritesLikeOrgJson(list);
+    }
+
+    @Test
+    void testWriterConcurrentToDoList() throws IOException {
+        ConcurrentToDoList list = new ConcurrentToDoList("Shared");
+        list.addTask(new Task("task 1", "description 1", 1));
+        list.addTask(new Task("task 2", "description 2", 2));
+        assertWritesLikeOrgJson(list);
+    }
+
+    @Test
+    void testFailedSaveKeepsDestination() throws IOException {
+        Path file = Paths.get("./data/testWriterFailedSave.json");
+        Files.write(file, "saved before".getBytes(StandardCharsets.UTF_8));
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        try {
+            Iterable<Task> broken = failingAfter(new Task("task 1", "description 1"));
+            assertThrows(RuntimeException.class, () -> writer.save("Broken", broken));
+            writer.close();
+            assertEquals("saved before", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            assertFalse(Files.exists(Paths.get(file + ".tmp")));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // EFFECTS: writes list to file and checks that the file holds exactly what org.json writes for it in UTF-8
+    private void assertWritesLikeOrgJson(ToDoList list) throws IOException {
+        Path file = Paths.get("./data/testWriterLayoutToDoList.json");
+        JsonWriter writer = new JsonWriter(file.toString());
+        writer.open();
+        writer.write(list);
+        writer.close();
+        try {
+            byte[] expected = list.toJson().toString(4).getBytes(StandardCharsets.UTF_8);
+            assertEquals(new String(expected, StandardCharsets.UTF_8),
+                    new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
 }
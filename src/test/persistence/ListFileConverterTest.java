@@ -0,0 +1,41 @@
+package persistence;
+
+import model.ToDoList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ListFileConverterTest extends JsonTest {
+    private static final String BINARY = "./data/testConverterToDoList.tdl";
+    private static final String JSON = "./data/testConverterToDoList.json";
+
+    @AfterEach
+    void runAfter() throws IOException {
+        Files.deleteIfExists(Paths.get(BINARY));
+        Files.deleteIfExists(Paths.get(JSON));
+    }
+
+    @Test
+    void testJsonToBinary() throws IOException {
+        ListFileConverter.jsonToBinary("./data/testReaderGeneralToDoList.json", BINARY);
+        ToDoList list = new BinaryReader(BINARY).read();
+        assertEquals("Test", list.getName());
+        assertEquals(2, list.getSize());
+        checkTask("task 5", "description 5", LocalDateTime.of(2023, 12, 12, 22, 1), 2, true, list.getTask(0));
+        checkTask("task 3", "description 3", LocalDateTime.MAX, 4, false, list.getTask(1));
+    }
+
+    @Test
+    void testBinaryToJsonMatchesJsonWriter() throws IOException {
+        ToDoList original = new JsonReader("./data/testReaderGeneralToDoList.json").read();
+        ListFileConverter.jsonToBinary("./data/testReaderGeneralToDoList.json", BINARY);
+        ListFileConverter.binaryToJson(BINARY, JSON);
+        assertEquals(original.toJson().toString(4), Files.readString(Paths.get(JSON)));
+    }
+}
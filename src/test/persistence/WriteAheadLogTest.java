@@ -0,0 +1,198 @@
+package persistence;
+
+import model.ConcurrentToDoList;
+import model.Mutation;
+import model.Task;
+import model.ToDoList;
+import model.UndoHistory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteAheadLogTest {
+    private static final String DIRECTORY = "./data/testWriteAheadLog";
+
+    @BeforeEach
+    void runBefore() {
+        deleteDirectory();
+    }
+
+    @AfterEach
+    void runAfter() {
+        deleteDirectory();
+    }
+
+    // EFFECTS: deletes every file in DIRECTORY, then DIRECTORY itself
+    private void deleteDirectory() {
+        File directory = new File(DIRECTORY);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                assertTrue(f.delete());
+            }
+            assertTrue(directory.delete());
+        }
+    }
+
+    // EFFECTS: makes a series of changes to list
+    private void edit(ToDoList list) {
+        list.setName("Work");
+        list.addTask(new Task("report", "write report", LocalDateTime.of(2030, 5, 1, 17, 0), 4));
+        list.addAllTasks(Arrays.asList(new Task("mail", "answer mail", 2), new Task("call", "call back", 3)));
+        list.sortByPriority();
+        list.setKeepSorted(true);
+        list.getTask("mail").setPriority(5);
+        list.getTask("call").setName("report");
+        list.getTask(2).setCompleted(true);
+        list.removeAllCompletedTasks();
+    }
+
+    // EFFECTS: returns the number of changes edit makes to a to-do list
+    private int countChanges() {
+        ToDoList list = new ToDoList();
+        int[] changes = new int[1];
+        list.setMutationListener(m -> changes[0]++);
+        edit(list);
+        return changes[0];
+    }
+
+    // EFFECTS: recovers a new to-do list from DIRECTORY, as a new process would after a crash
+    private ToDoList recover(int snapshotInterval) throws IOException {
+        ToDoList recovered = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, snapshotInterval, false);
+        log.open(recovered);
+        log.close();
+        return recovered;
+    }
+
+    @Test
+    void testRecoverAfterCrash() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL, true);
+        assertEquals(0, log.open(list));
+        edit(list);
+        ToDoList recovered = recover(WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL);
+        assertSame(list, recovered);
+        assertEquals(2, recovered.getSize());
+        assertEquals(list.getTaskIndex("report"), recovered.getTaskIndex("report"));
+    }
+
+    @Test
+    void testRecoverUndoneChanges() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL, true);
+        log.open(list);
+        UndoHistory history = new UndoHistory(list);
+        edit(list);
+        for (int i = 0; i < 6; i++) {
+            history.undo();
+        }
+        assertEquals("mail", list.getTask(1).getName());
+        history.redo();
+        ToDoList recovered = recover(WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL);
+        assertSame(list, recovered);
+        assertEquals(3, recovered.getSize());
+    }
+
+    @Test
+    void testSnapshotsEmptyTheLog() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, 3, false);
+        log.open(list);
+        edit(list);
+        // the first snapshot always starts after 3 changes; later ones are skipped while one is being written
+        assertTrue(Files.readAllLines(Paths.get(DIRECTORY, "changes.log")).size() <= countChanges() - 3);
+        log.close();
+        assertTrue(Files.exists(Paths.get(DIRECTORY, "snapshot.json")));
+        assertFalse(Files.exists(Paths.get(DIRECTORY, "changes.old.log")));
+        ToDoList recovered = new ToDoList();
+        WriteAheadLog reopened = new WriteAheadLog(DIRECTORY, 3, false);
+        assertEquals(Files.readAllLines(Paths.get(DIRECTORY, "changes.log")).size(), reopened.open(recovered));
+        assertSame(list, recovered);
+        recovered.addTask(new Task("after", "added after recovery", 1));
+        reopened.close();
+        assertTrue(recover(3).containsTask("after"));
+    }
+
+    @Test
+    void testIgnoresTornTail() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL, false);
+        log.open(list);
+        edit(list);
+        log.close();
+        Files.write(Paths.get(DIRECTORY, "changes.log"), "{\"op\":\"CLEAR\",\"seq".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        assertSame(list, recover(WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL));
+    }
+
+    @Test
+    void testSkipsChangesAlreadyInSnapshot() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL, false);
+        log.open(list);
+        edit(list);
+        byte[] changes = Files.readAllBytes(Paths.get(DIRECTORY, "changes.log"));
+        log.snapshot();
+        log.close();
+        // crash after the snapshot was written but before the log was emptied
+        Files.write(Paths.get(DIRECTORY, "changes.log"), changes);
+        assertSame(list, recover(WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL));
+    }
+
+    @Test
+    void testReplaysLogSetAsideForSnapshot() throws IOException {
+        ToDoList list = new ToDoList();
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL, false);
+        log.open(list);
+        edit(list);
+        log.close();
+        // crash after the log was set aside but before the snapshot was written
+        Files.move(Paths.get(DIRECTORY, "changes.log"), Paths.get(DIRECTORY, "changes.old.log"));
+        assertSame(list, recover(WriteAheadLog.DEFAULT_SNAPSHOT_INTERVAL));
+        assertFalse(Files.exists(Paths.get(DIRECTORY, "changes.old.log")));
+    }
+
+    @Test
+    void testConcurrentToDoList() throws IOException {
+        ConcurrentToDoList list = new ConcurrentToDoList("");
+        WriteAheadLog log = new WriteAheadLog(DIRECTORY, 4, false);
+        log.open(list);
+        edit(list);
+        log.close();
+        ConcurrentToDoList recovered = new ConcurrentToDoList("");
+        WriteAheadLog reopened = new WriteAheadLog(DIRECTORY, 4, false);
+        reopened.open(recovered);
+        reopened.close();
+        assertSame(list, recovered);
+    }
+
+    @Test
+    void testParseMutation() {
+        Mutation m = Mutation.remove(new int[] {1, 4});
+        ToDoList list = new ToDoList();
+        for (int i = 0; i < 5; i++) {
+            list.addTask(new Task("t" + i, "", i));
+        }
+        WriteAheadLog.parseMutation(m.toJson()).applyTo(list);
+        assertEquals("t0 t2 t3", list.getTask(0).getName() + " " + list.getTask(1).getName() + " "
+                + list.getTask(2).getName());
+    }
+
+    private static void assertSame(ToDoList expected, ToDoList actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.isKeepSorted(), actual.isKeepSorted());
+        assertEquals(expected.toString(), actual.toString());
+    }
+}